@@ -0,0 +1,365 @@
+// SPDX-FileCopyrightText: Collegiate Edu-Nation
+// SPDX-License-Identifier: GPL-3.0-or-later
+
+package org.edu_nation.easy_ftc.bench;
+
+import static org.mockito.Mockito.*;
+
+import com.qualcomm.robotcore.eventloop.opmode.LinearOpMode;
+import com.qualcomm.robotcore.hardware.ColorSensor;
+import com.qualcomm.robotcore.hardware.DcMotor;
+import com.qualcomm.robotcore.hardware.DcMotorController;
+import com.qualcomm.robotcore.hardware.DcMotorEx;
+import com.qualcomm.robotcore.hardware.Gamepad;
+import com.qualcomm.robotcore.hardware.HardwareDevice;
+import com.qualcomm.robotcore.hardware.HardwareMap;
+import com.qualcomm.robotcore.hardware.I2cAddr;
+import com.qualcomm.robotcore.hardware.IMU;
+import com.qualcomm.robotcore.hardware.PIDCoefficients;
+import com.qualcomm.robotcore.hardware.PIDFCoefficients;
+import com.qualcomm.robotcore.hardware.Servo;
+import com.qualcomm.robotcore.hardware.ServoController;
+import com.qualcomm.robotcore.hardware.configuration.typecontainers.MotorConfigurationType;
+import org.firstinspires.ftc.robotcore.external.navigation.AngleUnit;
+import org.firstinspires.ftc.robotcore.external.navigation.AngularVelocity;
+import org.firstinspires.ftc.robotcore.external.navigation.AxesOrder;
+import org.firstinspires.ftc.robotcore.external.navigation.AxesReference;
+import org.firstinspires.ftc.robotcore.external.navigation.CurrentUnit;
+import org.firstinspires.ftc.robotcore.external.navigation.Orientation;
+import org.firstinspires.ftc.robotcore.external.navigation.Quaternion;
+import org.firstinspires.ftc.robotcore.external.navigation.YawPitchRollAngles;
+
+/**
+ * Stub hardware for benchmarking off-robot. Motors, servos, IMUs, and color sensors are no-op
+ * classes that return constants, so a device call costs a plain virtual call (no reflection,
+ * argument arrays, or boxing) instead of a hub transaction; Mockito is only used for objects that
+ * aren't touched by the measured paths
+ */
+public final class StubHardware {
+    private static final MotorConfigurationType MOTOR_TYPE = new MotorConfigurationType();
+    private static final YawPitchRollAngles ANGLES =
+            new YawPitchRollAngles(AngleUnit.DEGREES, 30, 0, 0, 0);
+
+    private StubHardware() {}
+
+    /** Return a hardwareMap where every device name resolves to a stub of the requested type */
+    public static HardwareMap hardwareMap() {
+        HardwareMap hardwareMap = mock(HardwareMap.class);
+        when(hardwareMap.get(any(Class.class), anyString()))
+                .thenAnswer(invocation -> device(invocation.getArgument(0)));
+        return hardwareMap;
+    }
+
+    /** Return an opMode that's no longer active, so blocking commands finish immediately */
+    public static LinearOpMode opMode() {
+        return mock(LinearOpMode.class);
+    }
+
+    /** Return a gamepad with all inputs released */
+    public static Gamepad gamepad() {
+        return mock(Gamepad.class);
+    }
+
+    /** Return a stub device implementing type */
+    private static Object device(Class<?> type) {
+        if (type == DcMotorEx.class || type == DcMotor.class) {
+            return new StubMotor();
+        } else if (type == Servo.class) {
+            return new StubServo();
+        } else if (type == IMU.class) {
+            return new StubImu();
+        } else if (type == ColorSensor.class) {
+            return new StubColorSensor();
+        }
+        return mock(type);
+    }
+
+    /** Device methods shared by every stub */
+    private abstract static class StubDevice implements HardwareDevice {
+        @Override
+        public Manufacturer getManufacturer() {
+            return Manufacturer.Other;
+        }
+
+        @Override
+        public String getDeviceName() {
+            return "stub";
+        }
+
+        @Override
+        public String getConnectionInfo() {
+            return "stub";
+        }
+
+        @Override
+        public int getVersion() {
+            return 1;
+        }
+
+        @Override
+        public void resetDeviceConfigurationForOpMode() {}
+
+        @Override
+        public void close() {}
+    }
+
+    /** Motor with no encoder movement, drawing no current */
+    private static final class StubMotor extends StubDevice implements DcMotorEx {
+        @Override
+        public void setMotorEnable() {}
+
+        @Override
+        public void setMotorDisable() {}
+
+        @Override
+        public boolean isMotorEnabled() {
+            return true;
+        }
+
+        @Override
+        public void setVelocity(double angularRate) {}
+
+        @Override
+        public void setVelocity(double angularRate, AngleUnit unit) {}
+
+        @Override
+        public double getVelocity() {
+            return 0;
+        }
+
+        @Override
+        public double getVelocity(AngleUnit unit) {
+            return 0;
+        }
+
+        @Override
+        @Deprecated
+        public void setPIDCoefficients(RunMode mode, PIDCoefficients pidCoefficients) {}
+
+        @Override
+        public void setPIDFCoefficients(RunMode mode, PIDFCoefficients pidfCoefficients) {}
+
+        @Override
+        public void setVelocityPIDFCoefficients(double p, double i, double d, double f) {}
+
+        @Override
+        public void setPositionPIDFCoefficients(double p) {}
+
+        @Override
+        @Deprecated
+        public PIDCoefficients getPIDCoefficients(RunMode mode) {
+            return null;
+        }
+
+        @Override
+        public PIDFCoefficients getPIDFCoefficients(RunMode mode) {
+            return null;
+        }
+
+        @Override
+        public void setTargetPositionTolerance(int tolerance) {}
+
+        @Override
+        public int getTargetPositionTolerance() {
+            return 0;
+        }
+
+        @Override
+        public double getCurrent(CurrentUnit unit) {
+            return 0;
+        }
+
+        @Override
+        public double getCurrentAlert(CurrentUnit unit) {
+            return 0;
+        }
+
+        @Override
+        public void setCurrentAlert(double current, CurrentUnit unit) {}
+
+        @Override
+        public boolean isOverCurrent() {
+            return false;
+        }
+
+        @Override
+        public MotorConfigurationType getMotorType() {
+            return MOTOR_TYPE;
+        }
+
+        @Override
+        public void setMotorType(MotorConfigurationType motorType) {}
+
+        @Override
+        public DcMotorController getController() {
+            return null;
+        }
+
+        @Override
+        public int getPortNumber() {
+            return 0;
+        }
+
+        @Override
+        public void setZeroPowerBehavior(ZeroPowerBehavior zeroPowerBehavior) {}
+
+        @Override
+        public ZeroPowerBehavior getZeroPowerBehavior() {
+            return ZeroPowerBehavior.BRAKE;
+        }
+
+        @Override
+        @Deprecated
+        public void setPowerFloat() {}
+
+        @Override
+        public boolean getPowerFloat() {
+            return false;
+        }
+
+        @Override
+        public void setTargetPosition(int position) {}
+
+        @Override
+        public int getTargetPosition() {
+            return 0;
+        }
+
+        @Override
+        public boolean isBusy() {
+            return false;
+        }
+
+        @Override
+        public int getCurrentPosition() {
+            return 0;
+        }
+
+        @Override
+        public void setMode(RunMode mode) {}
+
+        @Override
+        public RunMode getMode() {
+            return RunMode.RUN_WITHOUT_ENCODER;
+        }
+
+        @Override
+        public void setDirection(Direction direction) {}
+
+        @Override
+        public Direction getDirection() {
+            return Direction.FORWARD;
+        }
+
+        @Override
+        public void setPower(double power) {}
+
+        @Override
+        public double getPower() {
+            return 0;
+        }
+    }
+
+    /** Servo that stays at its lower limit */
+    private static final class StubServo extends StubDevice implements Servo {
+        @Override
+        public ServoController getController() {
+            return null;
+        }
+
+        @Override
+        public int getPortNumber() {
+            return 0;
+        }
+
+        @Override
+        public void setDirection(Direction direction) {}
+
+        @Override
+        public Direction getDirection() {
+            return Direction.FORWARD;
+        }
+
+        @Override
+        public void setPosition(double position) {}
+
+        @Override
+        public double getPosition() {
+            return 0;
+        }
+
+        @Override
+        public void scaleRange(double min, double max) {}
+    }
+
+    /** IMU holding a fixed 30 degree heading */
+    private static final class StubImu extends StubDevice implements IMU {
+        @Override
+        public boolean initialize(Parameters parameters) {
+            return true;
+        }
+
+        @Override
+        public void resetYaw() {}
+
+        @Override
+        public YawPitchRollAngles getRobotYawPitchRollAngles() {
+            return ANGLES;
+        }
+
+        @Override
+        public Orientation getRobotOrientation(
+                AxesReference reference, AxesOrder order, AngleUnit angleUnit) {
+            return null;
+        }
+
+        @Override
+        public Quaternion getRobotOrientationAsQuaternion() {
+            return null;
+        }
+
+        @Override
+        public AngularVelocity getRobotAngularVelocity(AngleUnit angleUnit) {
+            return null;
+        }
+    }
+
+    /** Color sensor reading a fixed orange */
+    private static final class StubColorSensor extends StubDevice implements ColorSensor {
+        @Override
+        public int red() {
+            return 120;
+        }
+
+        @Override
+        public int green() {
+            return 60;
+        }
+
+        @Override
+        public int blue() {
+            return 30;
+        }
+
+        @Override
+        public int alpha() {
+            return 0;
+        }
+
+        @Override
+        public int argb() {
+            return 0;
+        }
+
+        @Override
+        public void enableLed(boolean enable) {}
+
+        @Override
+        public void setI2cAddress(I2cAddr newAddress) {}
+
+        @Override
+        public I2cAddr getI2cAddress() {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+// SPDX-FileCopyrightText: Collegiate Edu-Nation
+// SPDX-License-Identifier: GPL-3.0-or-later
+
+package org.edu_nation.easy_ftc.mechanism;
+
+import com.qualcomm.robotcore.eventloop.opmode.LinearOpMode;
+import com.qualcomm.robotcore.hardware.Gamepad;
+import com.qualcomm.robotcore.hardware.HardwareMap;
+import java.util.concurrent.TimeUnit;
+import org.edu_nation.easy_ftc.bench.StubHardware;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Per-loop cost of {@link CommandSequence#control()} while waiting for the trigger, and of running
+ * a full sequence once triggered. Commands finish immediately since the stub opMode isn't active,
+ * so the latter includes one mocked opModeIsActive() per command. Sequences start on a press of
+ * dpad_right, so each triggered run also includes snapshotting a release and a press
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CommandSequenceBenchmark {
+    private Gamepad gamepad;
+    private GamepadState input;
+    private CommandSequence sequence;
+
+    @Setup
+    public void setup() {
+        LinearOpMode opMode = StubHardware.opMode();
+        HardwareMap hardwareMap = StubHardware.hardwareMap();
+        gamepad = StubHardware.gamepad();
+        input = GamepadState.of(gamepad);
+        Drive drive = new Drive.Builder(opMode, hardwareMap).gamepad(gamepad).build();
+        Lift lift = new Lift.Builder(opMode, hardwareMap).build();
+        sequence =
+                new CommandSequence()
+                        .command(drive, Drive.Direction.FORWARD, 0, 0.5)
+                        .command(lift, Lift.Direction.UP, 0, 0.5)
+                        .command(drive, Drive.Direction.BACKWARD, 0, 0.5);
+    }
+
+    @Benchmark
+    public CommandSequence controlIdle() {
+        gamepad.dpad_right = false;
+        sequence.control();
+        return sequence;
+    }
+
+    @Benchmark
+    public CommandSequence controlTriggered() {
+        gamepad.dpad_right = false;
+        input.update();
+        gamepad.dpad_right = true;
+        input.update();
+        sequence.control();
+        return sequence;
+    }
+}
@@ -0,0 +1,72 @@
+// SPDX-FileCopyrightText: Collegiate Edu-Nation
+// SPDX-License-Identifier: GPL-3.0-or-later
+
+package org.edu_nation.easy_ftc.mechanism;
+
+import com.qualcomm.robotcore.hardware.Gamepad;
+import java.util.concurrent.TimeUnit;
+import org.edu_nation.easy_ftc.bench.StubHardware;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Per-loop cost of {@link Drive} teleop control and command translation, for every type/layout */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DriveBenchmark {
+    @Param({"DIFFERENTIAL:TANK", "DIFFERENTIAL:ARCADE", "MECANUM:ROBOT", "MECANUM:FIELD"})
+    public String config;
+
+    private Drive drive;
+    private Gamepad gamepad;
+    private boolean flip;
+
+    @Setup
+    public void setup() {
+        String[] typeLayout = config.split(":");
+        gamepad = StubHardware.gamepad();
+        gamepad.left_stick_y = -0.5f;
+        gamepad.left_stick_x = 0.25f;
+        gamepad.right_stick_y = -0.5f;
+        gamepad.right_stick_x = 0.25f;
+        drive =
+                new Drive.Builder(StubHardware.opMode(), StubHardware.hardwareMap())
+                        .type(Drive.Type.valueOf(typeLayout[0]))
+                        .layout(Drive.Layout.valueOf(typeLayout[1]))
+                        .gamepad(gamepad)
+                        .build();
+    }
+
+    /** Sticks held still, so repeated powers are skipped */
+    @Benchmark
+    public Drive controlSteady() {
+        drive.control();
+        return drive;
+    }
+
+    /** Sticks alternating every loop, so every motor is written */
+    @Benchmark
+    public Drive controlMoving() {
+        flip = !flip;
+        gamepad.left_stick_y = flip ? -0.5f : 0.5f;
+        drive.control();
+        return drive;
+    }
+
+    @Benchmark
+    public double[] languageToDirection() {
+        return drive.languageToDirection(Drive.Direction.FORWARD, 0);
+    }
+}
@@ -0,0 +1,57 @@
+// SPDX-FileCopyrightText: Collegiate Edu-Nation
+// SPDX-License-Identifier: GPL-3.0-or-later
+
+package org.edu_nation.easy_ftc.mechanism;
+
+import java.util.concurrent.TimeUnit;
+import org.edu_nation.easy_ftc.bench.StubHardware;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Cost of the encoder math shared by every {@link MotorMechanism} and the gyro turn controller */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MotorMechanismBenchmark {
+    @Param({"90", "540"})
+    public double degrees;
+
+    private final double[] movements = {1, -1, 1, -1};
+    private Drive drive;
+    private TurnController controller;
+
+    @Setup
+    public void setup() {
+        drive =
+                new Drive.Builder(StubHardware.opMode(), StubHardware.hardwareMap())
+                        .type(Drive.Type.MECANUM)
+                        .layout(Drive.Layout.ROBOT)
+                        .encoder()
+                        .diameter(4)
+                        .build();
+        controller = new TurnController(0.03, 0.02, 0.002, 1.0, 5.0);
+        controller.reset(degrees, 1.0);
+    }
+
+    @Benchmark
+    public int[] calculatePositions() {
+        return drive.calculatePositions(24, movements);
+    }
+
+    @Benchmark
+    public double turnControllerUpdate() {
+        return controller.update(degrees / 2, 90, 0.01);
+    }
+}
@@ -0,0 +1,53 @@
+// SPDX-FileCopyrightText: Collegiate Edu-Nation
+// SPDX-License-Identifier: GPL-3.0-or-later
+
+package org.edu_nation.easy_ftc.sensor;
+
+import java.util.concurrent.TimeUnit;
+import org.edu_nation.easy_ftc.bench.StubHardware;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Per-loop cost of classifying a reading with {@link Color#state()}, and by swatch with {@link
+ * Color#getSwatch()}
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ColorBenchmark {
+    private Color color;
+    private Color swatchColor;
+
+    @Setup
+    public void setup() {
+        color = new Color.Builder(StubHardware.hardwareMap()).build();
+        swatchColor =
+                new Color.Builder(StubHardware.hardwareMap())
+                        .swatch("yellow", 210, 190, 60)
+                        .swatch("purple", 120, 70, 170)
+                        .swatch("white", 200, 220, 210)
+                        .build();
+    }
+
+    @Benchmark
+    public Color.RGB state() {
+        return color.state();
+    }
+
+    @Benchmark
+    public String getSwatch() {
+        return swatchColor.getSwatch();
+    }
+}
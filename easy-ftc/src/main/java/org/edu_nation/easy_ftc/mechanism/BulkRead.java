@@ -0,0 +1,134 @@
+// SPDX-FileCopyrightText: Collegiate Edu-Nation
+// SPDX-License-Identifier: GPL-3.0-or-later
+
+package org.edu_nation.easy_ftc.mechanism;
+
+import com.qualcomm.hardware.lynx.LynxModule;
+import com.qualcomm.robotcore.hardware.HardwareMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Hub-level bulk-read layer shared by every mechanism built from the same hardwareMap. Enables
+ * LynxModule bulk caching so that the positions, velocities, and busy flags of every motor on a hub
+ * are fetched in a single transaction, and tracks the loop cycle that mechanisms use to read their
+ * motors at most once per iteration
+ *
+ * <p>In AUTO mode (the default), hubs refresh their cache whenever a value is read twice, so no
+ * extra calls are needed: each control() call, command, or motion update reads a mechanism's
+ * motors at most once, and a new cycle begins whenever a mechanism starts another one, so
+ * mechanisms that each run once per loop iteration share one transaction per hub. In MANUAL mode,
+ * call {@link #clear()} once at the start of every loop iteration; every mechanism then reads from
+ * that iteration's snapshot, however many calls it makes
+ *
+ * <p>Hubs that have already been put in MANUAL mode are left in it; otherwise, hubs are switched to
+ * AUTO
+ *
+ * <p><b>Basic Usage:</b>
+ *
+ * <pre>{@code
+ * BulkRead bulkRead = BulkRead.of(hardwareMap).mode(LynxModule.BulkCachingMode.MANUAL);
+ * while (opModeIsActive()) {
+ *     bulkRead.clear();
+ *     drive.control();
+ *     lift.control();
+ * }
+ * }</pre>
+ */
+public final class BulkRead {
+    private static final Map<HardwareMap, BulkRead> instances = new WeakHashMap<>();
+    private final List<LynxModule> modules;
+    private LynxModule.BulkCachingMode mode;
+    private long cycle;
+
+    /** Constructor */
+    private BulkRead(HardwareMap hardwareMap) {
+        this.modules = hardwareMap.getAll(LynxModule.class);
+
+        // keep a team's own MANUAL caching rather than overriding it
+        LynxModule.BulkCachingMode existing = LynxModule.BulkCachingMode.AUTO;
+        for (LynxModule module : modules) {
+            if (module.getBulkCachingMode() == LynxModule.BulkCachingMode.MANUAL) {
+                existing = LynxModule.BulkCachingMode.MANUAL;
+            }
+        }
+        mode(existing);
+    }
+
+    /**
+     * Return the bulk-read layer shared by all mechanisms using hardwareMap
+     *
+     * @param hardwareMap instance of the calling opMode's hardwareMap
+     * @return shared bulk-read instance
+     * @throws NullPointerException if hardwareMap is null
+     */
+    public static synchronized BulkRead of(HardwareMap hardwareMap) {
+        if (hardwareMap == null) {
+            throw new NullPointerException("Null hardwareMap passed to BulkRead.of()");
+        }
+        BulkRead bulkRead = instances.get(hardwareMap);
+        if (bulkRead == null) {
+            bulkRead = new BulkRead(hardwareMap);
+            instances.put(hardwareMap, bulkRead);
+        }
+        return bulkRead;
+    }
+
+    /**
+     * Specify the bulk caching mode of every hub
+     *
+     * @param mode bulk caching mode, one of BulkCachingMode.AUTO or MANUAL
+     * @return bulk-read instance
+     * @throws NullPointerException if mode is null
+     * @throws IllegalArgumentException if mode is BulkCachingMode.OFF
+     */
+    public BulkRead mode(LynxModule.BulkCachingMode mode) {
+        if (mode == null) {
+            throw new NullPointerException("Null mode passed to BulkRead.mode()");
+        }
+        if (mode == LynxModule.BulkCachingMode.OFF) {
+            throw new IllegalArgumentException(
+                    "Unexpected mode: "
+                            + mode
+                            + ", passed to BulkRead.mode(). Valid modes are: BulkCachingMode.AUTO, BulkCachingMode.MANUAL");
+        }
+        this.mode = mode;
+        for (LynxModule module : modules) {
+            module.setBulkCachingMode(mode);
+        }
+        return this;
+    }
+
+    /** Start a new loop cycle, clearing each hub's cache when in MANUAL mode */
+    public void clear() {
+        if (mode == LynxModule.BulkCachingMode.MANUAL) {
+            for (LynxModule module : modules) {
+                module.clearBulkCache();
+            }
+        }
+        cycle++;
+    }
+
+    /** Return the current loop cycle */
+    long cycle() {
+        return cycle;
+    }
+
+    /**
+     * Return the current loop cycle for a reader whose previous call was during lastCycle. In AUTO
+     * mode, starts a new cycle if clear() hasn't been called since then, so loops that never call
+     * clear() still read fresh values each iteration
+     */
+    long read(long lastCycle) {
+        if (mode == LynxModule.BulkCachingMode.AUTO && cycle == lastCycle) {
+            cycle++;
+        }
+        return cycle;
+    }
+
+    /** Whether a snapshot read during readCycle can still be reused */
+    boolean isCurrent(long readCycle) {
+        return readCycle == cycle;
+    }
+}
@@ -6,6 +6,7 @@ package org.edu_nation.easy_ftc.mechanism;
 import com.qualcomm.robotcore.eventloop.opmode.LinearOpMode;
 import com.qualcomm.robotcore.hardware.Gamepad;
 import com.qualcomm.robotcore.hardware.HardwareMap;
+import org.edu_nation.easy_ftc.mechanism.GamepadState.Button;
 
 /**
  * Implements a claw by extending the functionality of {@link ServoMechanism}
@@ -43,10 +44,12 @@ public class Claw extends ServoMechanism<Claw.Direction> {
      *   <li>reverse = false
      *   <li>reverseDevices = {}
      *   <li>gamepad = null
+     *   <li>metrics = false
      *   <li>smooth = false
      *   <li>increment = 0.02
      *   <li>incrementDelay = 0.02
      *   <li>delay = 2
+     *   <li>travelTime = 0.0, 0.0 (disabled)
      *   <li>count = 1
      *   <li>names = {"claw"}
      *   <li>open = 1.0
@@ -102,6 +105,11 @@ public class Claw extends ServoMechanism<Claw.Direction> {
             return super.gamepad(gamepad);
         }
 
+        @Override
+        public Builder metrics() {
+            return super.metrics();
+        }
+
         // methods inherited from ServoMechanism.Builder
         @Override
         public Builder smooth() {
@@ -132,6 +140,14 @@ public class Claw extends ServoMechanism<Claw.Direction> {
             return super.delay(delay);
         }
 
+        /**
+         * @throws IllegalArgumentException {@inheritDoc}
+         */
+        @Override
+        public Builder travelTime(double travelTime, double settleTime) {
+            return super.travelTime(travelTime, settleTime);
+        }
+
         // claw-specific methods
         /**
          * Specify the number of servos
@@ -212,6 +228,7 @@ public class Claw extends ServoMechanism<Claw.Direction> {
          * @throws IllegalStateException if count != names.length
          * @throws IllegalStateException if smooth = false and one of: increment, incrementDelay has
          *     been set
+         * @throws IllegalStateException if smooth = true and travelTime has been set
          * @throws IllegalStateException if open &lt;= close
          */
         @Override
@@ -224,6 +241,10 @@ public class Claw extends ServoMechanism<Claw.Direction> {
                 throw new IllegalStateException(
                         "One of: Claw.Builder().increment() or Claw.Builder().incrementDelay() has been set without enabling Claw.Builder().smooth(). Enable Claw.Builder().smooth() for intended functionality");
             }
+            if (this.smooth && this.travelTime != 0) {
+                throw new IllegalStateException(
+                        "Claw.Builder().travelTime() has been set with Claw.Builder().smooth() enabled. Smooth-servo control moves at increment per incrementDelay instead");
+            }
             if (this.open <= this.close) {
                 throw new IllegalStateException(
                         "Unexpected open and close values: "
@@ -255,12 +276,19 @@ public class Claw extends ServoMechanism<Claw.Direction> {
     /** Enable teleoperated claw movement with gamepad (b, a) */
     @Override
     public void control() {
-        double position = servos[0].getPosition();
-        double movement = controlToDirection(position, gamepad.b, gamepad.a);
-        if (smooth) {
-            setPositionsByIncrement(position, movement);
-        } else {
-            setPositions(movement);
+        long start = metrics.start(Metrics.Call.CONTROL);
+        try {
+            double position = getPosition();
+            GamepadState input = input();
+            double movement =
+                    controlToDirection(position, input.isDown(Button.B), input.isDown(Button.A));
+            if (smooth) {
+                setPositionsBySlew(position, movement);
+            } else {
+                setPositions(movement);
+            }
+        } finally {
+            metrics.stop(Metrics.Call.CONTROL, start);
         }
     }
 
@@ -273,16 +301,28 @@ public class Claw extends ServoMechanism<Claw.Direction> {
      */
     @Override
     public void command(Direction direction) {
-        double servoDirection = languageToDirection(direction);
-        if (smooth) {
-            double position = servos[0].getPosition();
-            setPositionsByIncrementUntilComplete(position, servoDirection);
-        } else {
-            setPositions(servoDirection);
-            wait(delay);
+        long start = metrics.start(Metrics.Call.COMMAND);
+        try {
+            await(commandAsync(direction));
+        } finally {
+            metrics.stop(Metrics.Call.COMMAND, start);
         }
     }
 
+    /**
+     * Initiate an automated claw movement without blocking; advance it with {@link
+     * Motion#update()} until {@link Motion#isDone()}
+     *
+     * @param direction direction to move the mechanism; see {@link Direction} for accepted values
+     * @return handle to the started movement
+     * @throws NullPointerException if direction is null
+     * @throws IllegalArgumentException if direction is an unexpected value
+     */
+    @Override
+    public Motion commandAsync(Direction direction) {
+        return moveToPositionAsync(languageToDirection(direction));
+    }
+
     /** Set servo movement based on open, close values and current position */
     protected double controlToDirection(double current, boolean openButton, boolean closeButton) {
         double movement;
@@ -3,12 +3,14 @@
 
 package org.edu_nation.easy_ftc.mechanism;
 
-import com.qualcomm.robotcore.hardware.Gamepad;
 import java.util.ArrayList;
+import org.edu_nation.easy_ftc.mechanism.GamepadState.Button;
 import org.firstinspires.ftc.robotcore.external.navigation.AngleUnit;
 
 /**
- * Create a list of commands to execute sequentially in TeleOp, enabling automation of routines
+ * Create a list of commands to execute sequentially in TeleOp (or Autonomous), enabling automation
+ * of routines. Groups of sequences can run together, so a routine takes as long as its longest
+ * member instead of the sum of them
  *
  * <p><b>Basic Usage:</b>
  *
@@ -18,55 +20,213 @@ import org.firstinspires.ftc.robotcore.external.navigation.AngleUnit;
  *         new CommandSequence()
  *                 .command(drive, Drive.Direction.FORWARD, 2, 0.2)
  *                 .command(drive, Drive.Direction.ROTATE_LEFT, 90, 0.2, AngleUnit.DEGREES)
- *                 .command(claw, Claw.Direction.OPEN);
+ *                 .parallel(
+ *                         new CommandSequence().command(lift, Lift.Direction.UP, 1, 0.8),
+ *                         new CommandSequence().command(claw, Claw.Direction.OPEN));
  *
  * // Usage within main loop
  * sequence.control();
+ *
+ * // Or, usage in Autonomous
+ * sequence.command();
  * }</pre>
  */
 public class CommandSequence {
-    private ArrayList<Command<?>> commands;
-    private Gamepad gamepad;
-    private int state;
-
-    /** Class representation of passed commands for simplified access */
-    class Command<E> {
-        private Mechanism mechanism;
-        private E direction;
-        private double measurement;
-        private double power;
-        private AngleUnit unit;
-
-        private Command(
-                Mechanism mechanism,
-                E direction,
-                double measurement,
-                double power,
-                AngleUnit unit) {
+    private ArrayList<Step> commands;
+    private Step[] program;
+    private GamepadState gamepadState;
+    private long inputCycle;
+    private Mechanism mechanism;
+    private ArrayList<Mechanism> mechanisms;
+    private Mechanism[] tracked;
+
+    /**
+     * A step of the sequence, bound to its mechanism and arguments when added, which starts a
+     * movement when it's reached
+     */
+    abstract static class Step {
+        /** Start the step's movement */
+        abstract Motion start();
+    }
+
+    /** Step bound to a MotorMechanism's linear command when added */
+    private static class MotorCommand<E> extends Step {
+        private final MotorMechanism<E> mechanism;
+        private final E direction;
+        private final double measurement;
+        private final double power;
+
+        private MotorCommand(
+                MotorMechanism<E> mechanism, E direction, double measurement, double power) {
             this.mechanism = mechanism;
             this.direction = direction;
             this.measurement = measurement;
             this.power = power;
-            this.unit = unit;
         }
 
-        private Command(Mechanism mechanism, E direction, double measurement, double power) {
-            this.mechanism = mechanism;
+        @Override
+        Motion start() {
+            return mechanism.commandAsync(direction, measurement, power);
+        }
+    }
+
+    /** Step bound to a {@link Drive}'s angular command when added */
+    private static class TurnCommand extends Step {
+        private final Drive drive;
+        private final Drive.Direction direction;
+        private final double measurement;
+        private final double power;
+        private final AngleUnit unit;
+
+        private TurnCommand(
+                Drive drive,
+                Drive.Direction direction,
+                double measurement,
+                double power,
+                AngleUnit unit) {
+            this.drive = drive;
             this.direction = direction;
             this.measurement = measurement;
             this.power = power;
+            this.unit = unit;
+        }
+
+        @Override
+        Motion start() {
+            return drive.commandAsync(direction, measurement, power, unit);
         }
+    }
 
-        private Command(Mechanism mechanism, E direction) {
+    /** Step bound to a ServoMechanism's command when added */
+    private static class ServoCommand<E> extends Step {
+        private final ServoMechanism<E> mechanism;
+        private final E direction;
+
+        private ServoCommand(ServoMechanism<E> mechanism, E direction) {
             this.mechanism = mechanism;
             this.direction = direction;
         }
+
+        @Override
+        Motion start() {
+            return mechanism.commandAsync(direction);
+        }
+    }
+
+    /** How a group of sequences decides that it has finished */
+    private enum GroupType {
+        PARALLEL,
+        RACE,
+        DEADLINE
+    }
+
+    /** Sequences that run together, each advancing once per tick */
+    private static class Group extends Step {
+        private final GroupType type;
+        private final CommandSequence[] sequences;
+
+        private Group(GroupType type, CommandSequence[] sequences) {
+            this.type = type;
+            this.sequences = sequences;
+        }
+
+        @Override
+        Motion start() {
+            Motion[] members = new Motion[sequences.length];
+            for (int i = 0; i < sequences.length; i++) {
+                members[i] = sequences[i].commandAsync();
+            }
+            return new GroupMotion(type, members);
+        }
+    }
+
+    /**
+     * Non-blocking movement that runs compiled steps one after another, tracking the current one
+     * with a program counter
+     */
+    private static class SequenceMotion extends Motion {
+        private final Step[] steps;
+        private Motion current;
+        private int index;
+
+        private SequenceMotion(Step[] steps) {
+            this.steps = steps;
+            if (steps.length > 0) {
+                current = steps[0].start();
+            }
+        }
+
+        @Override
+        boolean step() {
+            while (current != null) {
+                current.update();
+                if (!current.isDone()) {
+                    return true;
+                }
+
+                // start the next step right away, so steps that finish instantly don't cost a tick
+                index++;
+                current = (index < steps.length) ? steps[index].start() : null;
+            }
+            return false;
+        }
+
+        @Override
+        void stop() {
+            if (current != null) {
+                current.cancel();
+            }
+        }
+    }
+
+    /**
+     * Non-blocking movement that advances every member each tick, ending once all (PARALLEL), any
+     * (RACE), or the first (DEADLINE) of them have finished. Members still running are cancelled
+     */
+    private static class GroupMotion extends Motion {
+        private final GroupType type;
+        private final Motion[] members;
+
+        private GroupMotion(GroupType type, Motion[] members) {
+            this.type = type;
+            this.members = members;
+        }
+
+        @Override
+        boolean step() {
+            boolean allDone = true;
+            boolean anyDone = false;
+            for (Motion member : members) {
+                member.update();
+                if (member.isDone()) {
+                    anyDone = true;
+                } else {
+                    allDone = false;
+                }
+            }
+
+            switch (type) {
+                case RACE:
+                    return !anyDone;
+                case DEADLINE:
+                    return !members[0].isDone();
+                default:
+                    return !allDone;
+            }
+        }
+
+        @Override
+        void stop() {
+            for (Motion member : members) {
+                member.cancel();
+            }
+        }
     }
 
     /** Construct a blank sequence of commands */
     public CommandSequence() {
         this.commands = new ArrayList<>();
-        this.state = 0;
+        this.mechanisms = new ArrayList<>();
     }
 
     /**
@@ -101,8 +261,9 @@ public class CommandSequence {
                     "Null unit passed to angular CommandSequence().command()");
         }
         validate(mechanism, direction);
-        this.commands.add(new Command<>(mechanism, direction, measurement, power, unit));
-        return this;
+        return add(
+                new TurnCommand(
+                        (Drive) mechanism, (Drive.Direction) direction, measurement, power, unit));
     }
 
     /**
@@ -121,8 +282,7 @@ public class CommandSequence {
     public <E> CommandSequence command(
             MotorMechanism<E> mechanism, E direction, double measurement, double power) {
         validate(mechanism, direction);
-        this.commands.add(new Command<>(mechanism, direction, measurement, power));
-        return this;
+        return add(new MotorCommand<>(mechanism, direction, measurement, power));
     }
 
     /**
@@ -138,7 +298,83 @@ public class CommandSequence {
      */
     public <E> CommandSequence command(ServoMechanism<E> mechanism, E direction) {
         validate(mechanism, direction);
-        this.commands.add(new Command<>(mechanism, direction));
+        return add(new ServoCommand<>(mechanism, direction));
+    }
+
+    /**
+     * Add a group of sequences that run together, finishing once all of them have finished
+     *
+     * @param sequences sequences to run together; each should command different mechanisms
+     * @throws NullPointerException if sequences or one of its elements is null
+     * @throws IllegalArgumentException if sequences is empty
+     * @return CommandSequence instance
+     */
+    public CommandSequence parallel(CommandSequence... sequences) {
+        return group(GroupType.PARALLEL, "parallel", sequences);
+    }
+
+    /**
+     * Add a group of sequences that run together, finishing once any of them has finished and
+     * cancelling the rest
+     *
+     * @param sequences sequences to run together; each should command different mechanisms
+     * @throws NullPointerException if sequences or one of its elements is null
+     * @throws IllegalArgumentException if sequences is empty
+     * @return CommandSequence instance
+     */
+    public CommandSequence race(CommandSequence... sequences) {
+        return group(GroupType.RACE, "race", sequences);
+    }
+
+    /**
+     * Add a group of sequences that run together, finishing once deadline has finished and
+     * cancelling the rest
+     *
+     * @param deadline sequence whose completion ends the group
+     * @param sequences sequences to run alongside deadline; each should command different
+     *     mechanisms
+     * @throws NullPointerException if deadline, sequences, or one of its elements is null
+     * @return CommandSequence instance
+     */
+    public CommandSequence deadline(CommandSequence deadline, CommandSequence... sequences) {
+        if (deadline == null || sequences == null) {
+            throw new NullPointerException(
+                    "Null sequence passed to CommandSequence().deadline()");
+        }
+        CommandSequence[] members = new CommandSequence[sequences.length + 1];
+        members[0] = deadline;
+        System.arraycopy(sequences, 0, members, 1, sequences.length);
+        return group(GroupType.DEADLINE, "deadline", members);
+    }
+
+    /** Validates sequences before adding them to the sequence as a group of the given type */
+    private CommandSequence group(GroupType type, String method, CommandSequence[] sequences) {
+        if (sequences == null) {
+            throw new NullPointerException(
+                    "Null sequences passed to CommandSequence()." + method + "()");
+        }
+        if (sequences.length == 0) {
+            throw new IllegalArgumentException(
+                    "Empty sequences passed to CommandSequence()."
+                            + method
+                            + "(). Pass at least one CommandSequence");
+        }
+        for (CommandSequence sequence : sequences) {
+            if (sequence == null) {
+                throw new NullPointerException(
+                        "Null sequence passed to CommandSequence()." + method + "()");
+            }
+            for (Mechanism member : sequence.mechanisms) {
+                adopt(member);
+            }
+        }
+        return add(new Group(type, sequences.clone()));
+    }
+
+    /** Adds a step to the sequence, so it's compiled again before the next run */
+    private CommandSequence add(Step step) {
+        this.commands.add(step);
+        this.program = null;
         return this;
     }
 
@@ -147,66 +383,100 @@ public class CommandSequence {
         if (mechanism == null) {
             throw new NullPointerException("Null mechanism passed to CommandSequence().command()");
         }
-        if (this.gamepad == null && mechanism.gamepad != null) {
-            this.gamepad = mechanism.gamepad;
-        }
+        adopt(mechanism);
         if (direction == null) {
             throw new NullPointerException("Null direction passed to CommandSequence().command()");
         }
     }
 
     /**
-     * Leverage the constructed sequence with gamepad (dpadLeft, dpadRight)
-     *
-     * @throws IllegalArgumentException if the mechanism is an unknown type
+     * Sets gamepad and mechanism (for its opMode and bulk-read) to first non-null instances, and
+     * adds mechanism to those tracked while the sequence runs
+     */
+    private void adopt(Mechanism mechanism) {
+        if (mechanism == null) {
+            return;
+        }
+        if (this.mechanism == null) {
+            this.mechanism = mechanism;
+        }
+        if (!mechanisms.contains(mechanism)) {
+            mechanisms.add(mechanism);
+            tracked = null;
+        }
+        if (this.gamepadState == null && mechanism.gamepadState != null) {
+            this.gamepadState = mechanism.gamepadState;
+        }
+    }
+
+    /**
+     * Leverage the constructed sequence with gamepad (dpadLeft, dpadRight), starting once per press
+     * of dpadRight
      */
     public void control() {
-        int count = commands.size();
-        for (int i = 0; i < count; i++) {
+        // return early if sequence hasn't been initiated (or termination is being requested)
+        if (mechanism == null || gamepadState == null) {
+            return;
+        }
+        long previousCycle = inputCycle;
+        inputCycle = gamepadState.read(inputCycle);
+        if (gamepadState.isDown(Button.DPAD_LEFT)
+                || !gamepadState.wasPressed(Button.DPAD_RIGHT, previousCycle)) {
+            return;
+        }
+
+        Motion motion = commandAsync();
+        while (!motion.isDone()) {
             // terminate sequence when requested
-            if (gamepad.dpad_left) {
-                state = 0;
+            inputCycle = gamepadState.read(inputCycle);
+            if (gamepadState.isDown(Button.DPAD_LEFT)) {
+                motion.cancel();
                 return;
             }
+            mechanism.bulkRead.clear();
+            motion.update();
+            track();
+            mechanism.opMode.idle();
+        }
+    }
 
-            if (i == state) {
-                // return early if sequence hasn't been initiated
-                if (i == 0 && !gamepad.dpad_right) {
-                    return;
-                }
-
-                // execute current command and increment state
-                controlHelper(commands.get(i));
-                state += 1;
-            }
+    /** Run the constructed sequence, blocking until it has completed (e.g. in Autonomous) */
+    public void command() {
+        if (mechanism == null) {
+            return;
         }
+        Motion motion = commandAsync();
+        while (!motion.isDone()) {
+            mechanism.bulkRead.clear();
+            motion.update();
+            track();
+            mechanism.opMode.idle();
+        }
+    }
 
-        // reset state-machine when completed
-        state = 0;
+    /**
+     * Keep the state of every mechanism in the sequence (e.g. a Drive's pose) current, whichever
+     * one's step is running
+     */
+    private void track() {
+        if (tracked == null) {
+            tracked = mechanisms.toArray(new Mechanism[0]);
+        }
+        for (Mechanism member : tracked) {
+            member.track();
+        }
     }
 
-    /** Helper for avoiding unsafe type conversions */
-    @SuppressWarnings("unchecked")
-    private <E> void controlHelper(Command<E> command) {
-        if (command.mechanism instanceof MotorMechanism) {
-            if (command.mechanism instanceof Drive && command.unit instanceof AngleUnit) {
-                ((Drive) command.mechanism)
-                        .command(
-                                (Drive.Direction) command.direction,
-                                command.measurement,
-                                command.power,
-                                command.unit);
-                return;
-            }
-            ((MotorMechanism<E>) command.mechanism)
-                    .command(command.direction, command.measurement, command.power);
-        } else if (command.mechanism instanceof ServoMechanism) {
-            ((ServoMechanism<E>) command.mechanism).command(command.direction);
-        } else {
-            throw new IllegalArgumentException(
-                    "Unknown object passed to CommandSequence.command(). This "
-                            + "shouln't happen, but if it does, ensure the object "
-                            + "is either a MotorMechanism or a ServoMechanism");
+    /**
+     * Start the constructed sequence without blocking; advance it with {@link Motion#update()}
+     * until {@link Motion#isDone()}
+     *
+     * @return handle to the started sequence
+     */
+    public Motion commandAsync() {
+        if (program == null) {
+            program = commands.toArray(new Step[0]);
         }
+        return new SequenceMotion(program);
     }
 }
@@ -3,14 +3,14 @@
 
 package org.edu_nation.easy_ftc.mechanism;
 
-import com.qualcomm.hardware.rev.RevHubOrientationOnRobot;
 import com.qualcomm.hardware.rev.RevHubOrientationOnRobot.LogoFacingDirection;
 import com.qualcomm.hardware.rev.RevHubOrientationOnRobot.UsbFacingDirection;
 import com.qualcomm.robotcore.eventloop.opmode.LinearOpMode;
 import com.qualcomm.robotcore.hardware.DcMotor;
 import com.qualcomm.robotcore.hardware.Gamepad;
 import com.qualcomm.robotcore.hardware.HardwareMap;
-import com.qualcomm.robotcore.hardware.IMU;
+import com.qualcomm.robotcore.util.ElapsedTime;
+import org.edu_nation.easy_ftc.mechanism.GamepadState.Button;
 import org.firstinspires.ftc.robotcore.external.navigation.AngleUnit;
 
 /**
@@ -22,7 +22,17 @@ import org.firstinspires.ftc.robotcore.external.navigation.AngleUnit;
  * @see Layout
  */
 public class Drive extends MotorMechanism<Drive.Direction> {
+    private static final double POSE_TIMEOUT = 1.0;
     private final Type type;
+    private final double[] axes = new double[3];
+    private final double[] controlMovements;
+    private final double[] turnGains;
+    private final double[] turnTolerances;
+    private final double[] translationGains;
+    private final double[] translationTolerances;
+    private final Heading heading;
+    private final Odometry odometry;
+    private boolean tracking;
 
     /** Constructor */
     private Drive(Builder builder) {
@@ -32,8 +42,20 @@ public class Drive extends MotorMechanism<Drive.Direction> {
         this.behavior = builder.behavior;
         this.type = builder.type;
         this.layout = builder.layout;
+        this.controlMovements = new double[count];
+        this.turnGains = builder.turnGains;
+        this.turnTolerances = builder.turnTolerances;
+        this.translationGains = builder.translationGains;
+        this.translationTolerances = builder.translationTolerances;
+        this.heading = new Heading(hardwareMap, logo, usb, bulkRead, metrics);
+        this.odometry = new Odometry(type, count);
         MECHANISM_NAME = Builder.MECHANISM_NAME;
         init();
+
+        // Initializes imu for field-centric layout (other layouts initialize it on first turn)
+        if (layout == Layout.FIELD) {
+            heading.init();
+        }
     }
 
     /**
@@ -51,10 +73,17 @@ public class Drive extends MotorMechanism<Drive.Direction> {
      *   <li>reverse = false
      *   <li>reverseDevices = {}
      *   <li>gamepad = null
+     *   <li>metrics = false
      *   <li>encoder = false
      *   <li>diameter = 0.0
      *   <li>gearing = 0.0
      *   <li>deadzone = 0.0
+     *   <li>epsilon = 0.0
+     *   <li>maxVelocity = 0.0
+     *   <li>maxAcceleration = 0.0
+     *   <li>maxJerk = 0.0
+     *   <li>feedforward = null
+     *   <li>feedbackGain = 0.1
      *   <li>logo = UP
      *   <li>usb = FORWARD
      *   <li>count = 2
@@ -62,6 +91,10 @@ public class Drive extends MotorMechanism<Drive.Direction> {
      *   <li>behavior = FLOAT
      *   <li>type = DIFFERENTIAL
      *   <li>layout = TANK
+     *   <li>turnGains = 0.03, 0.02, 0.002
+     *   <li>turnTolerance = 1.0, 5.0
+     *   <li>translationGains = 0.05, 0.005, 0.05
+     *   <li>translationTolerance = 0.5, 2.0
      * </ul>
      */
     @SuppressWarnings("java:S1185")
@@ -71,6 +104,10 @@ public class Drive extends MotorMechanism<Drive.Direction> {
         private DcMotor.ZeroPowerBehavior behavior = DcMotor.ZeroPowerBehavior.FLOAT;
         private Type type = Type.DIFFERENTIAL;
         private Layout layout = Layout.TANK;
+        private double[] turnGains = {0.03, 0.02, 0.002};
+        private double[] turnTolerances = {1.0, 5.0};
+        private double[] translationGains = {0.05, 0.005, 0.05};
+        private double[] translationTolerances = {0.5, 2.0};
         private static final String MECHANISM_NAME = "Drive";
 
         /**
@@ -114,6 +151,11 @@ public class Drive extends MotorMechanism<Drive.Direction> {
             return super.gamepad(gamepad);
         }
 
+        @Override
+        public Builder metrics() {
+            return super.metrics();
+        }
+
         // methods inherited from MotorMechanism.Builder
         @Override
         public Builder encoder() {
@@ -144,6 +186,54 @@ public class Drive extends MotorMechanism<Drive.Direction> {
             return super.deadzone(deadzone);
         }
 
+        /**
+         * @throws IllegalArgumentException {@inheritDoc}
+         */
+        @Override
+        public Builder epsilon(double epsilon) {
+            return super.epsilon(epsilon);
+        }
+
+        /**
+         * @throws IllegalArgumentException {@inheritDoc}
+         */
+        @Override
+        public Builder maxVelocity(double maxVelocity) {
+            return super.maxVelocity(maxVelocity);
+        }
+
+        /**
+         * @throws IllegalArgumentException {@inheritDoc}
+         */
+        @Override
+        public Builder maxAcceleration(double maxAcceleration) {
+            return super.maxAcceleration(maxAcceleration);
+        }
+
+        /**
+         * @throws IllegalArgumentException {@inheritDoc}
+         */
+        @Override
+        public Builder maxJerk(double maxJerk) {
+            return super.maxJerk(maxJerk);
+        }
+
+        /**
+         * @throws NullPointerException {@inheritDoc}
+         */
+        @Override
+        public Builder feedforward(Feedforward feedforward) {
+            return super.feedforward(feedforward);
+        }
+
+        /**
+         * @throws IllegalArgumentException {@inheritDoc}
+         */
+        @Override
+        public Builder feedbackGain(double feedbackGain) {
+            return super.feedbackGain(feedbackGain);
+        }
+
         /**
          * @throws NullPointerException {@inheritDoc}
          */
@@ -269,6 +359,141 @@ public class Drive extends MotorMechanism<Drive.Direction> {
             return this;
         }
 
+        /**
+         * Specify the gains of the PID controller used for gyro turns, which act on the heading
+         * error in degrees and output a fraction of power
+         *
+         * @param kP proportional gain
+         * @param kI integral gain
+         * @param kD derivative gain, applied to the angular rate in degrees/s
+         * @return builder instance
+         * @throws IllegalArgumentException if kP &lt;= 0
+         * @throws IllegalArgumentException if kI &lt; 0 or kD &lt; 0
+         */
+        public Builder turnGains(double kP, double kI, double kD) {
+            if (kP <= 0) {
+                throw new IllegalArgumentException(
+                        "Unexpected kP value: "
+                                + kP
+                                + ", passed to Drive.Builder().turnGains(). Valid values are numbers > 0");
+            }
+            if (kI < 0) {
+                throw new IllegalArgumentException(
+                        "Unexpected kI value: "
+                                + kI
+                                + ", passed to Drive.Builder().turnGains(). Valid values are numbers >= 0");
+            }
+            if (kD < 0) {
+                throw new IllegalArgumentException(
+                        "Unexpected kD value: "
+                                + kD
+                                + ", passed to Drive.Builder().turnGains(). Valid values are numbers >= 0");
+            }
+            this.turnGains = new double[] {kP, kI, kD};
+            return this;
+        }
+
+        /**
+         * Specify when a gyro turn is considered finished
+         *
+         * @param degrees largest remaining heading error, in degrees
+         * @param degreesPerSecond largest remaining angular rate, in degrees/s
+         * @return builder instance
+         * @throws IllegalArgumentException if degrees &lt;= 0 or degreesPerSecond &lt;= 0
+         */
+        public Builder turnTolerance(double degrees, double degreesPerSecond) {
+            if (degrees <= 0) {
+                throw new IllegalArgumentException(
+                        "Unexpected degrees value: "
+                                + degrees
+                                + ", passed to Drive.Builder().turnTolerance(). Valid values are numbers > 0");
+            }
+            if (degreesPerSecond <= 0) {
+                throw new IllegalArgumentException(
+                        "Unexpected degreesPerSecond value: "
+                                + degreesPerSecond
+                                + ", passed to Drive.Builder().turnTolerance(). Valid values are numbers > 0");
+            }
+            this.turnTolerances = new double[] {degrees, degreesPerSecond};
+            return this;
+        }
+
+        /**
+         * Specify the gains of the controller used to drive to a pose, which act on the distance
+         * from the target (in the same units as diameter) and output a fraction of power
+         *
+         * @param kP proportional gain
+         * @param kD derivative gain, applied to the velocity in units/s
+         * @return builder instance
+         * @throws IllegalArgumentException if kP &lt;= 0
+         * @throws IllegalArgumentException if kD &lt; 0
+         */
+        public Builder translationGains(double kP, double kD) {
+            return translationGains(kP, kD, translationGains[2]);
+        }
+
+        /**
+         * Specify the gains of the controller used to drive to a pose, which act on the distance
+         * from the target (in the same units as diameter) and output a fraction of power
+         *
+         * @param kP proportional gain
+         * @param kD derivative gain, applied to the velocity in units/s
+         * @param kS static output toward the target while outside of tolerance, enough to overcome
+         *     the drivetrain's static friction
+         * @return builder instance
+         * @throws IllegalArgumentException if kP &lt;= 0
+         * @throws IllegalArgumentException if kD &lt; 0
+         * @throws IllegalArgumentException if kS is not in the interval [0, 1)
+         */
+        public Builder translationGains(double kP, double kD, double kS) {
+            if (kP <= 0) {
+                throw new IllegalArgumentException(
+                        "Unexpected kP value: "
+                                + kP
+                                + ", passed to Drive.Builder().translationGains(). Valid values are numbers > 0");
+            }
+            if (kD < 0) {
+                throw new IllegalArgumentException(
+                        "Unexpected kD value: "
+                                + kD
+                                + ", passed to Drive.Builder().translationGains(). Valid values are numbers >= 0");
+            }
+            if (kS < 0 || kS >= 1) {
+                throw new IllegalArgumentException(
+                        "Unexpected kS value: "
+                                + kS
+                                + ", passed to Drive.Builder().translationGains(). Valid values are numbers in the interval [0, 1)");
+            }
+            this.translationGains = new double[] {kP, kD, kS};
+            return this;
+        }
+
+        /**
+         * Specify when driving to a pose is considered finished (along with {@link
+         * #turnTolerance(double, double)} for its heading)
+         *
+         * @param distance largest remaining distance from the target, in the same units as diameter
+         * @param velocity largest remaining speed, in units/s
+         * @return builder instance
+         * @throws IllegalArgumentException if distance &lt;= 0 or velocity &lt;= 0
+         */
+        public Builder translationTolerance(double distance, double velocity) {
+            if (distance <= 0) {
+                throw new IllegalArgumentException(
+                        "Unexpected distance value: "
+                                + distance
+                                + ", passed to Drive.Builder().translationTolerance(). Valid values are numbers > 0");
+            }
+            if (velocity <= 0) {
+                throw new IllegalArgumentException(
+                        "Unexpected velocity value: "
+                                + velocity
+                                + ", passed to Drive.Builder().translationTolerance(). Valid values are numbers > 0");
+            }
+            this.translationTolerances = new double[] {distance, velocity};
+            return this;
+        }
+
         /**
          * Build the drivetrain
          *
@@ -276,6 +501,9 @@ public class Drive extends MotorMechanism<Drive.Direction> {
          * @throws IllegalStateException if count != names.length
          * @throws IllegalStateException if encoder = false and one of: diameter, length, or gearing
          *     has been set
+         * @throws IllegalStateException if one of: maxVelocity, maxAcceleration, or maxJerk has
+         *     been set without all of: diameter (or length), maxVelocity, and maxAcceleration
+         * @throws IllegalStateException if encoder = false and feedforward has been set
          * @throws IllegalStateException if type = DIFFERENTIAL and layout is one of: ROBOT, FIELD
          * @throws IllegalStateException if type = MECANUM and count != 4
          * @throws IllegalStateException if type = MECANUM and layout is one of: ARCADE, TANK
@@ -290,6 +518,15 @@ public class Drive extends MotorMechanism<Drive.Direction> {
                 throw new IllegalStateException(
                         "One of: Drive.Builder().diameter(), Drive.Builder().length(), or Drive.Builder().gearing() has been set without enabling Drive.Builder().encoder(). Enable Drive.Builder().encoder()");
             }
+            if ((this.maxVelocity != 0 || this.maxAcceleration != 0 || this.maxJerk != 0)
+                    && (this.diameter == 0 || this.maxVelocity == 0 || this.maxAcceleration == 0)) {
+                throw new IllegalStateException(
+                        "One of: Drive.Builder().maxVelocity(), Drive.Builder().maxAcceleration(), or Drive.Builder().maxJerk() has been set without all of: Drive.Builder().diameter() (or length()), Drive.Builder().maxVelocity(), and Drive.Builder().maxAcceleration(). Set all three for profiled movement");
+            }
+            if (!this.encoder && this.feedforward != null) {
+                throw new IllegalStateException(
+                        "Drive.Builder().feedforward() has been set without enabling Drive.Builder().encoder(). Enable Drive.Builder().encoder()");
+            }
             if (this.type == Type.DIFFERENTIAL) {
                 if (this.layout == Layout.ROBOT || this.layout == Layout.FIELD) {
                     throw new IllegalStateException(
@@ -356,26 +593,38 @@ public class Drive extends MotorMechanism<Drive.Direction> {
      */
     @Override
     public void control(double multiplier) {
-        validate(multiplier);
-        double heading = 0;
+        long start = metrics.start(Metrics.Call.CONTROL);
+        try {
+            validate(multiplier);
+            startCycle();
+            GamepadState input = input();
+            double robotHeading = 0;
+            if (tracking) {
+                updatePose();
+            }
 
-        // Press option to reset imu to combat drift, set heading if applicable
-        if (layout == Layout.FIELD) {
-            heading = imu.getRobotYawPitchRollAngles().getYaw(AngleUnit.RADIANS);
-            if (gamepad.options) {
-                imu.resetYaw();
+            // Press option to reset imu to combat drift (once per press), set heading if applicable
+            if (layout == Layout.FIELD) {
+                heading.update();
+                robotHeading = Math.toRadians(heading.getHeading());
+                if (wasPressed(Button.OPTIONS)) {
+                    heading.reset();
+                    odometry.resync(0);
+                }
             }
-        }
 
-        double[] movements =
-                controlToDirection(
-                        heading,
-                        gamepad.left_stick_y,
-                        gamepad.left_stick_x,
-                        gamepad.right_stick_y,
-                        gamepad.right_stick_x);
+            double[] movements =
+                    controlToDirection(
+                            robotHeading,
+                            input.getLeftStickY(),
+                            input.getLeftStickX(),
+                            input.getRightStickY(),
+                            input.getRightStickX());
 
-        setPowers(movements, multiplier);
+            setPowers(movements, multiplier);
+        } finally {
+            metrics.stop(Metrics.Call.CONTROL, start);
+        }
     }
 
     /** Enable teleoperated drivetrain movement with gamepad (joysticks), with multiplier = 1.0 */
@@ -397,20 +646,57 @@ public class Drive extends MotorMechanism<Drive.Direction> {
      */
     @Override
     public void command(Direction direction, double measurement, double power) {
+        long start = metrics.start(Metrics.Call.COMMAND);
+        try {
+            validate(measurement, power);
+            startCycle();
+            double robotHeading = 0;
+
+            // set heading if applicable
+            if (layout == Layout.FIELD) {
+                heading.update();
+                robotHeading = Math.toRadians(heading.getHeading());
+            }
+
+            double[] unscaledMovements = languageToDirection(direction, robotHeading);
+            moveForMeasurement(unscaledMovements, measurement, power, false);
+        } finally {
+            metrics.stop(Metrics.Call.COMMAND, start);
+        }
+    }
+
+    /**
+     * Initiate an automated drivetrain movement without blocking; advance it with {@link
+     * Motion#update()} until {@link Motion#isDone()}
+     *
+     * @param direction direction to move the mechanism; see {@link Direction} for accepted values
+     * @param measurement time(s) or distance to move the mechanism
+     * @param power fraction of total power/velocity to use for mechanism command
+     * @return handle to the started movement
+     * @throws NullPointerException if direction is null
+     * @throws IllegalArgumentException if direction is an unexpected value
+     * @throws IllegalArgumentException if measurement &lt; 0
+     * @throws IllegalArgumentException if power is not in the interval (0, 1]
+     */
+    @Override
+    public Motion commandAsync(Direction direction, double measurement, double power) {
         validate(measurement, power);
-        double heading = 0;
+        startCycle();
+        double robotHeading = 0;
 
         // set heading if applicable
         if (layout == Layout.FIELD) {
-            heading = imu.getRobotYawPitchRollAngles().getYaw(AngleUnit.RADIANS);
+            heading.update();
+            robotHeading = Math.toRadians(heading.getHeading());
         }
 
-        double[] unscaledMovements = languageToDirection(direction, heading);
-        moveForMeasurement(unscaledMovements, measurement, power, false);
+        double[] unscaledMovements = languageToDirection(direction, robotHeading);
+        return moveForMeasurementAsync(unscaledMovements, measurement, power, false);
     }
 
     /**
-     * Initiate an automated drivetrain turn using the IMU's gyro
+     * Initiate an automated drivetrain turn using the IMU's gyro. Power limits the turn's output,
+     * which slows down as the heading approaches its target
      *
      * @param direction direction to move the mechanism; see {@link Direction} for accepted values
      *     (one of: ROTATE_LEFT, ROTATE_RIGHT)
@@ -424,23 +710,338 @@ public class Drive extends MotorMechanism<Drive.Direction> {
      * @throws IllegalArgumentException if power is not in the interval (0, 1]
      */
     public void command(Direction direction, double measurement, double power, AngleUnit unit) {
+        long start = metrics.start(Metrics.Call.COMMAND);
+        try {
+            await(commandAsync(direction, measurement, power, unit));
+        } finally {
+            metrics.stop(Metrics.Call.COMMAND, start);
+        }
+    }
+
+    /**
+     * Initiate an automated drivetrain turn using the IMU's gyro without blocking; advance it with
+     * {@link Motion#update()} until {@link Motion#isDone()}
+     *
+     * @param direction direction to move the mechanism; see {@link Direction} for accepted values
+     *     (one of: ROTATE_LEFT, ROTATE_RIGHT)
+     * @param measurement angle to rotate
+     * @param power fraction of total power/velocity to use for mechanism command
+     * @param unit AngleUnit to use for the measurement (one of: DEGREES, RADIANS)
+     * @return handle to the started turn
+     * @throws NullPointerException if direction is null
+     * @throws NullPointerException if unit is null
+     * @throws IllegalArgumentException if direction is an unexpected value
+     * @throws IllegalArgumentException if measurement &lt; 0
+     * @throws IllegalArgumentException if power is not in the interval (0, 1]
+     */
+    public Motion commandAsync(
+            Direction direction, double measurement, double power, AngleUnit unit) {
         validate(power);
         validate(direction, unit);
-        double heading = 0;
+        double measurementDeg = unit.toDegrees(measurement);
+        validateDeg(measurementDeg);
+        startCycle();
+        heading.update();
+
+        // headings increase counterclockwise, i.e. toward ROTATE_LEFT
+        double target =
+                direction == Direction.ROTATE_LEFT
+                        ? heading.getHeading() + measurementDeg
+                        : heading.getHeading() - measurementDeg;
+        TurnController controller = newTurnController();
+        controller.reset(target, power);
+        return new TurnMotion(languageToDirection(Direction.ROTATE_LEFT, 0), controller);
+    }
+
+    /** Return a heading controller with the drive's turn gains and tolerances */
+    private TurnController newTurnController() {
+        return new TurnController(
+                turnGains[0], turnGains[1], turnGains[2], turnTolerances[0], turnTolerances[1]);
+    }
+
+    /**
+     * Non-blocking gyro turn that drives the heading error to zero with a {@link TurnController}.
+     * The heading is continuous, so turns of any size are a single setpoint
+     */
+    private class TurnMotion extends Motion {
+        private final double[] directions;
+        private final TurnController controller;
+        private final ElapsedTime motionTimer = new ElapsedTime();
+        private double time;
+
+        private TurnMotion(double[] directions, TurnController controller) {
+            this.directions = directions;
+            this.controller = controller;
+        }
+
+        @Override
+        boolean step() {
+            if (!opMode.opModeIsActive()) {
+                return false;
+            }
+
+            startCycle();
+            heading.update();
+            double now = motionTimer.seconds();
+            double dt = now - time;
+            time = now;
+
+            double output = controller.update(heading.getHeading(), heading.getRate(), dt);
+            if (controller.isSettled()) {
+                return false;
+            }
+            setPowers(scaleDirections(directions, output));
+            return true;
+        }
+
+        @Override
+        void stop() {
+            setPowers();
+        }
+    }
+
+    /**
+     * Return the robot's estimated position and heading on the field, updated from the wheel
+     * encoders and the IMU. Tracking starts on the first call, from the origin; once started, the
+     * estimate is also updated by control() and blocking commands, so call this every loop when
+     * using commandAsync(). Reads are shared with the rest of the drive through the bulk-read cycle
+     *
+     * <p>The returned pose is overwritten by the next update, so don't hold onto it
+     *
+     * @return estimated pose
+     * @throws IllegalStateException if encoder = false or diameter has not been set
+     */
+    public Pose getPose() {
+        validateOdometry("getPose");
+        startCycle();
+        updatePose();
+        return odometry.getPose();
+    }
+
+    /**
+     * Return the robot's estimated field-relative velocity, from the wheel encoders' velocities and
+     * the IMU's angular rate. Also updates the pose, as in {@link #getPose()}
+     *
+     * <p>The returned velocity is overwritten by the next call, so don't hold onto it
+     *
+     * @return estimated velocity, in units/s and heading/s
+     * @throws IllegalStateException if encoder = false or diameter has not been set
+     */
+    public Pose getVelocity() {
+        validateOdometry("getVelocity");
+        startCycle();
+        return updateVelocity();
+    }
+
+    /**
+     * Overwrite the estimated pose, e.g. with the robot's starting position on the field, and start
+     * tracking from it
+     *
+     * @param pose the robot's current pose
+     * @throws NullPointerException if pose is null
+     * @throws IllegalStateException if encoder = false or diameter has not been set
+     */
+    public void setPose(Pose pose) {
+        if (pose == null) {
+            throw new NullPointerException("Null pose passed to Drive.setPose()");
+        }
+        validateOdometry("setPose");
+        odometry.reset(pose.getX(), pose.getY(), pose.getHeading());
+        startCycle();
+        updatePose();
+    }
+
+    /**
+     * Drive a MECANUM drivetrain to a pose on the field, translating and turning at the same time
+     * under feedback from {@link #getPose()}. Ends once within tolerance of the pose, or once the
+     * robot hasn't gotten any closer to it for a second
+     *
+     * @param x target position forward of the origin, in the same units as diameter
+     * @param y target position left of the origin, in the same units as diameter
+     * @param heading target angle counterclockwise from x (the nearest equivalent angle is used)
+     * @param power maximum fraction of total power to use for mechanism command
+     * @param unit AngleUnit to use for the heading (one of: DEGREES, RADIANS)
+     * @throws NullPointerException if unit is null
+     * @throws IllegalArgumentException if power is not in the interval (0, 1]
+     * @throws IllegalStateException if type != MECANUM
+     * @throws IllegalStateException if encoder = false or diameter has not been set
+     */
+    public void commandToPose(double x, double y, double heading, double power, AngleUnit unit) {
+        long start = metrics.start(Metrics.Call.COMMAND);
+        try {
+            await(commandToPoseAsync(x, y, heading, power, unit));
+        } finally {
+            metrics.stop(Metrics.Call.COMMAND, start);
+        }
+    }
+
+    /**
+     * Drive a MECANUM drivetrain to a pose on the field without blocking; advance it with {@link
+     * Motion#update()} until {@link Motion#isDone()}. Starting the next pose as soon as one is
+     * done keeps multi-waypoint paths moving, since each only slows down near its own target
+     *
+     * @param x target position forward of the origin, in the same units as diameter
+     * @param y target position left of the origin, in the same units as diameter
+     * @param heading target angle counterclockwise from x (the nearest equivalent angle is used)
+     * @param power maximum fraction of total power to use for mechanism command
+     * @param unit AngleUnit to use for the heading (one of: DEGREES, RADIANS)
+     * @return handle to the started movement
+     * @throws NullPointerException if unit is null
+     * @throws IllegalArgumentException if power is not in the interval (0, 1]
+     * @throws IllegalStateException if type != MECANUM
+     * @throws IllegalStateException if encoder = false or diameter has not been set
+     */
+    public Motion commandToPoseAsync(
+            double x, double y, double heading, double power, AngleUnit unit) {
+        validate(power);
+        if (unit == null) {
+            throw new NullPointerException(
+                    "Null AngleUnit passed to Drive.commandToPose(). Valid values are "
+                            + "AngleUnit.DEGREES and AngleUnit.RADIANS");
+        }
+        if (type != Type.MECANUM) {
+            throw new IllegalStateException(
+                    "Drive.commandToPose() requires a holonomic drivetrain. Set Drive.Builder().type() to Drive.Type.MECANUM");
+        }
+        validateOdometry("commandToPose");
+        startCycle();
+        updatePose();
+
+        // turn to whichever equivalent of heading is closest to the current (continuous) heading
+        double current = Math.toDegrees(odometry.getPose().getHeading());
+        double target = current + AngleUnit.normalizeDegrees(unit.toDegrees(heading) - current);
+        TurnController controller = newTurnController();
+        controller.reset(target, power);
+        return new PoseMotion(x, y, power, controller);
+    }
+
+    /**
+     * Non-blocking movement to a pose. Each tick, the field-relative error and the heading error
+     * are turned into axial, lateral, and yaw commands, each limited to power, and mixed with the
+     * same formulas as field-centric control. Ends once within tolerance, or once the robot hasn't
+     * gotten any closer for POSE_TIMEOUT s
+     */
+    private class PoseMotion extends Motion {
+        private final double x;
+        private final double y;
+        private final double power;
+        private final TurnController controller;
+        private final double[] poseAxes = new double[3];
+        private final double[] directions = new double[count];
+        private final ElapsedTime motionTimer = new ElapsedTime();
+        private double time;
+        private double closest = Double.POSITIVE_INFINITY;
+        private double closestTurn = Double.POSITIVE_INFINITY;
+        private double lastProgress;
+
+        private PoseMotion(double x, double y, double power, TurnController controller) {
+            this.x = x;
+            this.y = y;
+            this.power = power;
+            this.controller = controller;
+        }
+
+        @Override
+        boolean step() {
+            if (!opMode.opModeIsActive()) {
+                return false;
+            }
+
+            startCycle();
+            Pose velocity = updateVelocity();
+            Pose pose = odometry.getPose();
+            double now = motionTimer.seconds();
+            double dt = now - time;
+            time = now;
+
+            double errorX = x - pose.getX();
+            double errorY = y - pose.getY();
+            double distance = Math.hypot(errorX, errorY);
+            double speed = Math.hypot(velocity.getX(), velocity.getY());
+            double turn =
+                    controller.update(Math.toDegrees(pose.getHeading()), heading.getRate(), dt);
+            if (distance <= translationTolerances[0]
+                    && speed <= translationTolerances[1]
+                    && controller.isSettled()) {
+                return false;
+            }
+
+            // give up once the robot stops getting closer (e.g. against an obstacle)
+            double turnError = Math.abs(controller.getError());
+            if (distance < closest || turnError < closestTurn) {
+                closest = Math.min(distance, closest);
+                closestTurn = Math.min(turnError, closestTurn);
+                lastProgress = now;
+            } else if (now - lastProgress >= POSE_TIMEOUT) {
+                return false;
+            }
 
-        // initialize IMU if applicable
-        if (layout != Layout.FIELD) {
-            imu = hardwareMap.get(IMU.class, "imu");
-            IMU.Parameters parameters = new IMU.Parameters(new RevHubOrientationOnRobot(logo, usb));
-            imu.initialize(parameters);
+            // PD on the field-relative error, plus kS toward the target so the output doesn't fall
+            // below static friction before reaching tolerance, limited to power in any direction
+            double commandX = translationGains[0] * errorX - translationGains[1] * velocity.getX();
+            double commandY = translationGains[0] * errorY - translationGains[1] * velocity.getY();
+            if (distance > translationTolerances[0]) {
+                commandX += translationGains[2] * errorX / distance;
+                commandY += translationGains[2] * errorY / distance;
+            }
+            double magnitude = Math.hypot(commandX, commandY);
+            if (magnitude > power) {
+                commandX *= power / magnitude;
+                commandY *= power / magnitude;
+            }
+
+            // field-centric axes are forward and right, and yaw is clockwise
+            poseAxes[0] = commandX;
+            poseAxes[1] = -commandY;
+            poseAxes[2] = -turn;
+            axesToDirection(poseAxes, pose.getHeading(), Layout.FIELD, directions);
+            setPowers(directions);
+            return true;
         }
 
-        // set heading
-        imu.resetYaw();
-        heading = imu.getRobotYawPitchRollAngles().getYaw(AngleUnit.RADIANS);
+        @Override
+        void stop() {
+            setPowers();
+        }
+    }
 
-        double[] unscaledMovements = languageToDirection(direction, heading);
-        moveForMeasurement(unscaledMovements, measurement, power, unit, false);
+    /** Keep the pose estimate current while awaiting a motion, once tracking has started */
+    @Override
+    protected void track() {
+        if (tracking) {
+            updatePose();
+        }
+    }
+
+    /** Integrate this cycle's encoder positions and heading into the pose estimate */
+    private void updatePose() {
+        tracking = true;
+        heading.update();
+        odometry.update(
+                getCurrentPositions(), Math.toRadians(heading.getHeading()), unitsPerTick());
+    }
+
+    /** Integrate this cycle's readings into the pose estimate, and return the velocity estimate */
+    private Pose updateVelocity() {
+        updatePose();
+        odometry.updateVelocity(
+                getCurrentVelocities(), Math.toRadians(heading.getRate()), unitsPerTick());
+        return odometry.getVelocity();
+    }
+
+    /** Return the distance travelled by a wheel per encoder tick */
+    private double unitsPerTick() {
+        return Math.PI * diameter / distanceMultiplier;
+    }
+
+    /** Ensures the drive has the encoders and diameter needed to estimate its pose */
+    private void validateOdometry(String method) {
+        if (!encoder || diameter == 0.0) {
+            throw new IllegalStateException(
+                    "Drive."
+                            + method
+                            + "() requires wheel encoders. Enable Drive.Builder().encoder() and set Drive.Builder().diameter()");
+        }
     }
 
     /** Ensures directions passed to angular command() are rotational and unit is not null */
@@ -466,7 +1067,10 @@ public class Drive extends MotorMechanism<Drive.Direction> {
         }
     }
 
-    /** Set drivetrain motor movements based on type: DIFFERENTIAL or MECANUM */
+    /**
+     * Set drivetrain motor movements based on type: DIFFERENTIAL or MECANUM. The returned buffer is
+     * reused by the next call, so don't hold onto it
+     */
     protected double[] controlToDirection(
             double heading, float leftY, float leftX, float rightY, float rightX) {
         switch (type) {
@@ -499,25 +1103,33 @@ public class Drive extends MotorMechanism<Drive.Direction> {
                         "Unexpected layout passed to Drive.Builder().layout(). Valid layouts are: Drive.Layout.TANK, Drive.Layout.ARCADE");
         }
 
-        double[] movements = new double[count];
         for (int i = 0; i < count; i++) {
-            movements[i] = (i % 2 == 0) ? left : right;
+            controlMovements[i] = (i % 2 == 0) ? left : right;
         }
-        return movements;
+        return controlMovements;
     }
 
     /** Set MECANUM motor movements based on layout: ROBOT or FIELD */
     private double[] controlToDirectionMecanum(
             double heading, double leftY, double leftX, double rightX) {
-        double[] axes = {map(-leftY), map(leftX), map(rightX)};
-        return axesToDirection(axes, heading);
+        axes[0] = map(-leftY);
+        axes[1] = map(leftX);
+        axes[2] = map(rightX);
+        return axesToDirection(axes, heading, controlMovements);
     }
 
     /**
      * Converts axial, lateral, yaw, and heading to motor directions using the formulas here:
-     * https://gm0.org/en/latest/docs/software/tutorials/mecanum-drive.html
+     * https://gm0.org/en/latest/docs/software/tutorials/mecanum-drive.html, writing them to
+     * motorDirections
      */
-    private double[] axesToDirection(double[] axes, double heading) {
+    private double[] axesToDirection(double[] axes, double heading, double[] motorDirections) {
+        return axesToDirection(axes, heading, layout, motorDirections);
+    }
+
+    /** Converts axes to motor directions as if the drive had the given layout */
+    private double[] axesToDirection(
+            double[] axes, double heading, Layout layout, double[] motorDirections) {
         double axial;
         double lateral;
         double yaw = axes[2];
@@ -544,12 +1156,12 @@ public class Drive extends MotorMechanism<Drive.Direction> {
         // powers (otherwise, for example, 1.1 would become 1, while 0.9 would be
         // unaffected)
         double max = Math.max(Math.abs(axial) + Math.abs(lateral) + Math.abs(yaw), 1);
-        double frontLeft = ((axial + lateral + yaw) / max);
-        double frontRight = ((axial - lateral - yaw) / max);
-        double backLeft = ((axial - lateral + yaw) / max);
-        double backRight = ((axial + lateral - yaw) / max);
+        motorDirections[0] = ((axial + lateral + yaw) / max); // frontLeft
+        motorDirections[1] = ((axial - lateral - yaw) / max); // frontRight
+        motorDirections[2] = ((axial - lateral + yaw) / max); // backLeft
+        motorDirections[3] = ((axial + lateral - yaw) / max); // backRight
 
-        return new double[] {frontLeft, frontRight, backLeft, backRight};
+        return motorDirections;
     }
 
     /** Translate natural-language direction to numeric values */
@@ -562,7 +1174,8 @@ public class Drive extends MotorMechanism<Drive.Direction> {
             case DIFFERENTIAL:
                 return languageToDirectionDifferential(direction);
             case MECANUM:
-                return axesToDirection(languageToDirectionMecanum(direction), heading);
+                return axesToDirection(
+                        languageToDirectionMecanum(direction), heading, new double[count]);
             default:
                 throw new IllegalArgumentException(
                         "Unexpected type passed to Drive.Builder().type(). Valid types are: Drive.Type.DIFFERENTIAL, Drive.Type.MECANUM");
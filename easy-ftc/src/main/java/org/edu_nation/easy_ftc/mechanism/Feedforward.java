@@ -0,0 +1,150 @@
+// SPDX-FileCopyrightText: Collegiate Edu-Nation
+// SPDX-License-Identifier: GPL-3.0-or-later
+
+package org.edu_nation.easy_ftc.mechanism;
+
+import com.qualcomm.robotcore.util.ReadWriteFile;
+import java.io.File;
+import org.firstinspires.ftc.robotcore.internal.system.AppUtil;
+
+/**
+ * Velocity feedforward constants for a motor mechanism, in volts: kS to overcome static friction,
+ * kV per tick/s of velocity, and kA per tick/s^2 of acceleration. Fit them once with {@link
+ * MotorMechanism#characterize(double, double)}, save them to the hub, and load them when building
+ * the mechanism
+ *
+ * <p><b>Basic Usage:</b>
+ *
+ * <pre>{@code
+ * // in a characterization opMode (the mechanism moves forward/up/in, so give it room)
+ * Drive drive = new Drive.Builder(this, hardwareMap).encoder().build();
+ * waitForStart();
+ * drive.characterize(0.5, 4).save("drive.ff");
+ *
+ * // in every other opMode
+ * Drive drive =
+ *         new Drive.Builder(this, hardwareMap)
+ *                 .encoder()
+ *                 .feedforward(Feedforward.load("drive.ff"))
+ *                 .build();
+ * }</pre>
+ */
+public final class Feedforward {
+    private final double kS;
+    private final double kV;
+    private final double kA;
+
+    /**
+     * Feedforward constructor
+     *
+     * @param kS volts needed to start moving
+     * @param kV volts per tick/s of velocity
+     * @param kA volts per tick/s^2 of acceleration
+     * @throws IllegalArgumentException if kS &lt; 0 or kA &lt; 0
+     * @throws IllegalArgumentException if kV &lt;= 0
+     */
+    public Feedforward(double kS, double kV, double kA) {
+        if (kS < 0) {
+            throw new IllegalArgumentException(
+                    "Unexpected kS value: "
+                            + kS
+                            + ", passed to Feedforward(). Valid values are numbers >= 0");
+        }
+        if (kV <= 0) {
+            throw new IllegalArgumentException(
+                    "Unexpected kV value: "
+                            + kV
+                            + ", passed to Feedforward(). Valid values are numbers > 0");
+        }
+        if (kA < 0) {
+            throw new IllegalArgumentException(
+                    "Unexpected kA value: "
+                            + kA
+                            + ", passed to Feedforward(). Valid values are numbers >= 0");
+        }
+        this.kS = kS;
+        this.kV = kV;
+        this.kA = kA;
+    }
+
+    /**
+     * Load constants saved with {@link #save(String)}
+     *
+     * @param fileName name of the file in the hub's settings directory
+     * @return feedforward instance
+     * @throws NullPointerException if fileName is null
+     * @throws IllegalStateException if the file doesn't exist or doesn't hold constants
+     */
+    public static Feedforward load(String fileName) {
+        if (fileName == null) {
+            throw new NullPointerException("Null fileName passed to Feedforward.load()");
+        }
+        File file = AppUtil.getInstance().getSettingsFile(fileName);
+        String[] constants = ReadWriteFile.readFile(file).trim().split(",");
+        try {
+            if (constants.length == 3) {
+                return new Feedforward(
+                        Double.parseDouble(constants[0]),
+                        Double.parseDouble(constants[1]),
+                        Double.parseDouble(constants[2]));
+            }
+        } catch (IllegalArgumentException e) {
+            // fall through, reporting it the same way as a missing file
+        }
+        throw new IllegalStateException(
+                "No feedforward constants found in: "
+                        + file
+                        + ", passed to Feedforward.load(). Save them with Feedforward.save() first");
+    }
+
+    /**
+     * Save constants to the hub, to be loaded with {@link #load(String)}
+     *
+     * @param fileName name of the file in the hub's settings directory
+     * @throws NullPointerException if fileName is null
+     */
+    public void save(String fileName) {
+        if (fileName == null) {
+            throw new NullPointerException("Null fileName passed to Feedforward.save()");
+        }
+        File file = AppUtil.getInstance().getSettingsFile(fileName);
+        ReadWriteFile.writeFile(file, kS + "," + kV + "," + kA);
+    }
+
+    /**
+     * Return the volts needed to start moving
+     *
+     * @return kS
+     */
+    public double getKS() {
+        return kS;
+    }
+
+    /**
+     * Return the volts per tick/s of velocity
+     *
+     * @return kV
+     */
+    public double getKV() {
+        return kV;
+    }
+
+    /**
+     * Return the volts per tick/s^2 of acceleration
+     *
+     * @return kA
+     */
+    public double getKA() {
+        return kA;
+    }
+
+    /** Return the volts needed for velocity (ticks/s) and acceleration (ticks/s^2) */
+    double calculate(double velocity, double acceleration) {
+        return kS * Math.signum(velocity) + kV * velocity + kA * acceleration;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("kS=%.4f kV=%.6f kA=%.6f", kS, kV, kA);
+    }
+}
@@ -0,0 +1,78 @@
+// SPDX-FileCopyrightText: Collegiate Edu-Nation
+// SPDX-License-Identifier: GPL-3.0-or-later
+
+package org.edu_nation.easy_ftc.mechanism;
+
+/**
+ * Least-squares fit of volts = kS * sign(velocity) + kV * velocity + kA * acceleration. Samples are
+ * folded into the normal equations as they arrive, so memory is constant however long the
+ * characterization runs
+ */
+final class FeedforwardFit {
+    private static final int TERMS = 3;
+    private final double[][] normal = new double[TERMS][TERMS];
+    private final double[] projection = new double[TERMS];
+    private final double[] sample = new double[TERMS];
+    private int samples;
+
+    /** Add a sample of velocity (ticks/s), acceleration (ticks/s^2), and the volts applied */
+    void add(double velocity, double acceleration, double volts) {
+        sample[0] = Math.signum(velocity);
+        sample[1] = velocity;
+        sample[2] = acceleration;
+        for (int i = 0; i < TERMS; i++) {
+            for (int j = 0; j < TERMS; j++) {
+                normal[i][j] += sample[i] * sample[j];
+            }
+            projection[i] += sample[i] * volts;
+        }
+        samples++;
+    }
+
+    /** Return the number of samples added */
+    int samples() {
+        return samples;
+    }
+
+    /**
+     * Solve for {kS, kV, kA} by Gaussian elimination with partial pivoting, or return null if the
+     * samples don't determine them (e.g. the mechanism never accelerated)
+     */
+    double[] solve() {
+        double[][] a = new double[TERMS][TERMS + 1];
+        for (int i = 0; i < TERMS; i++) {
+            System.arraycopy(normal[i], 0, a[i], 0, TERMS);
+            a[i][TERMS] = projection[i];
+        }
+
+        for (int column = 0; column < TERMS; column++) {
+            int pivot = column;
+            for (int row = column + 1; row < TERMS; row++) {
+                if (Math.abs(a[row][column]) > Math.abs(a[pivot][column])) {
+                    pivot = row;
+                }
+            }
+            if (Math.abs(a[pivot][column]) < 1e-12) {
+                return null;
+            }
+            double[] swap = a[column];
+            a[column] = a[pivot];
+            a[pivot] = swap;
+
+            for (int row = 0; row < TERMS; row++) {
+                if (row != column) {
+                    double factor = a[row][column] / a[column][column];
+                    for (int k = column; k <= TERMS; k++) {
+                        a[row][k] -= factor * a[column][k];
+                    }
+                }
+            }
+        }
+
+        double[] constants = new double[TERMS];
+        for (int i = 0; i < TERMS; i++) {
+            constants[i] = a[i][TERMS] / a[i][i];
+        }
+        return constants;
+    }
+}
@@ -0,0 +1,266 @@
+// SPDX-FileCopyrightText: Collegiate Edu-Nation
+// SPDX-License-Identifier: GPL-3.0-or-later
+
+package org.edu_nation.easy_ftc.mechanism;
+
+import com.qualcomm.robotcore.hardware.Gamepad;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Per-cycle snapshot of a gamepad, shared by every mechanism controlled by it. Each cycle, the
+ * gamepad's sticks, triggers, and buttons are copied once into primitives, which stay fixed until
+ * the next cycle begins, so every mechanism acts on the same input within a loop iteration. The
+ * snapshot also records which buttons were pressed or released since the previous cycle, so a
+ * press can be told apart from a hold
+ *
+ * <p>By default, a new cycle begins whenever a mechanism reads the same cycle twice (i.e. at its
+ * next control() call), so no extra calls are needed. Call {@link #update()} once at the start of
+ * every loop iteration to pin the cycle to the top of the loop instead. Mechanisms see every press
+ * since their own previous read, so one that skips cycles (e.g. a slower {@link LoopScheduler}
+ * stage) doesn't miss a quick tap
+ *
+ * <p><b>Basic Usage:</b>
+ *
+ * <pre>{@code
+ * GamepadState input = GamepadState.of(gamepad1);
+ * while (opModeIsActive()) {
+ *     input.update();
+ *     drive.control();
+ *     if (input.wasPressed(GamepadState.Button.Y)) {
+ *         sequence.command();
+ *     }
+ * }
+ * }</pre>
+ */
+public final class GamepadState {
+    private static final Map<Gamepad, GamepadState> instances = new WeakHashMap<>();
+    private final Gamepad gamepad;
+    private long cycle;
+    private float leftStickX;
+    private float leftStickY;
+    private float rightStickX;
+    private float rightStickY;
+    private float leftTrigger;
+    private float rightTrigger;
+    private int buttons;
+    private int pressed;
+    private int released;
+    private final long[] pressedCycles = new long[Button.values().length];
+
+    /** Gamepad buttons, as recorded in each snapshot */
+    public enum Button {
+        A,
+        B,
+        X,
+        Y,
+        DPAD_UP,
+        DPAD_DOWN,
+        DPAD_LEFT,
+        DPAD_RIGHT,
+        LEFT_BUMPER,
+        RIGHT_BUMPER,
+        LEFT_STICK_BUTTON,
+        RIGHT_STICK_BUTTON,
+        OPTIONS,
+        BACK,
+        START,
+        GUIDE;
+
+        private final int bit = 1 << ordinal();
+    }
+
+    /** Constructor */
+    private GamepadState(Gamepad gamepad) {
+        this.gamepad = gamepad;
+    }
+
+    /**
+     * Return the snapshot shared by all mechanisms using gamepad
+     *
+     * @param gamepad instance of the gamepad
+     * @return shared snapshot instance
+     * @throws NullPointerException if gamepad is null
+     */
+    public static synchronized GamepadState of(Gamepad gamepad) {
+        if (gamepad == null) {
+            throw new NullPointerException("Null gamepad passed to GamepadState.of()");
+        }
+        GamepadState state = instances.get(gamepad);
+        if (state == null) {
+            state = new GamepadState(gamepad);
+            instances.put(gamepad, state);
+        }
+        return state;
+    }
+
+    /**
+     * Start a new cycle, copying the gamepad. Buttons held when the first snapshot is taken count
+     * as pressed
+     *
+     * @return snapshot instance
+     */
+    public GamepadState update() {
+        leftStickX = gamepad.left_stick_x;
+        leftStickY = gamepad.left_stick_y;
+        rightStickX = gamepad.right_stick_x;
+        rightStickY = gamepad.right_stick_y;
+        leftTrigger = gamepad.left_trigger;
+        rightTrigger = gamepad.right_trigger;
+
+        int previous = buttons;
+        buttons =
+                bit(gamepad.a, Button.A)
+                        | bit(gamepad.b, Button.B)
+                        | bit(gamepad.x, Button.X)
+                        | bit(gamepad.y, Button.Y)
+                        | bit(gamepad.dpad_up, Button.DPAD_UP)
+                        | bit(gamepad.dpad_down, Button.DPAD_DOWN)
+                        | bit(gamepad.dpad_left, Button.DPAD_LEFT)
+                        | bit(gamepad.dpad_right, Button.DPAD_RIGHT)
+                        | bit(gamepad.left_bumper, Button.LEFT_BUMPER)
+                        | bit(gamepad.right_bumper, Button.RIGHT_BUMPER)
+                        | bit(gamepad.left_stick_button, Button.LEFT_STICK_BUTTON)
+                        | bit(gamepad.right_stick_button, Button.RIGHT_STICK_BUTTON)
+                        | bit(gamepad.options, Button.OPTIONS)
+                        | bit(gamepad.back, Button.BACK)
+                        | bit(gamepad.start, Button.START)
+                        | bit(gamepad.guide, Button.GUIDE);
+        pressed = buttons & ~previous;
+        released = previous & ~buttons;
+        cycle++;
+
+        // remember when each button was last pressed, for readers that skip cycles
+        for (int bits = pressed; bits != 0; bits &= bits - 1) {
+            pressedCycles[Integer.numberOfTrailingZeros(bits)] = cycle;
+        }
+        return this;
+    }
+
+    /**
+     * Whether button is held down
+     *
+     * @param button gamepad button
+     * @return whether it's down this cycle
+     * @throws NullPointerException if button is null
+     */
+    public boolean isDown(Button button) {
+        return (current().buttons & bit(button, "isDown")) != 0;
+    }
+
+    /**
+     * Whether button went down since the previous cycle
+     *
+     * @param button gamepad button
+     * @return whether it was pressed this cycle
+     * @throws NullPointerException if button is null
+     */
+    public boolean wasPressed(Button button) {
+        return (current().pressed & bit(button, "wasPressed")) != 0;
+    }
+
+    /**
+     * Whether button came up since the previous cycle
+     *
+     * @param button gamepad button
+     * @return whether it was released this cycle
+     * @throws NullPointerException if button is null
+     */
+    public boolean wasReleased(Button button) {
+        return (current().released & bit(button, "wasReleased")) != 0;
+    }
+
+    /**
+     * Return the left stick's x-axis
+     *
+     * @return left stick x, from -1 to 1
+     */
+    public float getLeftStickX() {
+        return current().leftStickX;
+    }
+
+    /**
+     * Return the left stick's y-axis
+     *
+     * @return left stick y, from -1 to 1
+     */
+    public float getLeftStickY() {
+        return current().leftStickY;
+    }
+
+    /**
+     * Return the right stick's x-axis
+     *
+     * @return right stick x, from -1 to 1
+     */
+    public float getRightStickX() {
+        return current().rightStickX;
+    }
+
+    /**
+     * Return the right stick's y-axis
+     *
+     * @return right stick y, from -1 to 1
+     */
+    public float getRightStickY() {
+        return current().rightStickY;
+    }
+
+    /**
+     * Return the left trigger
+     *
+     * @return left trigger, from 0 to 1
+     */
+    public float getLeftTrigger() {
+        return current().leftTrigger;
+    }
+
+    /**
+     * Return the right trigger
+     *
+     * @return right trigger, from 0 to 1
+     */
+    public float getRightTrigger() {
+        return current().rightTrigger;
+    }
+
+    /**
+     * Return the current snapshot for a reader whose previous read was during lastCycle, starting a
+     * new cycle if it's already seen this one. Returns the cycle read
+     */
+    long read(long lastCycle) {
+        if (cycle == 0 || cycle == lastCycle) {
+            update();
+        }
+        return cycle;
+    }
+
+    /**
+     * Whether button went down after cycle since, i.e. since a reader's previous read (even if the
+     * reader skipped the cycles in between)
+     */
+    boolean wasPressed(Button button, long since) {
+        if (button == null) {
+            throw new NullPointerException("Null button passed to GamepadState.wasPressed()");
+        }
+        return pressedCycles[button.ordinal()] > since;
+    }
+
+    /** Take the first snapshot if there isn't one yet */
+    private GamepadState current() {
+        return cycle == 0 ? update() : this;
+    }
+
+    /** Return button's bit, ensuring button passed to method isn't null */
+    private static int bit(Button button, String method) {
+        if (button == null) {
+            throw new NullPointerException("Null button passed to GamepadState." + method + "()");
+        }
+        return button.bit;
+    }
+
+    /** Return button's bit if it's down, else 0 */
+    private static int bit(boolean down, Button button) {
+        return down ? button.bit : 0;
+    }
+}
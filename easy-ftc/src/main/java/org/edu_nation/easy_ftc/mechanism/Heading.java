@@ -0,0 +1,103 @@
+// SPDX-FileCopyrightText: Collegiate Edu-Nation
+// SPDX-License-Identifier: GPL-3.0-or-later
+
+package org.edu_nation.easy_ftc.mechanism;
+
+import com.qualcomm.hardware.rev.RevHubOrientationOnRobot;
+import com.qualcomm.hardware.rev.RevHubOrientationOnRobot.LogoFacingDirection;
+import com.qualcomm.hardware.rev.RevHubOrientationOnRobot.UsbFacingDirection;
+import com.qualcomm.robotcore.hardware.HardwareMap;
+import com.qualcomm.robotcore.hardware.IMU;
+import org.firstinspires.ftc.robotcore.external.navigation.AngleUnit;
+import org.firstinspires.ftc.robotcore.external.navigation.YawPitchRollAngles;
+
+/**
+ * Heading provider owned by a {@link Drive}. Initializes the IMU once, reads its yaw at most once
+ * per bulk-read cycle (in any caching mode, since each Drive call starts at most one cycle), and
+ * unwraps it into a continuous heading and angular rate that every consumer (field-centric control,
+ * pose tracking, commands, and gyro turns) reads from the same snapshot
+ */
+final class Heading {
+    private static final double NS_PER_S = 1e9;
+    private final HardwareMap hardwareMap;
+    private final LogoFacingDirection logo;
+    private final UsbFacingDirection usb;
+    private final BulkRead bulkRead;
+    private final Metrics metrics;
+    private IMU imu;
+    private long cycle = -1;
+    private double yaw;
+    private double heading;
+    private double rate;
+    private long acquisitionTime;
+
+    /** Constructor */
+    Heading(
+            HardwareMap hardwareMap,
+            LogoFacingDirection logo,
+            UsbFacingDirection usb,
+            BulkRead bulkRead,
+            Metrics metrics) {
+        this.hardwareMap = hardwareMap;
+        this.logo = logo;
+        this.usb = usb;
+        this.bulkRead = bulkRead;
+        this.metrics = metrics;
+    }
+
+    /** Initialize the IMU and reset its yaw, unless that's already been done */
+    void init() {
+        if (imu != null) {
+            return;
+        }
+        imu = hardwareMap.get(IMU.class, "imu");
+        IMU.Parameters parameters = new IMU.Parameters(new RevHubOrientationOnRobot(logo, usb));
+        imu.initialize(parameters);
+        reset();
+    }
+
+    /** Reset yaw, so the current orientation becomes heading 0 */
+    void reset() {
+        init();
+        imu.resetYaw();
+        yaw = 0;
+        heading = 0;
+        rate = 0;
+        acquisitionTime = 0;
+        cycle = -1;
+    }
+
+    /** Read the IMU's yaw, unless this cycle's snapshot can still be reused */
+    void update() {
+        if (bulkRead.isCurrent(cycle)) {
+            return;
+        }
+        init();
+        YawPitchRollAngles angles = imu.getRobotYawPitchRollAngles();
+        metrics.record(Metrics.Transaction.IMU_READ);
+        double current = angles.getYaw(AngleUnit.DEGREES);
+        long time = angles.getAcquisitionTime();
+
+        // accumulate the shortest change in yaw, so crossing +-180 degrees isn't a jump
+        double delta = AngleUnit.normalizeDegrees(current - yaw);
+        yaw = current;
+        heading += delta;
+
+        // only differentiate across distinct samples; the first one after a reset has no rate
+        if (acquisitionTime != 0 && time > acquisitionTime) {
+            rate = delta * NS_PER_S / (time - acquisitionTime);
+        }
+        acquisitionTime = time;
+        cycle = bulkRead.cycle();
+    }
+
+    /** Return the continuous heading from the last update in degrees, counterclockwise positive */
+    double getHeading() {
+        return heading;
+    }
+
+    /** Return the angular rate from the last update in degrees/s, counterclockwise positive */
+    double getRate() {
+        return rate;
+    }
+}
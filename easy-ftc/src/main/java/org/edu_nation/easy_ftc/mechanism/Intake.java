@@ -8,6 +8,7 @@ import com.qualcomm.robotcore.hardware.DcMotor;
 import com.qualcomm.robotcore.hardware.Gamepad;
 import com.qualcomm.robotcore.hardware.HardwareMap;
 import java.util.Arrays;
+import org.edu_nation.easy_ftc.mechanism.GamepadState.Button;
 
 /**
  * Implements an intake by extending the functionality of {@link MotorMechanism}
@@ -43,10 +44,17 @@ public class Intake extends MotorMechanism<Intake.Direction> {
      *   <li>reverse = false
      *   <li>reverseDevices = {}
      *   <li>gamepad = null
+     *   <li>metrics = false
      *   <li>encoder = false
      *   <li>diameter = 0.0
      *   <li>length = 0.0
      *   <li>gearing = 0.0
+     *   <li>epsilon = 0.0
+     *   <li>maxVelocity = 0.0
+     *   <li>maxAcceleration = 0.0
+     *   <li>maxJerk = 0.0
+     *   <li>feedforward = null
+     *   <li>feedbackGain = 0.1
      *   <li>count = 1
      *   <li>names = {"intake"}
      *   <li>behavior = BRAKE
@@ -104,6 +112,11 @@ public class Intake extends MotorMechanism<Intake.Direction> {
             return super.gamepad(gamepad);
         }
 
+        @Override
+        public Builder metrics() {
+            return super.metrics();
+        }
+
         // methods inherited from MotorMechanism.Builder
         @Override
         public Builder encoder() {
@@ -126,6 +139,54 @@ public class Intake extends MotorMechanism<Intake.Direction> {
             return super.gearing(gearing);
         }
 
+        /**
+         * @throws IllegalArgumentException {@inheritDoc}
+         */
+        @Override
+        public Builder epsilon(double epsilon) {
+            return super.epsilon(epsilon);
+        }
+
+        /**
+         * @throws IllegalArgumentException {@inheritDoc}
+         */
+        @Override
+        public Builder maxVelocity(double maxVelocity) {
+            return super.maxVelocity(maxVelocity);
+        }
+
+        /**
+         * @throws IllegalArgumentException {@inheritDoc}
+         */
+        @Override
+        public Builder maxAcceleration(double maxAcceleration) {
+            return super.maxAcceleration(maxAcceleration);
+        }
+
+        /**
+         * @throws IllegalArgumentException {@inheritDoc}
+         */
+        @Override
+        public Builder maxJerk(double maxJerk) {
+            return super.maxJerk(maxJerk);
+        }
+
+        /**
+         * @throws NullPointerException {@inheritDoc}
+         */
+        @Override
+        public Builder feedforward(Feedforward feedforward) {
+            return super.feedforward(feedforward);
+        }
+
+        /**
+         * @throws IllegalArgumentException {@inheritDoc}
+         */
+        @Override
+        public Builder feedbackGain(double feedbackGain) {
+            return super.feedbackGain(feedbackGain);
+        }
+
         // intake-specific methods
         /**
          * Specify the number of motors
@@ -208,6 +269,9 @@ public class Intake extends MotorMechanism<Intake.Direction> {
          * @throws IllegalStateException if count != names.length
          * @throws IllegalStateException if encoder = false and one of: diameter, length, or gearing
          *     has been set
+         * @throws IllegalStateException if one of: maxVelocity, maxAcceleration, or maxJerk has
+         *     been set without all of: diameter (or length), maxVelocity, and maxAcceleration
+         * @throws IllegalStateException if encoder = false and feedforward has been set
          * @throws IllegalStateException if dir1 &lt; dir2
          */
         @Override
@@ -220,6 +284,15 @@ public class Intake extends MotorMechanism<Intake.Direction> {
                 throw new IllegalStateException(
                         "One of: Intake.Builder().diameter(), Intake.Builder().length(), or Intake.Builder().gearing() has been set without enabling Intake.Builder().encoder(). Enable Intake.Builder().encoder()");
             }
+            if ((this.maxVelocity != 0 || this.maxAcceleration != 0 || this.maxJerk != 0)
+                    && (this.diameter == 0 || this.maxVelocity == 0 || this.maxAcceleration == 0)) {
+                throw new IllegalStateException(
+                        "One of: Intake.Builder().maxVelocity(), Intake.Builder().maxAcceleration(), or Intake.Builder().maxJerk() has been set without all of: Intake.Builder().diameter() (or length()), Intake.Builder().maxVelocity(), and Intake.Builder().maxAcceleration(). Set all three for profiled movement");
+            }
+            if (!this.encoder && this.feedforward != null) {
+                throw new IllegalStateException(
+                        "Intake.Builder().feedforward() has been set without enabling Intake.Builder().encoder(). Enable Intake.Builder().encoder()");
+            }
             if (this.dir1 < this.dir2) {
                 throw new IllegalStateException(
                         "Unexpected in and out values: "
@@ -256,23 +329,32 @@ public class Intake extends MotorMechanism<Intake.Direction> {
      */
     @Override
     public void control(double power) {
-        validate(power);
-        double[] unscaledMovements = new double[count];
-        double[] movements = new double[count];
-        double direction = controlToDirection(gamepad.dpad_up, gamepad.dpad_down);
-        Arrays.fill(unscaledMovements, direction);
-        Arrays.fill(movements, power * direction);
-
-        // setPowers if limits haven't been specified
-        if (dir1 == dir2) {
-            setPowers(movements);
-        } else {
-            // setPowers if limits have not been reached
-            if (limitsNotReached(direction, unscaledMovements)) {
+        long start = metrics.start(Metrics.Call.CONTROL);
+        try {
+            validate(power);
+            double[] unscaledMovements = new double[count];
+            double[] movements = new double[count];
+            startCycle();
+            GamepadState input = input();
+            double direction =
+                    controlToDirection(
+                            input.isDown(Button.DPAD_UP), input.isDown(Button.DPAD_DOWN));
+            Arrays.fill(unscaledMovements, direction);
+            Arrays.fill(movements, power * direction);
+
+            // setPowers if limits haven't been specified
+            if (dir1 == dir2) {
                 setPowers(movements);
             } else {
-                setPowers();
+                // setPowers if limits have not been reached
+                if (limitsNotReached(direction, unscaledMovements)) {
+                    setPowers(movements);
+                } else {
+                    setPowers();
+                }
             }
+        } finally {
+            metrics.stop(Metrics.Call.CONTROL, start);
         }
     }
 
@@ -295,11 +377,40 @@ public class Intake extends MotorMechanism<Intake.Direction> {
      */
     @Override
     public void command(Direction direction, double measurement, double power) {
+        long start = metrics.start(Metrics.Call.COMMAND);
+        try {
+            validate(measurement, power);
+            startCycle();
+            double movement = languageToDirection(direction);
+            double[] unscaledMovements = new double[count];
+            Arrays.fill(unscaledMovements, movement);
+            moveForMeasurement(unscaledMovements, measurement, power, dir1 != dir2);
+        } finally {
+            metrics.stop(Metrics.Call.COMMAND, start);
+        }
+    }
+
+    /**
+     * Initiate an automated intake movement without blocking; advance it with {@link
+     * Motion#update()} until {@link Motion#isDone()}
+     *
+     * @param direction direction to move the mechanism; see {@link Direction} for accepted values
+     * @param measurement time(s) or distance to move the mechanism
+     * @param power fraction of total power/velocity to use for mechanism command
+     * @return handle to the started movement
+     * @throws NullPointerException if direction is null
+     * @throws IllegalArgumentException if direction is an unexpected value
+     * @throws IllegalArgumentException if measurement &lt; 0
+     * @throws IllegalArgumentException if power is not in the interval (0, 1]
+     */
+    @Override
+    public Motion commandAsync(Direction direction, double measurement, double power) {
         validate(measurement, power);
+        startCycle();
         double movement = languageToDirection(direction);
         double[] unscaledMovements = new double[count];
         Arrays.fill(unscaledMovements, movement);
-        moveForMeasurement(unscaledMovements, measurement, power, dir1 != dir2);
+        return moveForMeasurementAsync(unscaledMovements, measurement, power, dir1 != dir2);
     }
 
     /** Sets intake motor movements based on dpad up, down */
@@ -0,0 +1,397 @@
+// SPDX-FileCopyrightText: Collegiate Edu-Nation
+// SPDX-License-Identifier: GPL-3.0-or-later
+
+package org.edu_nation.easy_ftc.mechanism;
+
+import java.util.ArrayList;
+import java.util.concurrent.locks.LockSupport;
+import org.firstinspires.ftc.robotcore.external.Telemetry;
+
+/**
+ * Run mechanisms and other loop stages at a fixed rate, so control behaves the same however much
+ * else the loop does. Each tick clears the bulk-read cache and snapshots the gamepad of every
+ * registered mechanism, then runs the stages that are due in phase order (READ, COMPUTE, WRITE),
+ * each phase against its own time budget. Stages may run slower than the loop (e.g. color sensing
+ * at 20 Hz with the drive at 200 Hz), and a stage given a lower minimum rate is slowed further
+ * while its phase runs over budget, recovering once the phase fits again. Jitter (how late each
+ * tick starts) and overruns are recorded. A mechanism stage still sees the presses made between its
+ * runs, so a tap shorter than its interval isn't missed
+ *
+ * <p>Sensors are registered as READ stages. Give them a period of at least the stage's interval, so
+ * the reading taken by the stage is the one the rest of the loop sees
+ *
+ * <p><b>Basic Usage:</b>
+ *
+ * <pre>{@code
+ * Color color = new Color.Builder(hardwareMap).period(0.05).build();
+ * LoopScheduler scheduler =
+ *         new LoopScheduler(200)
+ *                 .stage("color", LoopScheduler.Phase.READ, 20, 5, color::state)
+ *                 .stage(drive, 200)
+ *                 .stage(claw, 50);
+ * waitForStart();
+ * while (opModeIsActive()) {
+ *     scheduler.update();
+ * }
+ * }</pre>
+ */
+public final class LoopScheduler {
+    private static final Phase[] PHASES = Phase.values();
+    private static final double NS_PER_S = 1e9;
+    private static final double NS_PER_MS = 1e6;
+    private static final int RECOVERY_TICKS = 50;
+    private final double rate;
+    private final long period;
+    private final long[] budgets = new long[PHASES.length];
+    private final long[] phaseOverruns = new long[PHASES.length];
+    private final int[] inBudget = new int[PHASES.length];
+    private final ArrayList<Stage> stages = new ArrayList<>();
+    private final ArrayList<BulkRead> bulkReads = new ArrayList<>();
+    private final ArrayList<GamepadState> gamepadStates = new ArrayList<>();
+    private long next;
+    private long ticks;
+    private long overruns;
+    private long jitterSum;
+    private long maxJitter;
+
+    /** Parts of a tick, run in order */
+    public enum Phase {
+        READ,
+        COMPUTE,
+        WRITE
+    }
+
+    /** A task run every divisor ticks, slowed to at most maxDivisor while its phase overruns */
+    private static class Stage {
+        private final String name;
+        private final Phase phase;
+        private final Runnable task;
+        private final int baseDivisor;
+        private final int maxDivisor;
+        private int divisor;
+        private long nextTick;
+        private long elapsed;
+
+        private Stage(String name, Phase phase, Runnable task, int baseDivisor, int maxDivisor) {
+            this.name = name;
+            this.phase = phase;
+            this.task = task;
+            this.baseDivisor = baseDivisor;
+            this.maxDivisor = maxDivisor;
+            this.divisor = baseDivisor;
+        }
+    }
+
+    /**
+     * Construct a scheduler with no stages, whose phases each have a third of the tick as budget
+     *
+     * @param rate ticks per s
+     * @throws IllegalArgumentException if rate &lt;= 0
+     */
+    public LoopScheduler(double rate) {
+        if (!(rate > 0)) {
+            throw new IllegalArgumentException(
+                    "Unexpected rate value: "
+                            + rate
+                            + ", passed to LoopScheduler(). Valid values are numbers > 0");
+        }
+        this.rate = rate;
+        this.period = Math.round(NS_PER_S / rate);
+        for (Phase phase : PHASES) {
+            budgets[phase.ordinal()] = period / PHASES.length;
+        }
+    }
+
+    /**
+     * Add a mechanism's control() as a WRITE stage via method chaining
+     *
+     * @param mechanism instance of the mechanism to control
+     * @param rate times per s to run control()
+     * @return LoopScheduler instance
+     * @throws NullPointerException if mechanism is null
+     * @throws IllegalArgumentException if another stage is named after the mechanism's class (add
+     *     it with a name of its own, passing mechanism::control as the task)
+     * @throws IllegalArgumentException if rate not in the interval (0, scheduler rate]
+     */
+    public LoopScheduler stage(Mechanism mechanism, double rate) {
+        return stage(mechanism, rate, rate);
+    }
+
+    /**
+     * Add a mechanism's control() as a WRITE stage via method chaining, which may be slowed to
+     * minRate while the WRITE phase runs over budget
+     *
+     * @param mechanism instance of the mechanism to control
+     * @param rate times per s to run control()
+     * @param minRate fewest times per s to run control()
+     * @return LoopScheduler instance
+     * @throws NullPointerException if mechanism is null
+     * @throws IllegalArgumentException if another stage is named after the mechanism's class (add
+     *     it with a name of its own, passing mechanism::control as the task)
+     * @throws IllegalArgumentException if rate not in the interval (0, scheduler rate]
+     * @throws IllegalArgumentException if minRate not in the interval (0, rate]
+     */
+    public LoopScheduler stage(Mechanism mechanism, double rate, double minRate) {
+        if (mechanism == null) {
+            throw new NullPointerException("Null mechanism passed to LoopScheduler.stage()");
+        }
+        stage(mechanism.getClass().getSimpleName(), Phase.WRITE, rate, minRate, mechanism::control);
+        if (!bulkReads.contains(mechanism.bulkRead)) {
+            bulkReads.add(mechanism.bulkRead);
+        }
+        if (mechanism.gamepadState != null && !gamepadStates.contains(mechanism.gamepadState)) {
+            gamepadStates.add(mechanism.gamepadState);
+        }
+        return this;
+    }
+
+    /**
+     * Add a stage via method chaining, e.g. a sensor read or a {@link Motion} update
+     *
+     * @param name unique name of the stage
+     * @param phase part of the tick to run the stage in
+     * @param rate times per s to run the stage
+     * @param minRate fewest times per s to run the stage while its phase runs over budget
+     * @param task the stage's work
+     * @return LoopScheduler instance
+     * @throws NullPointerException if name, phase, or task is null
+     * @throws IllegalArgumentException if name is already used by another stage
+     * @throws IllegalArgumentException if rate not in the interval (0, scheduler rate]
+     * @throws IllegalArgumentException if minRate not in the interval (0, rate]
+     */
+    public LoopScheduler stage(
+            String name, Phase phase, double rate, double minRate, Runnable task) {
+        if (name == null) {
+            throw new NullPointerException("Null name passed to LoopScheduler.stage()");
+        }
+        if (phase == null) {
+            throw new NullPointerException("Null phase passed to LoopScheduler.stage()");
+        }
+        if (task == null) {
+            throw new NullPointerException("Null task passed to LoopScheduler.stage()");
+        }
+        if (find(name) != null) {
+            throw new IllegalArgumentException(
+                    "Unexpected name: "
+                            + name
+                            + ", passed to LoopScheduler.stage(). Names must be unique");
+        }
+        if (!(rate > 0) || rate > this.rate) {
+            throw new IllegalArgumentException(
+                    "Unexpected rate value: "
+                            + rate
+                            + ", passed to LoopScheduler.stage(). Valid values are numbers in the interval (0, "
+                            + this.rate
+                            + "]");
+        }
+        if (!(minRate > 0) || minRate > rate) {
+            throw new IllegalArgumentException(
+                    "Unexpected minRate value: "
+                            + minRate
+                            + ", passed to LoopScheduler.stage(). Valid values are numbers in the interval (0, rate]");
+        }
+        int baseDivisor = (int) Math.max(Math.round(this.rate / rate), 1);
+        int maxDivisor = (int) Math.max(Math.round(this.rate / minRate), baseDivisor);
+        stages.add(new Stage(name, phase, task, baseDivisor, maxDivisor));
+        return this;
+    }
+
+    /**
+     * Specify how long a phase may take each tick before its slowable stages are slowed
+     *
+     * @param phase part of the tick
+     * @param budget time (in s) the phase may take
+     * @return LoopScheduler instance
+     * @throws NullPointerException if phase is null
+     * @throws IllegalArgumentException if budget &lt;= 0
+     */
+    public LoopScheduler budget(Phase phase, double budget) {
+        if (phase == null) {
+            throw new NullPointerException("Null phase passed to LoopScheduler.budget()");
+        }
+        if (!(budget > 0)) {
+            throw new IllegalArgumentException(
+                    "Unexpected budget value: "
+                            + budget
+                            + ", passed to LoopScheduler.budget(). Valid values are numbers > 0");
+        }
+        budgets[phase.ordinal()] = (long) (budget * NS_PER_S);
+        return this;
+    }
+
+    /**
+     * Wait for the next tick, then run the stages that are due. Call once per loop iteration; a
+     * tick that starts late or runs long doesn't make the following ones catch up
+     */
+    public void update() {
+        long now = System.nanoTime();
+        if (ticks == 0) {
+            next = now;
+        }
+        while (now < next) {
+            LockSupport.parkNanos(next - now);
+            now = System.nanoTime();
+        }
+        long jitter = now - next;
+        jitterSum += jitter;
+        maxJitter = Math.max(maxJitter, jitter);
+
+        for (BulkRead bulkRead : bulkReads) {
+            bulkRead.clear();
+        }
+        for (GamepadState gamepadState : gamepadStates) {
+            gamepadState.update();
+        }
+        for (Phase phase : PHASES) {
+            runPhase(phase);
+        }
+
+        long end = System.nanoTime();
+        if (end - now > period) {
+            overruns++;
+        }
+        next = Math.max(next + period, end);
+        ticks++;
+    }
+
+    /**
+     * Return the number of ticks run
+     *
+     * @return number of ticks
+     */
+    public long getTicks() {
+        return ticks;
+    }
+
+    /**
+     * Return the number of ticks that took longer than the tick period
+     *
+     * @return number of overruns
+     */
+    public long getOverruns() {
+        return overruns;
+    }
+
+    /**
+     * Return the number of ticks in which a phase ran over its budget
+     *
+     * @param phase part of the tick
+     * @return number of phase overruns
+     * @throws NullPointerException if phase is null
+     */
+    public long getOverruns(Phase phase) {
+        return phaseOverruns[phase.ordinal()];
+    }
+
+    /**
+     * Return how late ticks have started on average, in ms
+     *
+     * @return mean jitter in ms, or 0 if no ticks have run
+     */
+    public double getMeanJitter() {
+        return ticks == 0 ? 0 : jitterSum / NS_PER_MS / ticks;
+    }
+
+    /**
+     * Return the latest a tick has started, in ms
+     *
+     * @return maximum jitter in ms
+     */
+    public double getMaxJitter() {
+        return maxJitter / NS_PER_MS;
+    }
+
+    /**
+     * Return the rate a stage currently runs at, which is lower than requested while it's slowed
+     *
+     * @param name name of the stage (a mechanism's class name, e.g. "Drive")
+     * @return times per s the stage runs
+     * @throws IllegalArgumentException if no stage has the name
+     */
+    public double getRate(String name) {
+        Stage stage = find(name);
+        if (stage == null) {
+            throw new IllegalArgumentException(
+                    "Unexpected name: "
+                            + name
+                            + ", passed to LoopScheduler.getRate(). Valid names are those passed to LoopScheduler.stage()");
+        }
+        return rate / stage.divisor;
+    }
+
+    /**
+     * Add a summary line for the loop and each stage to telemetry (call telemetry.update()
+     * afterward)
+     *
+     * @param telemetry instance of the calling opMode's telemetry
+     * @throws NullPointerException if telemetry is null
+     */
+    public void toTelemetry(Telemetry telemetry) {
+        if (telemetry == null) {
+            throw new NullPointerException("Null telemetry passed to LoopScheduler.toTelemetry()");
+        }
+        telemetry.addData(
+                "loop",
+                "n=%d jitter=%.2fms max=%.2fms overruns=%d read=%d compute=%d write=%d",
+                ticks,
+                getMeanJitter(),
+                getMaxJitter(),
+                overruns,
+                phaseOverruns[Phase.READ.ordinal()],
+                phaseOverruns[Phase.COMPUTE.ordinal()],
+                phaseOverruns[Phase.WRITE.ordinal()]);
+        for (Stage stage : stages) {
+            telemetry.addData(stage.name, "%.1fHz", rate / stage.divisor);
+        }
+    }
+
+    /**
+     * Run the phase's due stages, then slow the slowest of them if the phase ran over budget, or
+     * let a slowed stage speed back up once the phase has fit its budget for RECOVERY_TICKS
+     */
+    private void runPhase(Phase phase) {
+        int p = phase.ordinal();
+        long start = System.nanoTime();
+        Stage slowest = null;
+        for (Stage stage : stages) {
+            if (stage.phase != phase || ticks < stage.nextTick) {
+                continue;
+            }
+            long stageStart = System.nanoTime();
+            stage.task.run();
+            stage.elapsed = System.nanoTime() - stageStart;
+            stage.nextTick = ticks + stage.divisor;
+            if (stage.divisor < stage.maxDivisor
+                    && (slowest == null || stage.elapsed > slowest.elapsed)) {
+                slowest = stage;
+            }
+        }
+
+        if (System.nanoTime() - start > budgets[p]) {
+            phaseOverruns[p]++;
+            inBudget[p] = 0;
+            if (slowest != null) {
+                slowest.divisor = Math.min(slowest.divisor * 2, slowest.maxDivisor);
+                slowest.nextTick = ticks + slowest.divisor;
+            }
+        } else if (++inBudget[p] >= RECOVERY_TICKS) {
+            inBudget[p] = 0;
+            for (Stage stage : stages) {
+                if (stage.phase == phase && stage.divisor > stage.baseDivisor) {
+                    stage.divisor = Math.max(stage.divisor / 2, stage.baseDivisor);
+                    break;
+                }
+            }
+        }
+    }
+
+    /** Return the stage with the name, or null if there isn't one */
+    private Stage find(String name) {
+        for (Stage stage : stages) {
+            if (stage.name.equals(name)) {
+                return stage;
+            }
+        }
+        return null;
+    }
+}
@@ -6,7 +6,6 @@ package org.edu_nation.easy_ftc.mechanism;
 import com.qualcomm.robotcore.eventloop.opmode.LinearOpMode;
 import com.qualcomm.robotcore.hardware.Gamepad;
 import com.qualcomm.robotcore.hardware.HardwareMap;
-import com.qualcomm.robotcore.util.ElapsedTime;
 import java.util.Arrays;
 
 /**
@@ -21,7 +20,12 @@ abstract class Mechanism {
     protected boolean reverse;
     protected String[] reverseDevices;
     protected Gamepad gamepad;
-    protected ElapsedTime timer = new ElapsedTime();
+    protected GamepadState gamepadState;
+    protected BulkRead bulkRead;
+    protected Metrics metrics;
+    private long inputCycle;
+    private long previousInputCycle;
+    private long readCycle = -1;
 
     @SuppressWarnings("java:S3008")
     protected static String MECHANISM_NAME;
@@ -33,6 +37,9 @@ abstract class Mechanism {
         this.reverse = builder.reverse;
         this.reverseDevices = builder.reverseDevices;
         this.gamepad = builder.gamepad;
+        this.gamepadState = gamepad == null ? null : GamepadState.of(gamepad);
+        this.bulkRead = BulkRead.of(hardwareMap);
+        this.metrics = new Metrics(getClass().getSimpleName(), builder.metrics);
     }
 
     public abstract static class Builder<T extends Builder<T>> {
@@ -41,6 +48,7 @@ abstract class Mechanism {
         private boolean reverse = false;
         private String[] reverseDevices = {};
         private Gamepad gamepad = null;
+        private boolean metrics = false;
 
         /**
          * Builder constructor
@@ -123,6 +131,16 @@ abstract class Mechanism {
             return self();
         }
 
+        /**
+         * Whether to record loop timing and hardware calls, see {@link Mechanism#getMetrics()}
+         *
+         * @return builder instance
+         */
+        public T metrics() {
+            this.metrics = true;
+            return self();
+        }
+
         public abstract T names(String[] names);
 
         abstract Mechanism build();
@@ -137,10 +155,49 @@ abstract class Mechanism {
     @SuppressWarnings("java:S1845")
     protected abstract void reverse(String deviceName);
 
-    /** Helper function to wait (but not suspend) for specified time in s */
-    protected void wait(double time) {
-        this.timer.reset();
-        while (opMode.opModeIsActive() && (this.timer.time() < time))
-            ;
+    /**
+     * Return the loop timing and hardware calls recorded for this mechanism (empty unless enabled
+     * with Builder().metrics())
+     *
+     * @return metrics instance
+     */
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    /** Return this cycle's gamepad snapshot, shared with every mechanism using the same gamepad */
+    protected GamepadState input() {
+        previousInputCycle = inputCycle;
+        inputCycle = gamepadState.read(inputCycle);
+        return gamepadState;
     }
+
+    /**
+     * Whether button was pressed since this mechanism's previous input(), including during cycles
+     * it skipped
+     */
+    protected boolean wasPressed(GamepadState.Button button) {
+        return gamepadState.wasPressed(button, previousInputCycle);
+    }
+
+    /**
+     * Start a call that reads hardware, beginning a new bulk-read cycle if this mechanism already
+     * read during the current one and clear() hasn't been called since
+     */
+    protected void startCycle() {
+        readCycle = bulkRead.read(readCycle);
+    }
+
+    /** Helper function to advance a motion until it's done, yielding the thread between updates */
+    protected void await(Motion motion) {
+        while (!motion.isDone()) {
+            bulkRead.clear();
+            motion.update();
+            track();
+            opMode.idle();
+        }
+    }
+
+    /** Hook for state tracked every cycle while awaiting a motion; does nothing by default */
+    protected void track() {}
 }
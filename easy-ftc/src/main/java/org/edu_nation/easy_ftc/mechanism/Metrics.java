@@ -0,0 +1,282 @@
+// SPDX-FileCopyrightText: Collegiate Edu-Nation
+// SPDX-License-Identifier: GPL-3.0-or-later
+
+package org.edu_nation.easy_ftc.mechanism;
+
+import java.util.Arrays;
+import org.firstinspires.ftc.robotcore.external.Telemetry;
+
+/**
+ * Opt-in loop timing and hardware-call accounting for a mechanism. Wall time of each control() and
+ * command() call is recorded in a fixed-size, log-bucketed histogram (within 12.5% of the true
+ * value), and every hardware call is counted against the call that issued it
+ *
+ * <p><b>Basic Usage:</b>
+ *
+ * <pre>{@code
+ * Lift lift = new Lift.Builder(this, hardwareMap).up(10).metrics().build();
+ * while (opModeIsActive()) {
+ *     lift.control();
+ *     lift.getMetrics().toTelemetry(telemetry);
+ *     telemetry.update();
+ * }
+ * }</pre>
+ */
+public final class Metrics {
+    private static final Call[] CALLS = Call.values();
+    private static final Transaction[] TRANSACTIONS = Transaction.values();
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+    private static final int OUTSIDE = CALLS.length;
+    private static final double NS_PER_MS = 1e6;
+    private final String name;
+    private final boolean enabled;
+    private final long[][] histograms;
+    private final long[] counts;
+    private final long[] maxes;
+    private final long[][] transactions;
+    private int current = OUTSIDE;
+
+    /** Constructor */
+    Metrics(String name, boolean enabled) {
+        this.name = name;
+        this.enabled = enabled;
+
+        // metrics are off by default, so don't allocate anything unless they're recorded
+        this.histograms = enabled ? new long[CALLS.length][BUCKETS] : null;
+        this.counts = enabled ? new long[CALLS.length] : null;
+        this.maxes = enabled ? new long[CALLS.length] : null;
+        this.transactions = enabled ? new long[CALLS.length + 1][TRANSACTIONS.length] : null;
+    }
+
+    /** Mechanism calls whose wall time is recorded */
+    public enum Call {
+        CONTROL,
+        COMMAND
+    }
+
+    /** Hardware calls that are counted */
+    public enum Transaction {
+        SET_POWER,
+        SET_VELOCITY,
+        SET_MODE,
+        SET_TARGET_POSITION,
+        SET_BEHAVIOR,
+        GET_CURRENT_POSITION,
+        GET_VELOCITY,
+        IS_BUSY,
+        SET_POSITION,
+        GET_POSITION,
+        IMU_READ
+    }
+
+    /** Whether metrics are being recorded */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Return the number of recorded calls
+     *
+     * @param call type of call
+     * @return number of calls
+     * @throws NullPointerException if call is null
+     */
+    public long count(Call call) {
+        int i = call.ordinal();
+        return enabled ? counts[i] : 0;
+    }
+
+    /**
+     * Return the wall time that the given fraction of calls completed within, in ms
+     *
+     * @param call type of call
+     * @param percentile fraction of calls, e.g. 0.5 for p50 or 0.99 for p99
+     * @return wall time in ms, or 0 if no calls have been recorded
+     * @throws NullPointerException if call is null
+     * @throws IllegalArgumentException if percentile is not in the interval (0, 1]
+     */
+    public double percentile(Call call, double percentile) {
+        if (percentile <= 0 || percentile > 1) {
+            throw new IllegalArgumentException(
+                    "Unexpected percentile value: "
+                            + percentile
+                            + ", passed to Metrics.percentile(). Valid values are numbers in the interval (0, 1]");
+        }
+        int i = call.ordinal();
+        if (!enabled || counts[i] == 0) {
+            return 0;
+        }
+
+        // walk the buckets until the requested rank, reporting the bucket's upper bound
+        long rank = (long) Math.ceil(percentile * counts[i]);
+        long seen = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            seen += histograms[i][bucket];
+            if (seen >= rank) {
+                return Math.min(upperBound(bucket), maxes[i]) / NS_PER_MS;
+            }
+        }
+        return maxes[i] / NS_PER_MS;
+    }
+
+    /**
+     * Return the longest recorded wall time, in ms
+     *
+     * @param call type of call
+     * @return wall time in ms
+     * @throws NullPointerException if call is null
+     */
+    public double max(Call call) {
+        int i = call.ordinal();
+        return enabled ? maxes[i] / NS_PER_MS : 0;
+    }
+
+    /**
+     * Return the number of hardware calls of the given type issued during the given type of call
+     *
+     * @param call type of call
+     * @param transaction type of hardware call
+     * @return number of hardware calls
+     * @throws NullPointerException if call or transaction is null
+     */
+    public long transactions(Call call, Transaction transaction) {
+        int i = call.ordinal();
+        int j = transaction.ordinal();
+        return enabled ? transactions[i][j] : 0;
+    }
+
+    /**
+     * Return the number of hardware calls of the given type, including those issued outside of
+     * control() and command() (e.g. while advancing a {@link Motion})
+     *
+     * @param transaction type of hardware call
+     * @return number of hardware calls
+     * @throws NullPointerException if transaction is null
+     */
+    public long transactions(Transaction transaction) {
+        int j = transaction.ordinal();
+        if (!enabled) {
+            return 0;
+        }
+        long total = 0;
+        for (long[] row : transactions) {
+            total += row[j];
+        }
+        return total;
+    }
+
+    /**
+     * Return the average number of hardware calls issued per call
+     *
+     * @param call type of call
+     * @return average hardware calls, or 0 if no calls have been recorded
+     * @throws NullPointerException if call is null
+     */
+    public double transactionsPerCall(Call call) {
+        int i = call.ordinal();
+        if (!enabled || counts[i] == 0) {
+            return 0;
+        }
+        long total = 0;
+        for (long count : transactions[i]) {
+            total += count;
+        }
+        return (double) total / counts[i];
+    }
+
+    /** Clear all recorded timing and hardware calls */
+    public void reset() {
+        if (!enabled) {
+            return;
+        }
+        for (int i = 0; i < CALLS.length; i++) {
+            Arrays.fill(histograms[i], 0);
+            counts[i] = 0;
+            maxes[i] = 0;
+        }
+        for (long[] row : transactions) {
+            Arrays.fill(row, 0);
+        }
+    }
+
+    /**
+     * Add a summary line per call type to telemetry (call telemetry.update() afterward)
+     *
+     * @param telemetry instance of the calling opMode's telemetry
+     * @throws NullPointerException if telemetry is null
+     */
+    public void toTelemetry(Telemetry telemetry) {
+        if (telemetry == null) {
+            throw new NullPointerException("Null telemetry passed to Metrics.toTelemetry()");
+        }
+        for (Call call : CALLS) {
+            telemetry.addData(
+                    name + " " + call.name().toLowerCase(),
+                    "n=%d p50=%.2fms p99=%.2fms max=%.2fms hw/call=%.1f",
+                    count(call),
+                    percentile(call, 0.5),
+                    percentile(call, 0.99),
+                    max(call),
+                    transactionsPerCall(call));
+        }
+    }
+
+    /** Start timing a call, attributing hardware calls to it until it stops */
+    long start(Call call) {
+        if (!enabled) {
+            return 0;
+        }
+        current = call.ordinal();
+        return System.nanoTime();
+    }
+
+    /** Stop timing a call that started at start */
+    void stop(Call call, long start) {
+        if (!enabled) {
+            return;
+        }
+        record(call, System.nanoTime() - start);
+        current = OUTSIDE;
+    }
+
+    /** Record a call that took elapsed ns */
+    void record(Call call, long elapsed) {
+        if (!enabled) {
+            return;
+        }
+        long ns = Math.max(elapsed, 0);
+        int i = call.ordinal();
+        histograms[i][bucket(ns)]++;
+        counts[i]++;
+        maxes[i] = Math.max(maxes[i], ns);
+    }
+
+    /** Count a hardware call against the current call */
+    void record(Transaction transaction) {
+        if (enabled) {
+            transactions[current][transaction.ordinal()]++;
+        }
+    }
+
+    /** Return the histogram bucket holding value: linear below SUB_BUCKETS, then log-linear */
+    private static int bucket(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int mantissa = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + mantissa;
+    }
+
+    /** Return the largest value held by bucket */
+    private static long upperBound(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int exponent = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        long mantissa = SUB_BUCKETS + (long) (bucket % SUB_BUCKETS);
+        return ((mantissa + 1) << (exponent - SUB_BUCKET_BITS)) - 1;
+    }
+}
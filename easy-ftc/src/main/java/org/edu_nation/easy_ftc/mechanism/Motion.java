@@ -0,0 +1,62 @@
+// SPDX-FileCopyrightText: Collegiate Edu-Nation
+// SPDX-License-Identifier: GPL-3.0-or-later
+
+package org.edu_nation.easy_ftc.mechanism;
+
+/**
+ * Handle to a non-blocking mechanism movement, returned by commandAsync(). The movement is
+ * started when the handle is created and advanced by calling {@link #update()} once per loop
+ * iteration, so a single thread can drive several movements at once
+ *
+ * <p><b>Basic Usage:</b>
+ *
+ * <pre>{@code
+ * Motion driveMotion = drive.commandAsync(Drive.Direction.FORWARD, 2, 0.5);
+ * Motion liftMotion = lift.commandAsync(Lift.Direction.UP, 1, 0.8);
+ * while (opModeIsActive() && !(driveMotion.isDone() && liftMotion.isDone())) {
+ *     driveMotion.update();
+ *     liftMotion.update();
+ * }
+ * }</pre>
+ */
+public abstract class Motion {
+    private boolean done;
+
+    /** Constructor */
+    Motion() {}
+
+    /** Advance the movement, stopping the mechanism once its end condition has been reached */
+    public void update() {
+        if (!done && !step()) {
+            finish();
+        }
+    }
+
+    /** Stop the movement immediately, regardless of whether its end condition was reached */
+    public void cancel() {
+        if (!done) {
+            finish();
+        }
+    }
+
+    /**
+     * Return whether the movement has completed or been cancelled
+     *
+     * @return whether the movement is done
+     */
+    public boolean isDone() {
+        return done;
+    }
+
+    /** Mark the movement as done and stop the mechanism */
+    private void finish() {
+        done = true;
+        stop();
+    }
+
+    /** Advance the movement by a single tick, returning whether it is still in progress */
+    abstract boolean step();
+
+    /** Stop the mechanism once the movement has completed or been cancelled */
+    abstract void stop();
+}
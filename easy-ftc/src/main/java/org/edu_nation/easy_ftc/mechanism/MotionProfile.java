@@ -0,0 +1,170 @@
+// SPDX-FileCopyrightText: Collegiate Edu-Nation
+// SPDX-License-Identifier: GPL-3.0-or-later
+
+package org.edu_nation.easy_ftc.mechanism;
+
+/**
+ * Time-optimal motion profile for a move of distance, limited by maximum velocity, acceleration,
+ * and (optionally) jerk. Without a jerk limit the profile is trapezoidal; with one, it's a
+ * seven-segment S-curve. The segments are computed once, so sampling the profile every tick is
+ * O(1) and doesn't allocate
+ */
+final class MotionProfile {
+    private static final int MAX_SEGMENTS = 7;
+    private static final int ITERATIONS = 60;
+    private final double sign;
+    private final double distance;
+    private final double[] starts = new double[MAX_SEGMENTS];
+    private final double[] positions = new double[MAX_SEGMENTS];
+    private final double[] velocities = new double[MAX_SEGMENTS];
+    private final double[] accelerations = new double[MAX_SEGMENTS];
+    private final double[] jerks = new double[MAX_SEGMENTS];
+    private int segments;
+    private double duration;
+    private int segment;
+    private double position;
+    private double velocity;
+    private double acceleration;
+
+    /**
+     * Constructor. A maxJerk of 0 produces a trapezoidal profile. Distance may be negative; limits
+     * must be positive
+     */
+    MotionProfile(double distance, double maxVelocity, double maxAcceleration, double maxJerk) {
+        this.sign = Math.signum(distance);
+        this.distance = Math.abs(distance);
+        if (this.distance == 0) {
+            return;
+        }
+        if (maxJerk == 0) {
+            trapezoid(maxVelocity, maxAcceleration);
+        } else {
+            sCurve(maxVelocity, maxAcceleration, maxJerk);
+        }
+        position = 0;
+        velocity = 0;
+    }
+
+    /** Accelerate, cruise, and decelerate, peaking below maxVelocity for short moves */
+    private void trapezoid(double maxVelocity, double maxAcceleration) {
+        double peak = Math.min(maxVelocity, Math.sqrt(distance * maxAcceleration));
+        double accelerating = peak / maxAcceleration;
+        double cruising = (distance - peak * accelerating) / peak;
+
+        add(accelerating, maxAcceleration, 0);
+        add(cruising, 0, 0);
+        add(accelerating, -maxAcceleration, 0);
+    }
+
+    /** Ramp acceleration in and out at maxJerk, peaking below the limits for short moves */
+    private void sCurve(double maxVelocity, double maxAcceleration, double maxJerk) {
+        // search for the highest reachable peak velocity when the limit can't be reached
+        double peak = maxVelocity;
+        if (2 * rampDistance(peak, maxAcceleration, maxJerk) > distance) {
+            double low = 0;
+            double high = maxVelocity;
+            for (int i = 0; i < ITERATIONS; i++) {
+                peak = (low + high) / 2;
+                if (2 * rampDistance(peak, maxAcceleration, maxJerk) > distance) {
+                    high = peak;
+                } else {
+                    low = peak;
+                }
+            }
+            peak = low;
+        }
+
+        double jerking = jerkTime(peak, maxAcceleration, maxJerk);
+        double peakAcceleration = maxJerk * jerking;
+        double accelerating = peak / peakAcceleration - jerking;
+        double cruising = (distance - 2 * rampDistance(peak, maxAcceleration, maxJerk)) / peak;
+
+        add(jerking, 0, maxJerk);
+        add(accelerating, peakAcceleration, 0);
+        add(jerking, peakAcceleration, -maxJerk);
+        add(cruising, 0, 0);
+        add(jerking, 0, -maxJerk);
+        add(accelerating, -peakAcceleration, 0);
+        add(jerking, -peakAcceleration, maxJerk);
+    }
+
+    /** Return how long acceleration ramps for when reaching peak */
+    private static double jerkTime(double peak, double maxAcceleration, double maxJerk) {
+        if (peak * maxJerk >= maxAcceleration * maxAcceleration) {
+            return maxAcceleration / maxJerk;
+        }
+        return Math.sqrt(peak / maxJerk);
+    }
+
+    /** Return the distance covered while ramping from rest to peak (the ramp is symmetric) */
+    private static double rampDistance(double peak, double maxAcceleration, double maxJerk) {
+        double jerking = jerkTime(peak, maxAcceleration, maxJerk);
+        return peak * (jerking + peak / (maxJerk * jerking)) / 2;
+    }
+
+    /** Append a segment lasting duration that starts at acceleration and changes at jerk */
+    private void add(double duration, double acceleration, double jerk) {
+        double t = Math.max(duration, 0);
+        starts[segments] = this.duration;
+        positions[segments] = position;
+        velocities[segments] = velocity;
+        accelerations[segments] = acceleration;
+        jerks[segments] = jerk;
+        segments++;
+
+        position += velocity * t + acceleration * t * t / 2 + jerk * t * t * t / 6;
+        velocity += acceleration * t + jerk * t * t / 2;
+        this.duration += t;
+    }
+
+    /** Evaluate the profile at time t s, updating position, velocity, and acceleration */
+    void sample(double t) {
+        if (segments == 0 || t >= duration) {
+            position = sign * distance;
+            velocity = 0;
+            acceleration = 0;
+            return;
+        }
+        t = Math.max(t, 0);
+
+        // samples are usually monotonic, so resume the search from the last segment
+        if (t < starts[segment]) {
+            segment = 0;
+        }
+        while (segment < segments - 1 && t >= starts[segment + 1]) {
+            segment++;
+        }
+
+        double dt = t - starts[segment];
+        double a = accelerations[segment];
+        double j = jerks[segment];
+        position =
+                sign
+                        * (positions[segment]
+                                + velocities[segment] * dt
+                                + a * dt * dt / 2
+                                + j * dt * dt * dt / 6);
+        velocity = sign * (velocities[segment] + a * dt + j * dt * dt / 2);
+        acceleration = sign * (a + j * dt);
+    }
+
+    /** Return the total time of the profile in s */
+    double getDuration() {
+        return duration;
+    }
+
+    /** Return the position at the last sample */
+    double getPosition() {
+        return position;
+    }
+
+    /** Return the velocity at the last sample */
+    double getVelocity() {
+        return velocity;
+    }
+
+    /** Return the acceleration at the last sample */
+    double getAcceleration() {
+        return acceleration;
+    }
+}
@@ -3,7 +3,6 @@
 
 package org.edu_nation.easy_ftc.mechanism;
 
-import com.qualcomm.hardware.rev.RevHubOrientationOnRobot;
 import com.qualcomm.hardware.rev.RevHubOrientationOnRobot.LogoFacingDirection;
 import com.qualcomm.hardware.rev.RevHubOrientationOnRobot.UsbFacingDirection;
 import com.qualcomm.robotcore.eventloop.opmode.LinearOpMode;
@@ -11,10 +10,12 @@ import com.qualcomm.robotcore.hardware.DcMotor;
 import com.qualcomm.robotcore.hardware.DcMotorEx;
 import com.qualcomm.robotcore.hardware.DcMotorSimple;
 import com.qualcomm.robotcore.hardware.HardwareMap;
-import com.qualcomm.robotcore.hardware.IMU;
+import com.qualcomm.robotcore.hardware.VoltageSensor;
 import com.qualcomm.robotcore.hardware.configuration.typecontainers.MotorConfigurationType;
+import com.qualcomm.robotcore.util.ElapsedTime;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Objects;
-import org.firstinspires.ftc.robotcore.external.navigation.AngleUnit;
 
 /**
  * Blueprints an abstract Motor Mechanism, providing basic functionalities, options, and objects
@@ -23,7 +24,6 @@ import org.firstinspires.ftc.robotcore.external.navigation.AngleUnit;
 abstract class MotorMechanism<E> extends Mechanism {
     protected DcMotor[] motors;
     protected DcMotorEx[] motorsEx;
-    protected IMU imu;
     protected boolean encoder;
     protected DcMotor.ZeroPowerBehavior behavior;
     protected double dir1;
@@ -34,10 +34,38 @@ abstract class MotorMechanism<E> extends Mechanism {
     protected double length;
     protected double gearing;
     protected double deadzone;
+    protected double epsilon;
+    protected double maxVelocity;
+    protected double maxAcceleration;
+    protected double maxJerk;
+    protected Feedforward feedforward;
+    protected double feedbackGain;
     protected LogoFacingDirection logo;
     protected UsbFacingDirection usb;
     protected Drive.Layout layout;
+    private int[] positionsSnapshot;
+    private double[] velocitiesSnapshot;
+    private boolean[] busySnapshot;
+    private long positionsCycle = -1;
+    private long velocitiesCycle = -1;
+    private long busyCycle = -1;
+    private double[] lastOutputs;
+    private DcMotor.RunMode[] lastModes;
+    private int[] lastTargets;
+    private boolean[] targetsWritten;
+    private DcMotor.ZeroPowerBehavior[] lastBehaviors;
+    private long skippedWrites;
+    private double[] scaledMovements;
+    private double[] zeros;
     private static final String CONNECT = ", passed to ";
+    private static final double PROFILE_GAIN = 4.0;
+    private static final double PROFILE_TIMEOUT = 1.0;
+    private static final double NOMINAL_VOLTAGE = 12.0;
+    private static final double VOLTAGE_PERIOD = 0.5;
+    private static final double COAST_TIME = 1.0;
+    private VoltageSensor voltageSensor;
+    private double voltage = NOMINAL_VOLTAGE;
+    private final ElapsedTime voltageTimer = new ElapsedTime();
 
     /** Constructor */
     protected MotorMechanism(Builder<?> builder) {
@@ -47,6 +75,12 @@ abstract class MotorMechanism<E> extends Mechanism {
         this.length = builder.length;
         this.gearing = builder.gearing;
         this.deadzone = builder.deadzone;
+        this.epsilon = builder.epsilon;
+        this.maxVelocity = builder.maxVelocity;
+        this.maxAcceleration = builder.maxAcceleration;
+        this.maxJerk = builder.maxJerk;
+        this.feedforward = builder.feedforward;
+        this.feedbackGain = builder.feedbackGain;
         this.logo = builder.logo;
         this.usb = builder.usb;
     }
@@ -57,6 +91,12 @@ abstract class MotorMechanism<E> extends Mechanism {
         protected double length = 0.0;
         protected double gearing = 0.0;
         private double deadzone = 0.0;
+        private double epsilon = 0.0;
+        protected double maxVelocity = 0.0;
+        protected double maxAcceleration = 0.0;
+        protected double maxJerk = 0.0;
+        protected Feedforward feedforward = null;
+        private double feedbackGain = 0.1;
         private LogoFacingDirection logo = LogoFacingDirection.UP;
         private UsbFacingDirection usb = UsbFacingDirection.FORWARD;
 
@@ -148,6 +188,118 @@ abstract class MotorMechanism<E> extends Mechanism {
             return self();
         }
 
+        /**
+         * Specify the smallest change in power that's written to the motors
+         *
+         * @param epsilon minimum difference from the last power for a new one to be written
+         * @return builder instance
+         * @throws IllegalArgumentException if epsilon &lt; 0
+         */
+        public T epsilon(double epsilon) {
+            if (epsilon < 0) {
+                throw new IllegalArgumentException(
+                        "Unexpected epsilon value: "
+                                + epsilon
+                                + ", passed to MotorMechanism.Builder().epsilon(). Valid values are numbers >= 0");
+            }
+            this.epsilon = epsilon;
+            return self();
+        }
+
+        /**
+         * Specify the maximum velocity of profiled distance-based movement. Along with
+         * maxAcceleration, enables smooth, time-optimal movement instead of a constant power step
+         *
+         * @param maxVelocity maximum velocity in distance units (of diameter or length) per s
+         * @return builder instance
+         * @throws IllegalArgumentException if maxVelocity &lt;= 0
+         */
+        public T maxVelocity(double maxVelocity) {
+            if (maxVelocity <= 0) {
+                throw new IllegalArgumentException(
+                        "Unexpected maxVelocity value: "
+                                + maxVelocity
+                                + ", passed to MotorMechanism.Builder().maxVelocity(). Valid values are numbers > 0");
+            }
+            this.maxVelocity = maxVelocity;
+            return self();
+        }
+
+        /**
+         * Specify the maximum acceleration of profiled distance-based movement
+         *
+         * @param maxAcceleration maximum acceleration in distance units per s^2
+         * @return builder instance
+         * @throws IllegalArgumentException if maxAcceleration &lt;= 0
+         */
+        public T maxAcceleration(double maxAcceleration) {
+            if (maxAcceleration <= 0) {
+                throw new IllegalArgumentException(
+                        "Unexpected maxAcceleration value: "
+                                + maxAcceleration
+                                + ", passed to MotorMechanism.Builder().maxAcceleration(). Valid values are numbers > 0");
+            }
+            this.maxAcceleration = maxAcceleration;
+            return self();
+        }
+
+        /**
+         * Specify the maximum jerk of profiled distance-based movement, smoothing the profile from
+         * a trapezoid into an S-curve
+         *
+         * @param maxJerk maximum jerk in distance units per s^3
+         * @return builder instance
+         * @throws IllegalArgumentException if maxJerk &lt;= 0
+         */
+        public T maxJerk(double maxJerk) {
+            if (maxJerk <= 0) {
+                throw new IllegalArgumentException(
+                        "Unexpected maxJerk value: "
+                                + maxJerk
+                                + ", passed to MotorMechanism.Builder().maxJerk(). Valid values are numbers > 0");
+            }
+            this.maxJerk = maxJerk;
+            return self();
+        }
+
+        /**
+         * Specify velocity feedforward constants (e.g. from {@link Feedforward#load(String)}).
+         * Velocity is then controlled by this library from the constants plus feedback on the
+         * measured velocity, compensating for battery voltage, instead of by the hub's PID
+         *
+         * @param feedforward constants fit by {@link MotorMechanism#characterize(double, double)}
+         * @return builder instance
+         * @throws NullPointerException if feedforward is null
+         */
+        public T feedforward(Feedforward feedforward) {
+            if (feedforward == null) {
+                throw new NullPointerException(
+                        "Null feedforward passed to MotorMechanism.Builder().feedforward()");
+            }
+            this.feedforward = feedforward;
+            return self();
+        }
+
+        /**
+         * Specify how strongly feedforward corrects the measured velocity, as a fraction of kV per
+         * tick/s of error. Higher values hold velocity more tightly under load, but jerk harder
+         * whenever the commanded velocity changes
+         *
+         * @param feedbackGain fraction of kV applied to velocity error, where 0 disables feedback
+         * @return builder instance
+         * @throws IllegalArgumentException if feedbackGain &lt; 0
+         */
+        public T feedbackGain(double feedbackGain) {
+            if (feedbackGain < 0) {
+                throw new IllegalArgumentException(
+                        "Unexpected feedbackGain value: "
+                                + feedbackGain
+                                + ", passed to MotorMechanism.Builder().feedbackGain(). Valid values are numbers >= 0");
+            }
+            this.feedbackGain = feedbackGain;
+            return self();
+        }
+
         /**
          * Specify the logo direction of the IMU/gyro
          *
@@ -191,6 +343,8 @@ abstract class MotorMechanism<E> extends Mechanism {
 
     public abstract void command(E direction, double measurement, double power);
 
+    public abstract Motion commandAsync(E direction, double measurement, double power);
+
     /** Ensure multiplier is in (0, 1] */
     protected void validate(double multiplier) {
         if (multiplier <= 0 || multiplier > 1) {
@@ -275,6 +429,18 @@ abstract class MotorMechanism<E> extends Mechanism {
     /** Initializes motors based on builder args (e.g. using encoders or not) */
     @Override
     protected void init() {
+        // Track the last value written to each motor so redundant writes can be skipped
+        lastOutputs = new double[count];
+        Arrays.fill(lastOutputs, Double.NaN);
+        lastModes = new DcMotor.RunMode[count];
+        lastTargets = new int[count];
+        targetsWritten = new boolean[count];
+        lastBehaviors = new DcMotor.ZeroPowerBehavior[count];
+
+        // Buffers reused by the control() hot path so it doesn't allocate
+        scaledMovements = new double[count];
+        zeros = new double[count];
+
         if (encoder) {
             // Instantiate motors
             motorsEx = new DcMotorEx[count];
@@ -282,17 +448,28 @@ abstract class MotorMechanism<E> extends Mechanism {
                 motorsEx[i] = hardwareMap.get(DcMotorEx.class, names[i]);
             }
 
+            // Snapshots of the hub's bulk data, refreshed at most once per cycle
+            positionsSnapshot = new int[count];
+            velocitiesSnapshot = new double[count];
+            busySnapshot = new boolean[count];
+
             MotorConfigurationType[] motorTypes = getMotorTypes();
 
             // Reset encoders
             setModesEx(DcMotor.RunMode.STOP_AND_RESET_ENCODER);
 
             // Set motors to run using the encoder (velocity, not position)
-            setModesEx(DcMotor.RunMode.RUN_USING_ENCODER);
+            setModesEx(velocityMode());
 
-            if (diameter == 0.0) {
-                velocityMultiplier = getAchievableMaxTicksPerSecond(motorTypes);
-            } else {
+            // Voltage compensates feedforward; without a sensor, assume a nominal battery
+            List<VoltageSensor> voltageSensors = hardwareMap.getAll(VoltageSensor.class);
+            if (!voltageSensors.isEmpty()) {
+                voltageSensor = voltageSensors.get(0);
+                voltage = voltageSensor.getVoltage();
+            }
+
+            velocityMultiplier = getAchievableMaxTicksPerSecond(motorTypes);
+            if (diameter != 0.0) {
                 distanceMultiplier = getTicksPerRev(motorTypes);
                 if (gearing != 0.0) {
                     setGearing();
@@ -309,14 +486,6 @@ abstract class MotorMechanism<E> extends Mechanism {
             setModes();
         }
 
-        // Initializes imu for field-centric layout
-        if ("Drive".equals(MECHANISM_NAME) && layout == Drive.Layout.FIELD) {
-            imu = hardwareMap.get(IMU.class, "imu");
-            IMU.Parameters parameters = new IMU.Parameters(new RevHubOrientationOnRobot(logo, usb));
-            imu.initialize(parameters);
-            imu.resetYaw();
-        }
-
         // specify zeroPowerBehavior of motors
         setBehaviors(behavior);
 
@@ -330,117 +499,278 @@ abstract class MotorMechanism<E> extends Mechanism {
     }
 
     /** Moves the mechanism for the given measurement at power */
-    @SuppressWarnings("java:S3776")
     protected void moveForMeasurement(
             double[] unscaledMovements, double measurement, double power, boolean limit) {
-        double[] movements = scaleDirections(unscaledMovements, power);
+        await(moveForMeasurementAsync(unscaledMovements, measurement, power, limit));
+    }
 
-        if (diameter == 0.0) {
-            // move the motors at power for the specified time (or until limits are reached)
-            setPowers(movements);
-            if (!limit) {
-                wait(measurement);
-            } else {
-                this.timer.reset();
-                while (opMode.opModeIsActive()
-                        && (this.timer.time() < measurement)
-                        && limitsNotReached(unscaledMovements[0], unscaledMovements))
-                    ;
-            }
-            setPowers();
-        } else {
+    /** Starts moving the mechanism for the given measurement at power, without blocking */
+    protected Motion moveForMeasurementAsync(
+            double[] unscaledMovements, double measurement, double power, boolean limit) {
+        if (diameter != 0.0 && maxVelocity != 0.0) {
+            return moveForMeasurementProfiledAsync(unscaledMovements, measurement, power, limit);
+        }
+
+        // copy out of the shared buffer, since the motion outlives this call
+        double[] movements = scaleDirections(unscaledMovements, power).clone();
+
+        if (diameter != 0.0) {
             int[] positions = calculatePositions(measurement, unscaledMovements);
             int[] currentPositions = getCurrentPositions();
 
             // move the motors at power until they've reached the position (or the limit)
             setPositions(positions, currentPositions);
-            setPowers(movements);
-            if (!limit) {
-                while (motorsAreBusy(movements))
-                    ;
+        }
+        setPowers(movements);
+        return new MotorMotion(unscaledMovements, movements, measurement, limit);
+    }
+
+    /**
+     * Non-blocking movement that ends once the time or encoder target has been reached (or the
+     * positional limits, if applicable)
+     */
+    private class MotorMotion extends Motion {
+        private final double[] unscaledMovements;
+        private final double[] movements;
+        private final double measurement;
+        private final boolean limit;
+        private final ElapsedTime motionTimer = new ElapsedTime();
+
+        private MotorMotion(
+                double[] unscaledMovements, double[] movements, double measurement, boolean limit) {
+            this.unscaledMovements = unscaledMovements;
+            this.movements = movements;
+            this.measurement = measurement;
+            this.limit = limit;
+        }
+
+        @Override
+        boolean step() {
+            startCycle();
+            if (!opMode.opModeIsActive()
+                    || (limit && !limitsNotReached(unscaledMovements[0], unscaledMovements))) {
+                return false;
+            }
+
+            if (diameter == 0.0) {
+                return motionTimer.time() < measurement;
             } else {
-                while (motorsAreBusy(movements)
-                        && limitsNotReached(unscaledMovements[0], unscaledMovements))
-                    ;
+                return motorsAreBusy(movements);
             }
+        }
+
+        @Override
+        void stop() {
             setPowers();
 
             // Reset motors to run using velocity
             // Allows for using command() w/ length along w/ control()
-            setModesEx(DcMotor.RunMode.RUN_USING_ENCODER);
+            if (diameter != 0.0) {
+                setModesEx(velocityMode());
+            }
         }
     }
 
-    /** Moves the mechanism for the given measurement angle at power */
-    protected void moveForMeasurement(
-            double[] unscaledMovements,
-            double measurement,
-            double power,
-            AngleUnit unit,
-            boolean limit) {
-        double[] movements = scaleDirections(unscaledMovements, power);
-
-        // Convert measuremnt to degrees and validate
-        double measurementDeg = 0;
-        if (unit == AngleUnit.RADIANS) {
-            measurementDeg = unit.toDegrees(measurement);
-        } else {
-            measurementDeg = measurement;
+    /**
+     * Starts moving the mechanism for the given distance along a motion profile limited to
+     * maxVelocity scaled by power, without blocking
+     */
+    protected Motion moveForMeasurementProfiledAsync(
+            double[] unscaledMovements, double measurement, double power, boolean limit) {
+        double ticksPerUnit = distanceMultiplier / (Math.PI * diameter);
+        MotionProfile profile =
+                new MotionProfile(
+                        measurement * ticksPerUnit,
+                        maxVelocity * power * ticksPerUnit,
+                        maxAcceleration * ticksPerUnit,
+                        maxJerk * ticksPerUnit);
+
+        // track the profile in velocity mode, from where the motors are now
+        setModesEx(velocityMode());
+        int[] startPositions = getCurrentPositions().clone();
+        return new ProfiledMotion(unscaledMovements.clone(), profile, startPositions, limit);
+    }
+
+    /**
+     * Non-blocking movement that commands the profile's velocity each tick, corrected by the error
+     * from the profile's position. Ends once the profile is complete and every motor is within
+     * tolerance (or after a timeout, if one stalls)
+     */
+    private class ProfiledMotion extends Motion {
+        private final double[] unscaledMovements;
+        private final MotionProfile profile;
+        private final int[] startPositions;
+        private final boolean limit;
+        private final double[] velocities = new double[count];
+        private final double[] accelerations = new double[count];
+        private final double tolerance = distanceMultiplier / 100;
+        private final ElapsedTime motionTimer = new ElapsedTime();
+
+        private ProfiledMotion(
+                double[] unscaledMovements,
+                MotionProfile profile,
+                int[] startPositions,
+                boolean limit) {
+            this.unscaledMovements = unscaledMovements;
+            this.profile = profile;
+            this.startPositions = startPositions;
+            this.limit = limit;
         }
-        validateDeg(measurementDeg);
 
-        // move the motors at power until the gyro measurement has been reached (or the limit)
-        double[] measurementsDeg = trimDegrees(measurementDeg);
-        setPowers(movements);
-        if (!limit) {
-            for (double deg : measurementsDeg) {
-                while (gyroIsBusy(deg))
-                    ;
+        @Override
+        boolean step() {
+            startCycle();
+            if (!opMode.opModeIsActive()
+                    || (limit && !limitsNotReached(unscaledMovements[0], unscaledMovements))) {
+                return false;
             }
-        } else {
-            for (double deg : measurementsDeg) {
-                while (gyroIsBusy(deg) && limitsNotReached(unscaledMovements[0], unscaledMovements))
-                    ;
+
+            double time = motionTimer.seconds();
+            profile.sample(time);
+            int[] currentPositions = getCurrentPositions();
+            boolean settled = time >= profile.getDuration();
+            for (int i = 0; i < count; i++) {
+                double target = startPositions[i] + unscaledMovements[i] * profile.getPosition();
+                double error = target - currentPositions[i];
+                velocities[i] = unscaledMovements[i] * profile.getVelocity() + PROFILE_GAIN * error;
+                accelerations[i] = unscaledMovements[i] * profile.getAcceleration();
+                if (Math.abs(error) > tolerance) {
+                    settled = false;
+                }
+            }
+            if (settled || time >= profile.getDuration() + PROFILE_TIMEOUT) {
+                return false;
             }
+
+            setVelocities(velocities, accelerations);
+            return true;
+        }
+
+        @Override
+        void stop() {
+            setPowers();
         }
-        setPowers();
     }
 
-    /** Converts degree measurement to array of measurements < 180 */
-    protected double[] trimDegrees(double measurement) {
-        int num;
-        double leftover;
-        double[] measurements;
+    /**
+     * Fit the mechanism's velocity feedforward: ramp power from 0 up to power over time s, coast to
+     * a stop, then step to power for half as long, fitting kS, kV, and kA to the measured
+     * velocities by least squares. The mechanism moves in its positive direction the whole time
+     * (e.g. Drive forward, Lift up, Intake in), so give it room. If limits are set, each phase
+     * ends early once the positive limit is reached, so start at the opposite limit
+     *
+     * @param power largest fraction of total power to apply
+     * @param time duration of the ramp in s
+     * @return fitted constants, to be saved with {@link Feedforward#save(String)}
+     * @throws IllegalArgumentException if power is not in the interval (0, 1]
+     * @throws IllegalArgumentException if time &lt;= 0
+     * @throws IllegalStateException if encoder = false
+     * @throws IllegalStateException if the mechanism didn't move enough to fit the constants (e.g.
+     *     it started at its positive limit)
+     */
+    public Feedforward characterize(double power, double time) {
+        if (power <= 0 || power > 1) {
+            throw new IllegalArgumentException(
+                    "Unexpected power value: "
+                            + power
+                            + CONNECT
+                            + MECHANISM_NAME
+                            + ".characterize(). Valid values are numbers in the interval (0, 1]");
+        }
+        if (time <= 0) {
+            throw new IllegalArgumentException(
+                    "Unexpected time value: "
+                            + time
+                            + CONNECT
+                            + MECHANISM_NAME
+                            + ".characterize(). Valid values are numbers > 0");
+        }
+        if (!encoder) {
+            throw new IllegalStateException(
+                    MECHANISM_NAME
+                            + ".characterize() requires encoders. Enable "
+                            + MECHANISM_NAME
+                            + ".Builder().encoder()");
+        }
 
-        if (measurement <= 180) {
-            // pass-thru measurement when no trimming is needed
-            measurements = new double[1];
-            measurements[0] = measurement;
-        } else {
-            // split measurement into chunks <= 180 degrees
-            num = (int) (measurement / 180);
-            leftover = measurement % 180;
-            boolean isLeftover = false;
-            if (leftover >= 0.01) {
-                isLeftover = true;
-                num++;
-            }
-
-            // the gyro only measures from 0 to +-180 degrees, so 180 degree
-            // chunks are translated to 0 when the robot is at the +-180 degree
-            // point
-            measurements = new double[num];
-            for (int i = 0; i < num; i++) {
-                double relative = i % 2 == 0 ? 0 : 180;
-                if (i != num - 1 || !isLeftover) {
-                    measurements[i] = 180 - relative;
-                } else {
-                    measurements[i] = leftover - relative;
-                }
+        // apply raw power, so the fit sees the motors rather than the hub's velocity PID
+        setModesEx(DcMotor.RunMode.RUN_WITHOUT_ENCODER);
+        FeedforwardFit fit = new FeedforwardFit();
+        double[] movements = new double[count];
+        Arrays.fill(movements, 1);
+
+        // quasistatic ramp: acceleration stays small, so this mostly determines kS and kV
+        characterizePhase(fit, movements, power / time, power, time);
+        setRawPowers(0);
+        ElapsedTime coastTimer = new ElapsedTime();
+        while (opMode.opModeIsActive() && coastTimer.seconds() < COAST_TIME) {
+            opMode.idle();
+        }
+
+        // dynamic step: acceleration is large, which determines kA
+        characterizePhase(fit, movements, 0, power, time / 2);
+        setRawPowers(0);
+        setModesEx(velocityMode());
+
+        double[] constants = fit.solve();
+        if (constants == null || constants[1] <= 0) {
+            throw new IllegalStateException(
+                    "Unable to fit feedforward constants from "
+                            + fit.samples()
+                            + " samples in "
+                            + MECHANISM_NAME
+                            + ".characterize(). Make sure the mechanism can move, or increase power or time");
+        }
+        return new Feedforward(Math.max(constants[0], 0), constants[1], Math.max(constants[2], 0));
+    }
+
+    /**
+     * Helper function to run one characterization phase for time s, ramping power at rampRate per s
+     * (or stepping it, if 0) up to power, and adding a sample to fit each cycle the mechanism moves.
+     * Ends early if the positive limit is reached
+     */
+    private void characterizePhase(
+            FeedforwardFit fit, double[] movements, double rampRate, double power, double time) {
+        ElapsedTime phaseTimer = new ElapsedTime();
+        double lastTime = 0;
+        double lastVelocity = 0;
+        double lastApplied = 0;
+        while (opMode.opModeIsActive() && phaseTimer.seconds() < time) {
+            bulkRead.clear();
+            if (dir1 != dir2 && !limitsNotReached(1, movements)) {
+                break;
+            }
+            double now = phaseTimer.seconds();
+            double velocity = 0;
+            for (double motorVelocity : getCurrentVelocities()) {
+                velocity += motorVelocity / count;
             }
+
+            // this cycle's velocity is the response to the power applied last cycle
+            if (velocity > 0 && lastVelocity > 0 && now > lastTime) {
+                double acceleration = (velocity - lastVelocity) / (now - lastTime);
+                fit.add(velocity, acceleration, lastApplied * getVoltage());
+            }
+
+            lastApplied = rampRate > 0 ? Math.min(rampRate * now, power) : power;
+            setRawPowers(lastApplied);
+            lastTime = now;
+            lastVelocity = velocity;
+            opMode.idle();
         }
+    }
 
-        return measurements;
+    /** Helper function to set all extended motors to power, bypassing feedforward */
+    private void setRawPowers(double power) {
+        for (int i = 0; i < count; i++) {
+            if (outputUnchanged(i, power, 0)) {
+                skippedWrites++;
+                continue;
+            }
+            motorsEx[i].setPower(power);
+            metrics.record(Metrics.Transaction.SET_POWER);
+            lastOutputs[i] = power;
+        }
     }
 
     /** Determines whether positional limits have not yet been reached */
@@ -514,7 +844,15 @@ abstract class MotorMechanism<E> extends Mechanism {
     protected void setPositions(int[] positions, int[] currentPositions) {
         // set target-position (relative + current = desired)
         for (int i = 0; i < count; i++) {
-            motorsEx[i].setTargetPosition(positions[i] + currentPositions[i]);
+            int target = positions[i] + currentPositions[i];
+            if (targetsWritten[i] && lastTargets[i] == target) {
+                skippedWrites++;
+            } else {
+                motorsEx[i].setTargetPosition(target);
+                metrics.record(Metrics.Transaction.SET_TARGET_POSITION);
+                lastTargets[i] = target;
+                targetsWritten[i] = true;
+            }
         }
 
         // Set motors to run using the encoder (position, not velocity)
@@ -523,38 +861,153 @@ abstract class MotorMechanism<E> extends Mechanism {
 
     /** Sets all extended motors to the specified mode */
     protected void setModesEx(DcMotor.RunMode runMode) {
-        for (DcMotorEx motorEx : motorsEx) {
-            motorEx.setMode(runMode);
+        for (int i = 0; i < count; i++) {
+            setMode(motorsEx[i], i, runMode);
         }
     }
 
     /** Sets all basic motors to the specified mode */
     protected void setModes() {
-        for (DcMotor motor : motors) {
-            motor.setMode(DcMotor.RunMode.RUN_WITHOUT_ENCODER);
+        for (int i = 0; i < count; i++) {
+            setMode(motors[i], i, DcMotor.RunMode.RUN_WITHOUT_ENCODER);
+        }
+    }
+
+    /** Helper function to set a motor's mode, skipping the write if it's already in that mode */
+    private void setMode(DcMotor motor, int i, DcMotor.RunMode runMode) {
+        if (lastModes[i] == runMode) {
+            skippedWrites++;
+            return;
         }
+        motor.setMode(runMode);
+        metrics.record(Metrics.Transaction.SET_MODE);
+        lastModes[i] = runMode;
+
+        // the hub may reset the output and target on a mode change, so write the next ones
+        lastOutputs[i] = Double.NaN;
+        targetsWritten[i] = false;
     }
 
     /** Helper function to set all motor powers to received values */
     protected void setPowers(double[] movements) {
-        if (encoder && (diameter != 0.0)) {
-            for (int i = 0; i < count; i++) {
-                motorsEx[i].setPower(movements[i]);
+        for (int i = 0; i < count; i++) {
+            // feedforward controls velocity itself, except when the hub is running to a position
+            if (feedforward != null && lastModes[i] != DcMotor.RunMode.RUN_TO_POSITION) {
+                setFeedforwardPower(i, movements[i] * velocityMultiplier, 0);
+                continue;
             }
-        } else if (encoder) {
-            for (int i = 0; i < count; i++) {
-                motorsEx[i].setVelocity(movements[i] * velocityMultiplier);
+            if (outputUnchanged(i, movements[i], epsilon)) {
+                skippedWrites++;
+                continue;
             }
-        } else {
-            for (int i = 0; i < count; i++) {
+            if (encoder && (diameter != 0.0)) {
+                motorsEx[i].setPower(movements[i]);
+                metrics.record(Metrics.Transaction.SET_POWER);
+            } else if (encoder) {
+                motorsEx[i].setVelocity(movements[i] * velocityMultiplier);
+                metrics.record(Metrics.Transaction.SET_VELOCITY);
+            } else {
                 motors[i].setPower(movements[i]);
+                metrics.record(Metrics.Transaction.SET_POWER);
+            }
+            lastOutputs[i] = movements[i];
+        }
+    }
+
+    /**
+     * Helper function to set all extended motor velocities to received values in ticks/s, limited
+     * to what the motors can achieve
+     */
+    protected void setVelocities(double[] velocities) {
+        setVelocities(velocities, zeros);
+    }
+
+    /**
+     * Helper function to set all extended motor velocities to received values in ticks/s, along
+     * with the accelerations (ticks/s^2) used by feedforward
+     */
+    protected void setVelocities(double[] velocities, double[] accelerations) {
+        for (int i = 0; i < count; i++) {
+            double velocity = velocities[i];
+            if (velocityMultiplier > 0) {
+                velocity = Math.max(-velocityMultiplier, Math.min(velocityMultiplier, velocity));
+            }
+            if (feedforward != null) {
+                setFeedforwardPower(i, velocity, accelerations[i]);
+                continue;
+            }
+            // epsilon is a fraction of power, so compare velocities as a fraction of their maximum
+            if (outputUnchanged(i, velocity, epsilon * velocityMultiplier)) {
+                skippedWrites++;
+                continue;
             }
+            motorsEx[i].setVelocity(velocity);
+            metrics.record(Metrics.Transaction.SET_VELOCITY);
+            lastOutputs[i] = velocity;
+        }
+    }
+
+    /**
+     * Helper function to drive motor i at velocity (ticks/s) and acceleration (ticks/s^2) with
+     * feedforward, plus feedback on the measured velocity (feedbackGain times kV per tick/s of
+     * error). Volts are scaled by the battery voltage, so the result doesn't depend on its charge
+     */
+    private void setFeedforwardPower(int i, double velocity, double acceleration) {
+        double power = 0;
+        if (velocity != 0.0) {
+            double error = velocity - getCurrentVelocities()[i];
+            double volts =
+                    feedforward.calculate(velocity, acceleration)
+                            + feedbackGain * feedforward.getKV() * error;
+            power = Math.max(-1, Math.min(1, volts / getVoltage()));
+        }
+        if (outputUnchanged(i, power, epsilon)) {
+            skippedWrites++;
+            return;
+        }
+        motorsEx[i].setPower(power);
+        metrics.record(Metrics.Transaction.SET_POWER);
+        lastOutputs[i] = power;
+    }
+
+    /** Return the battery voltage, read at most every VOLTAGE_PERIOD s */
+    private double getVoltage() {
+        if (voltageSensor != null && voltageTimer.seconds() >= VOLTAGE_PERIOD) {
+            double reading = voltageSensor.getVoltage();
+            if (reading > 0) {
+                voltage = reading;
+            }
+            voltageTimer.reset();
+        }
+        return voltage;
+    }
+
+    /** Return the mode that velocity is controlled in: by feedforward, or by the hub's PID */
+    private DcMotor.RunMode velocityMode() {
+        return feedforward != null
+                ? DcMotor.RunMode.RUN_WITHOUT_ENCODER
+                : DcMotor.RunMode.RUN_USING_ENCODER;
+    }
+
+    /**
+     * Whether movement is within tolerance of the last one written to motor i. Stopping is always
+     * written unless the motor is already stopped
+     */
+    private boolean outputUnchanged(int i, double movement, double tolerance) {
+        double last = lastOutputs[i];
+        if (movement == 0.0) {
+            return last == 0.0;
         }
+        return Math.abs(movement - last) <= tolerance;
+    }
+
+    /** Return the number of motor writes skipped because the value hadn't changed */
+    public long getSkippedWrites() {
+        return skippedWrites;
     }
 
     /** Helper function to set all motor powers to zero */
     protected void setPowers() {
-        double[] zeros = new double[count];
         setPowers(zeros);
     }
 
@@ -563,9 +1016,7 @@ abstract class MotorMechanism<E> extends Mechanism {
         if (multiplier == 1.0) {
             setPowers(movements);
         } else {
-            double[] scaledMovements =
-                    scaleDirections(movements, Math.min(Math.abs(multiplier), 1));
-            setPowers(scaledMovements);
+            setPowers(scaleDirections(movements, Math.min(Math.abs(multiplier), 1)));
         }
     }
 
@@ -622,14 +1073,18 @@ abstract class MotorMechanism<E> extends Mechanism {
 
     /** Wrapper around setZeroPowerBehavior for all motors */
     protected void setBehaviors(DcMotor.ZeroPowerBehavior behavior) {
-        if (encoder) {
-            for (DcMotorEx motorEx : motorsEx) {
-                motorEx.setZeroPowerBehavior(behavior);
+        for (int i = 0; i < count; i++) {
+            if (lastBehaviors[i] == behavior) {
+                skippedWrites++;
+                continue;
             }
-        } else {
-            for (DcMotor motor : motors) {
-                motor.setZeroPowerBehavior(behavior);
+            if (encoder) {
+                motorsEx[i].setZeroPowerBehavior(behavior);
+            } else {
+                motors[i].setZeroPowerBehavior(behavior);
             }
+            metrics.record(Metrics.Transaction.SET_BEHAVIOR);
+            lastBehaviors[i] = behavior;
         }
     }
 
@@ -660,23 +1115,19 @@ abstract class MotorMechanism<E> extends Mechanism {
 
     /** Wrapper around isBusy to see if any motors are busy (when they're supposed to be) */
     protected boolean motorsAreBusy(double[] movements) {
-        boolean isBusy = false;
-        for (int i = 0; i < count; i++) {
-            if (motorsEx[i].isBusy() && Math.abs(movements[i]) > 0.01) {
-                isBusy = true;
+        if (!bulkRead.isCurrent(busyCycle)) {
+            for (int i = 0; i < count; i++) {
+                busySnapshot[i] = motorsEx[i].isBusy();
+                metrics.record(Metrics.Transaction.IS_BUSY);
             }
+            busyCycle = bulkRead.cycle();
         }
-        return isBusy && opMode.opModeIsActive();
-    }
 
-    /** Helper to identify whether the movement angle has been reached */
-    protected boolean gyroIsBusy(double measurement) {
         boolean isBusy = false;
-        if (Math.abs(
-                        Math.abs(imu.getRobotYawPitchRollAngles().getYaw(AngleUnit.DEGREES))
-                                - Math.abs(measurement))
-                > 1) {
-            isBusy = true;
+        for (int i = 0; i < count; i++) {
+            if (busySnapshot[i] && Math.abs(movements[i]) > 0.01) {
+                isBusy = true;
+            }
         }
         return isBusy && opMode.opModeIsActive();
     }
@@ -699,13 +1150,34 @@ abstract class MotorMechanism<E> extends Mechanism {
         return min(ticksPerRevArr);
     }
 
-    /** Wrapper around getCurrentPosition to return it for all motors */
+    /**
+     * Wrapper around getCurrentPosition to return it for all motors, read at most once per
+     * bulk-read cycle. The returned snapshot is overwritten by the next read, so don't hold onto it
+     */
     protected int[] getCurrentPositions() {
-        int[] currentPositions = new int[count];
-        for (int i = 0; i < count; i++) {
-            currentPositions[i] = motorsEx[i].getCurrentPosition();
+        if (!bulkRead.isCurrent(positionsCycle)) {
+            for (int i = 0; i < count; i++) {
+                positionsSnapshot[i] = motorsEx[i].getCurrentPosition();
+                metrics.record(Metrics.Transaction.GET_CURRENT_POSITION);
+            }
+            positionsCycle = bulkRead.cycle();
         }
-        return currentPositions;
+        return positionsSnapshot;
+    }
+
+    /**
+     * Wrapper around getVelocity to return it for all motors in ticks/s, read at most once per
+     * bulk-read cycle. The returned snapshot is overwritten by the next read, so don't hold onto it
+     */
+    protected double[] getCurrentVelocities() {
+        if (!bulkRead.isCurrent(velocitiesCycle)) {
+            for (int i = 0; i < count; i++) {
+                velocitiesSnapshot[i] = motorsEx[i].getVelocity();
+                metrics.record(Metrics.Transaction.GET_VELOCITY);
+            }
+            velocitiesCycle = bulkRead.cycle();
+        }
+        return velocitiesSnapshot;
     }
 
     /** Maps controller value from [-1,-deadzone] U [deadzone,1] -> [-1,1] */
@@ -726,13 +1198,15 @@ abstract class MotorMechanism<E> extends Mechanism {
         return mappedValue;
     }
 
-    /** Scale directions by a factor of power to derive actual, intended motor movements */
+    /**
+     * Scale directions by a factor of power to derive actual, intended motor movements. The
+     * returned buffer is reused by the next call, so don't hold onto it
+     */
     protected double[] scaleDirections(double[] motorDirections, double power) {
-        double[] movements = new double[count];
         for (int i = 0; i < count; i++) {
-            movements[i] = power * motorDirections[i];
+            scaledMovements[i] = power * motorDirections[i];
         }
-        return movements;
+        return scaledMovements;
     }
 
     /** Calculate positions based on distance, diameter, distanceMultiplier, movements */
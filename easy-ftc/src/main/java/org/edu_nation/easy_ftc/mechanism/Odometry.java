@@ -0,0 +1,139 @@
+// SPDX-FileCopyrightText: Collegiate Edu-Nation
+// SPDX-License-Identifier: GPL-3.0-or-later
+
+package org.edu_nation.easy_ftc.mechanism;
+
+/**
+ * Pose estimator owned by a {@link Drive}. Each update turns the change in wheel encoder positions
+ * into a robot-relative displacement (DIFFERENTIAL or MECANUM kinematics), takes the change in
+ * heading from the IMU, and integrates both onto the field-relative pose along a constant-curvature
+ * arc. Updates are O(1) and don't allocate
+ */
+final class Odometry {
+    private final Drive.Type type;
+    private final int count;
+    private final int[] lastPositions;
+    private final double[] wheels;
+    private final Pose pose = new Pose();
+    private final Pose velocity = new Pose();
+    private double lastHeading;
+    private boolean started;
+
+    /** Constructor */
+    Odometry(Drive.Type type, int count) {
+        this.type = type;
+        this.count = count;
+        this.lastPositions = new int[count];
+        this.wheels = new double[count];
+    }
+
+    /**
+     * Move the pose to x, y, heading (radians). The next update only records the encoders and
+     * heading it's measured from
+     */
+    void reset(double x, double y, double heading) {
+        pose.set(x, y, heading);
+        started = false;
+    }
+
+    /**
+     * Integrate the motion since the last update, given encoder positions in ticks, the IMU's
+     * continuous heading in radians, and the distance travelled per tick
+     */
+    void update(int[] positions, double imuHeading, double unitsPerTick) {
+        if (!started) {
+            resync(positions, imuHeading);
+            started = true;
+            return;
+        }
+        for (int i = 0; i < count; i++) {
+            wheels[i] = (positions[i] - lastPositions[i]) * unitsPerTick;
+        }
+        double forward = forward();
+        double left = left();
+        double turned = imuHeading - lastHeading;
+        resync(positions, imuHeading);
+
+        // integrate along an arc rather than a straight line, so the estimate doesn't drift when
+        // driving and turning at the same time (sin(x)/x and (1 - cos(x))/x, by series near 0)
+        double sinTerm;
+        double cosTerm;
+        if (Math.abs(turned) < 1e-6) {
+            sinTerm = 1 - turned * turned / 6;
+            cosTerm = turned / 2;
+        } else {
+            sinTerm = Math.sin(turned) / turned;
+            cosTerm = (1 - Math.cos(turned)) / turned;
+        }
+        double arcForward = sinTerm * forward - cosTerm * left;
+        double arcLeft = cosTerm * forward + sinTerm * left;
+
+        double heading = pose.getHeading();
+        double cos = Math.cos(heading);
+        double sin = Math.sin(heading);
+        pose.set(
+                pose.getX() + arcForward * cos - arcLeft * sin,
+                pose.getY() + arcForward * sin + arcLeft * cos,
+                heading + turned);
+    }
+
+    /**
+     * Rebase the next update on the IMU's heading (radians) without moving the pose, e.g. after its
+     * yaw has been reset
+     */
+    void resync(double imuHeading) {
+        lastHeading = imuHeading;
+    }
+
+    /**
+     * Compute the field-relative velocity, given encoder velocities in ticks/s, the IMU's angular
+     * rate in radians/s, and the distance travelled per tick
+     */
+    void updateVelocity(double[] velocities, double rate, double unitsPerTick) {
+        for (int i = 0; i < count; i++) {
+            wheels[i] = velocities[i] * unitsPerTick;
+        }
+        double forward = forward();
+        double left = left();
+        double cos = Math.cos(pose.getHeading());
+        double sin = Math.sin(pose.getHeading());
+        velocity.set(forward * cos - left * sin, forward * sin + left * cos, rate);
+    }
+
+    /** Return the pose from the last update. It's overwritten by the next one */
+    Pose getPose() {
+        return pose;
+    }
+
+    /** Return the velocity from the last update. It's overwritten by the next one */
+    Pose getVelocity() {
+        return velocity;
+    }
+
+    /** Record the encoder positions and heading that the next update is measured from */
+    private void resync(int[] positions, double imuHeading) {
+        System.arraycopy(positions, 0, lastPositions, 0, count);
+        lastHeading = imuHeading;
+    }
+
+    /** Return the robot's forward travel from the wheel travel */
+    private double forward() {
+        double sum = 0;
+        for (int i = 0; i < count; i++) {
+            sum += wheels[i];
+        }
+        return sum / count;
+    }
+
+    /**
+     * Return the robot's leftward travel from the wheel travel, inverting the mecanum formulas in
+     * {@link Drive} (differential drives can't strafe)
+     */
+    private double left() {
+        if (type != Drive.Type.MECANUM) {
+            return 0;
+        }
+        // frontLeft and backRight roll right with lateral, frontRight and backLeft roll left
+        return -(wheels[0] - wheels[1] - wheels[2] + wheels[3]) / 4;
+    }
+}
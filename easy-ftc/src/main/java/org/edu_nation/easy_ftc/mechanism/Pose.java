@@ -0,0 +1,88 @@
+// SPDX-FileCopyrightText: Collegiate Edu-Nation
+// SPDX-License-Identifier: GPL-3.0-or-later
+
+package org.edu_nation.easy_ftc.mechanism;
+
+import org.firstinspires.ftc.robotcore.external.navigation.AngleUnit;
+
+/**
+ * Position and heading of a robot on the field, as estimated by {@link Drive#getPose()}. x is
+ * forward and y is left of where the robot started (in the same units as the drive's diameter), and
+ * heading is counterclockwise from x. Heading is continuous, so it counts full turns rather than
+ * wrapping at +-180 degrees
+ *
+ * <p>Also used for velocities, as returned by {@link Drive#getVelocity()}: units/s and heading/s
+ */
+public final class Pose {
+    private double x;
+    private double y;
+    private double heading;
+
+    /**
+     * Pose constructor
+     *
+     * @param x position forward of the origin
+     * @param y position left of the origin
+     * @param heading angle counterclockwise from x
+     * @param unit AngleUnit to use for the heading (one of: DEGREES, RADIANS)
+     * @throws NullPointerException if unit is null
+     */
+    public Pose(double x, double y, double heading, AngleUnit unit) {
+        if (unit == null) {
+            throw new NullPointerException("Null unit passed to Pose()");
+        }
+        set(x, y, unit.toRadians(heading));
+    }
+
+    /** Constructor for a pose at the origin */
+    Pose() {}
+
+    /**
+     * Return the position forward of the origin
+     *
+     * @return x
+     */
+    public double getX() {
+        return x;
+    }
+
+    /**
+     * Return the position left of the origin
+     *
+     * @return y
+     */
+    public double getY() {
+        return y;
+    }
+
+    /**
+     * Return the angle counterclockwise from x
+     *
+     * @param unit AngleUnit to return the heading in (one of: DEGREES, RADIANS)
+     * @return heading
+     * @throws NullPointerException if unit is null
+     */
+    public double getHeading(AngleUnit unit) {
+        if (unit == null) {
+            throw new NullPointerException("Null unit passed to Pose.getHeading()");
+        }
+        return unit.fromRadians(heading);
+    }
+
+    /** Return the heading in radians */
+    double getHeading() {
+        return heading;
+    }
+
+    /** Overwrite the pose, with heading in radians */
+    void set(double x, double y, double heading) {
+        this.x = x;
+        this.y = y;
+        this.heading = heading;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("(%.2f, %.2f, %.1f deg)", x, y, Math.toDegrees(heading));
+    }
+}
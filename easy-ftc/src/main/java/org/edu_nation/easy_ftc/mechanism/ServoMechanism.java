@@ -6,6 +6,7 @@ package org.edu_nation.easy_ftc.mechanism;
 import com.qualcomm.robotcore.eventloop.opmode.LinearOpMode;
 import com.qualcomm.robotcore.hardware.HardwareMap;
 import com.qualcomm.robotcore.hardware.Servo;
+import com.qualcomm.robotcore.util.ElapsedTime;
 import java.util.Objects;
 
 /**
@@ -14,10 +15,19 @@ import java.util.Objects;
  */
 abstract class ServoMechanism<E> extends Mechanism {
     protected Servo[] servos;
+    protected double[] positions;
     protected boolean smooth;
     protected double increment;
     protected double incrementDelay;
     protected double delay;
+    protected double travelTime;
+    protected double settleTime;
+    private final ElapsedTime travelTimer = new ElapsedTime();
+    private double finish;
+    private final ElapsedTime slewTimer = new ElapsedTime();
+    private double lastSlew = Double.NaN;
+    private long writes;
+    private static final double MAX_SLEW_GAP = 0.1;
 
     /** Constructor */
     protected ServoMechanism(Builder<?> builder) {
@@ -26,6 +36,8 @@ abstract class ServoMechanism<E> extends Mechanism {
         this.increment = builder.increment;
         this.incrementDelay = builder.incrementDelay;
         this.delay = builder.delay;
+        this.travelTime = builder.travelTime;
+        this.settleTime = builder.settleTime;
     }
 
     public abstract static class Builder<T extends Builder<T>> extends Mechanism.Builder<T> {
@@ -33,13 +45,16 @@ abstract class ServoMechanism<E> extends Mechanism {
         protected double increment = 0.0;
         protected double incrementDelay = 0.0;
         private double delay = 2;
+        protected double travelTime = 0.0;
+        protected double settleTime = 0.0;
 
         protected Builder(LinearOpMode opMode, HardwareMap hardwareMap) {
             super(opMode, hardwareMap);
         }
 
         /**
-         * Whether to enable smooth-servo control
+         * Whether to enable smooth-servo control, which limits servo speed to increment per
+         * incrementDelay without ever blocking
          *
          * @return builder instance
          */
@@ -54,7 +69,7 @@ abstract class ServoMechanism<E> extends Mechanism {
         /**
          * Specify the increment to move by for smooth-servo control
          *
-         * @param increment portion of total range-of-motion moved in each iteration
+         * @param increment portion of total range-of-motion moved in each incrementDelay
          * @return builder instance
          * @throws IllegalArgumentException if increment is not in the interval (0, 1]
          */
@@ -72,7 +87,7 @@ abstract class ServoMechanism<E> extends Mechanism {
         /**
          * Specify the increment delay for smooth-servo control
          *
-         * @param incrementDelay the time (in s) to wait between each increment
+         * @param incrementDelay the time (in s) taken to move each increment
          * @return builder instance
          * @throws IllegalArgumentException if incrementDelay &lt;= 0
          */
@@ -105,6 +120,34 @@ abstract class ServoMechanism<E> extends Mechanism {
             return self();
         }
 
+        /**
+         * Specify the servo speed for normal servo control, so movements wait in proportion to how
+         * far they go rather than for delay
+         *
+         * @param travelTime the time (in s) the servos take to move their full range-of-motion
+         * @param settleTime the time (in s) to wait after moving for the servos to settle
+         * @return builder instance
+         * @throws IllegalArgumentException if travelTime &lt;= 0
+         * @throws IllegalArgumentException if settleTime &lt; 0
+         */
+        public T travelTime(double travelTime, double settleTime) {
+            if (travelTime <= 0) {
+                throw new IllegalArgumentException(
+                        "Unexpected travelTime value: "
+                                + travelTime
+                                + ", passed to ServoMechanism.Builder().travelTime(). Valid values are numbers > 0");
+            }
+            if (settleTime < 0) {
+                throw new IllegalArgumentException(
+                        "Unexpected settleTime value: "
+                                + settleTime
+                                + ", passed to ServoMechanism.Builder().travelTime(). Valid values are numbers >= 0");
+            }
+            this.travelTime = travelTime;
+            this.settleTime = settleTime;
+            return self();
+        }
+
         public abstract T names(String[] names);
 
         abstract ServoMechanism<?> build();
@@ -114,6 +157,8 @@ abstract class ServoMechanism<E> extends Mechanism {
 
     public abstract void command(E direction);
 
+    public abstract Motion commandAsync(E direction);
+
     /** Reverse the direction of the specified servo */
     @Override
     protected void reverse(String deviceName) {
@@ -152,8 +197,10 @@ abstract class ServoMechanism<E> extends Mechanism {
     protected void init() {
         // Instantiate servos
         servos = new Servo[count];
+        positions = new double[count];
         for (int i = 0; i < count; i++) {
             servos[i] = hardwareMap.get(Servo.class, names[i]);
+            positions[i] = Double.NaN;
         }
 
         // reverse direction of left servo for convenience
@@ -166,39 +213,147 @@ abstract class ServoMechanism<E> extends Mechanism {
     }
 
     /**
-     * Wrapper around setPositions that enables smooth servo control. Concept from:
+     * Wrapper around setPositions that enables smooth servo control, moving toward movement by as
+     * far as the slew rate allows in the time since the last call. Never waits, so it can be called
+     * every loop. Concept from:
      * https://github.com/OpenFTC/Extracted-RC/blob/ef28faaa763eb00edb200f21e9df72ac12f63cf8/Blocks/src/main/assets/blocks/samples/ConceptSmoothServo.blk
      */
-    protected double setPositionsByIncrement(double position, double movement) {
-        double signedIncrement = (movement > position) ? increment : -increment;
+    protected double setPositionsBySlew(double position, double movement) {
+        double now = slewTimer.time();
+        double elapsed = Double.isNaN(lastSlew) ? incrementDelay : now - lastSlew;
+        lastSlew = now;
+        position = slewPosition(position, movement, elapsed);
+        setPositions(position);
+        return position;
+    }
 
-        // base case - set position = movement when adding increment won't do so
-        if (Math.abs(movement - position) < increment) {
+    /**
+     * Return position moved toward movement at increment per incrementDelay for elapsed s. Long
+     * gaps between calls (e.g. while control() wasn't being called) count as MAX_SLEW_GAP, or one
+     * incrementDelay if that's longer, so the servos don't jump
+     */
+    private double slewPosition(double position, double movement, double elapsed) {
+        double rate = increment / incrementDelay;
+        double step = rate * Math.min(elapsed, Math.max(incrementDelay, MAX_SLEW_GAP));
+        if (Math.abs(movement - position) <= step) {
             position = movement;
         } else {
-            position += (movement == position) ? 0 : signedIncrement;
+            position += Math.signum(movement - position) * step;
         }
-        position = Math.min(Math.max(position, 0), 1);
+        return Math.min(Math.max(position, 0), 1);
+    }
 
-        setPositions(position);
-        wait(incrementDelay);
-        return position;
+    /**
+     * Return the estimated time until normal servo movement reaches the commanded position
+     *
+     * @return time remaining in s, or 0 once the servos are estimated to be there
+     */
+    public double getTimeRemaining() {
+        return Math.max(finish - travelTimer.time(), 0);
+    }
+
+    /**
+     * Starts moving the servos to movement without blocking, smoothly if applicable. Normal
+     * movements are written immediately and given their travel time (or delay) to complete
+     */
+    protected Motion moveToPositionAsync(double movement) {
+        if (smooth) {
+            return new ServoMotion(getPosition(), movement, 0);
+        }
+        double duration = travelDuration(movement);
+        setPositions(movement);
+        finish = travelTimer.time() + duration;
+        return new ServoMotion(movement, movement, duration);
     }
 
     /**
-     * Wrapper around setPositionsByIncrement that enables smooth servo movement until the desired
-     * position is reached. The loop causes thread blocking, so it's not used for control() calls
+     * Return how long normal servo movement to movement takes: the rest of any movement in
+     * progress, the distance from the commanded position at travelTime per full range, and
+     * settleTime. A servo that's never been commanded is assumed to travel its full range
      */
-    protected void setPositionsByIncrementUntilComplete(double position, double movement) {
-        while (opMode.opModeIsActive() && (position != movement)) {
-            position = setPositionsByIncrement(position, movement);
+    private double travelDuration(double movement) {
+        if (travelTime == 0) {
+            return delay;
         }
+        double position = getPosition();
+        double distance = Double.isNaN(position) ? 1 : Math.abs(movement - position);
+        return getTimeRemaining() + distance * travelTime + settleTime;
     }
 
-    /** Wrapper around setPosition for all servos */
+    /**
+     * Non-blocking servo movement that ends once smooth movement has reached its position, or once
+     * duration has passed for normal movement
+     */
+    private class ServoMotion extends Motion {
+        private final double movement;
+        private final double duration;
+        private final ElapsedTime motionTimer = new ElapsedTime();
+        private double position;
+        private boolean started;
+
+        private ServoMotion(double position, double movement, double duration) {
+            this.position = position;
+            this.movement = movement;
+            this.duration = duration;
+        }
+
+        @Override
+        boolean step() {
+            if (!opMode.opModeIsActive()) {
+                return false;
+            }
+            if (!smooth) {
+                return motionTimer.time() < duration;
+            }
+
+            // take the first increment right away, then slew by the time between updates
+            double elapsed = started ? motionTimer.time() : incrementDelay;
+            motionTimer.reset();
+            started = true;
+            position = slewPosition(position, movement, elapsed);
+            setPositions(position);
+            return position != movement;
+        }
+
+        @Override
+        void stop() {
+            // servos hold their last position
+        }
+    }
+
+    /**
+     * Return the number of servo position writes, i.e. those not skipped for matching the
+     * commanded position
+     *
+     * @return number of writes
+     */
+    public long getWriteCount() {
+        return writes;
+    }
+
+    /**
+     * Return the commanded position of the first servo, only reading it from the hub until a
+     * position has been commanded
+     */
+    protected double getPosition() {
+        if (Double.isNaN(positions[0])) {
+            metrics.record(Metrics.Transaction.GET_POSITION);
+            return servos[0].getPosition();
+        }
+        return positions[0];
+    }
+
+    /**
+     * Wrapper around setPosition for all servos, skipping servos already commanded to movement
+     */
     protected void setPositions(double movement) {
-        for (Servo servo : servos) {
-            servo.setPosition(movement);
+        for (int i = 0; i < count; i++) {
+            if (positions[i] != movement) {
+                servos[i].setPosition(movement);
+                metrics.record(Metrics.Transaction.SET_POSITION);
+                positions[i] = movement;
+                writes++;
+            }
         }
     }
 
@@ -6,6 +6,7 @@ package org.edu_nation.easy_ftc.mechanism;
 import com.qualcomm.robotcore.eventloop.opmode.LinearOpMode;
 import com.qualcomm.robotcore.hardware.Gamepad;
 import com.qualcomm.robotcore.hardware.HardwareMap;
+import org.edu_nation.easy_ftc.mechanism.GamepadState.Button;
 
 /**
  * Implements a trigger by extending the functionality of {@link ServoMechanism}
@@ -43,10 +44,12 @@ public class Trigger extends ServoMechanism<Trigger.Direction> {
      *   <li>reverse = false
      *   <li>reverseDevices = {}
      *   <li>gamepad = null
+     *   <li>metrics = false
      *   <li>smooth = false
      *   <li>increment = 0.02
      *   <li>incrementDelay = 0.02
      *   <li>delay = 2
+     *   <li>travelTime = 0.0, 0.0 (disabled)
      *   <li>count = 1
      *   <li>names = {"trigger"}
      *   <li>open = 1.0
@@ -102,6 +105,11 @@ public class Trigger extends ServoMechanism<Trigger.Direction> {
             return super.gamepad(gamepad);
         }
 
+        @Override
+        public Builder metrics() {
+            return super.metrics();
+        }
+
         // methods inherited from ServoMechanism.Builder
         @Override
         public Builder smooth() {
@@ -132,6 +140,14 @@ public class Trigger extends ServoMechanism<Trigger.Direction> {
             return super.delay(delay);
         }
 
+        /**
+         * @throws IllegalArgumentException {@inheritDoc}
+         */
+        @Override
+        public Builder travelTime(double travelTime, double settleTime) {
+            return super.travelTime(travelTime, settleTime);
+        }
+
         // trigger-specific methods
         /**
          * Specify the number of servos
@@ -212,6 +228,7 @@ public class Trigger extends ServoMechanism<Trigger.Direction> {
          * @throws IllegalStateException if count != names.length
          * @throws IllegalStateException if smooth = false and one of: increment, incrementDelay has
          *     been set
+         * @throws IllegalStateException if smooth = true and travelTime has been set
          * @throws IllegalStateException if open &lt;= close
          */
         @Override
@@ -224,6 +241,10 @@ public class Trigger extends ServoMechanism<Trigger.Direction> {
                 throw new IllegalStateException(
                         "One of: Trigger.Builder().increment() or Trigger.Builder().incrementDelay() has been set without enabling Trigger.Builder().smooth(). Enable Trigger.Builder().smooth() for intended functionality");
             }
+            if (this.smooth && this.travelTime != 0) {
+                throw new IllegalStateException(
+                        "Trigger.Builder().travelTime() has been set with Trigger.Builder().smooth() enabled. Smooth-servo control moves at increment per incrementDelay instead");
+            }
             if (this.open <= this.close) {
                 throw new IllegalStateException(
                         "Unexpected open and close values: "
@@ -255,12 +276,19 @@ public class Trigger extends ServoMechanism<Trigger.Direction> {
     /** Enable teleoperated trigger movement with gamepad (y, x) */
     @Override
     public void control() {
-        double position = servos[0].getPosition();
-        double movement = controlToDirection(position, gamepad.y, gamepad.x);
-        if (smooth) {
-            setPositionsByIncrement(position, movement);
-        } else {
-            setPositions(movement);
+        long start = metrics.start(Metrics.Call.CONTROL);
+        try {
+            double position = getPosition();
+            GamepadState input = input();
+            double movement =
+                    controlToDirection(position, input.isDown(Button.Y), input.isDown(Button.X));
+            if (smooth) {
+                setPositionsBySlew(position, movement);
+            } else {
+                setPositions(movement);
+            }
+        } finally {
+            metrics.stop(Metrics.Call.CONTROL, start);
         }
     }
 
@@ -273,16 +301,28 @@ public class Trigger extends ServoMechanism<Trigger.Direction> {
      */
     @Override
     public void command(Direction direction) {
-        double servoDirection = languageToDirection(direction);
-        if (smooth) {
-            double position = servos[0].getPosition();
-            setPositionsByIncrementUntilComplete(position, servoDirection);
-        } else {
-            setPositions(servoDirection);
-            wait(delay);
+        long start = metrics.start(Metrics.Call.COMMAND);
+        try {
+            await(commandAsync(direction));
+        } finally {
+            metrics.stop(Metrics.Call.COMMAND, start);
         }
     }
 
+    /**
+     * Initiate an automated trigger movement without blocking; advance it with {@link
+     * Motion#update()} until {@link Motion#isDone()}
+     *
+     * @param direction direction to move the mechanism; see {@link Direction} for accepted values
+     * @return handle to the started movement
+     * @throws NullPointerException if direction is null
+     * @throws IllegalArgumentException if direction is an unexpected value
+     */
+    @Override
+    public Motion commandAsync(Direction direction) {
+        return moveToPositionAsync(languageToDirection(direction));
+    }
+
     /** Set servo movement based on open, close values and current position */
     protected double controlToDirection(double current, boolean openButton, boolean closeButton) {
         double movement;
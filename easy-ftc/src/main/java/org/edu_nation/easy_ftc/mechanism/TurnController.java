@@ -0,0 +1,78 @@
+// SPDX-FileCopyrightText: Collegiate Edu-Nation
+// SPDX-License-Identifier: GPL-3.0-or-later
+
+package org.edu_nation.easy_ftc.mechanism;
+
+/**
+ * PID controller for gyro turns. Works on a continuous (unwrapped) heading in degrees, so turns of
+ * any size are a single setpoint; output is clamped to the commanded power, and the turn is settled
+ * once both the heading error and the angular rate are within tolerance
+ */
+final class TurnController {
+    private final double kP;
+    private final double kI;
+    private final double kD;
+    private final double tolerance;
+    private final double rateTolerance;
+    private double target;
+    private double maxOutput;
+    private double integral;
+    private double error = Double.POSITIVE_INFINITY;
+    private double rate;
+
+    /** Constructor */
+    TurnController(double kP, double kI, double kD, double tolerance, double rateTolerance) {
+        this.kP = kP;
+        this.kI = kI;
+        this.kD = kD;
+        this.tolerance = tolerance;
+        this.rateTolerance = rateTolerance;
+    }
+
+    /** Start a new turn to target degrees, with output limited to +-maxOutput */
+    void reset(double target, double maxOutput) {
+        this.target = target;
+        this.maxOutput = maxOutput;
+        this.integral = 0;
+        this.error = Double.POSITIVE_INFINITY;
+        this.rate = 0;
+    }
+
+    /**
+     * Return the output for the current heading (degrees) and rate (degrees/s), dt s after the last
+     * update. Positive output turns counterclockwise (toward increasing heading)
+     */
+    double update(double heading, double rate, double dt) {
+        this.error = target - heading;
+        this.rate = rate;
+
+        // derivative on measurement, so a new target doesn't kick the output
+        double proportional = kP * error - kD * rate;
+
+        // conditional integration: only accumulate while the output isn't saturated, or while the
+        // error is pulling it back out of saturation, to prevent windup during the fast part of
+        // the turn
+        double candidate = integral + error * dt;
+        double unclamped = proportional + kI * candidate;
+        if (Math.abs(unclamped) < maxOutput || Math.signum(error) != Math.signum(unclamped)) {
+            integral = candidate;
+        }
+
+        return clamp(proportional + kI * integral);
+    }
+
+    /** Whether both the last error and rate are within tolerance */
+    boolean isSettled() {
+        return Math.abs(error) <= tolerance && Math.abs(rate) <= rateTolerance;
+    }
+
+    /** Return the last heading error in degrees */
+    double getError() {
+        return error;
+    }
+
+    /** Clamp output to +-maxOutput */
+    private double clamp(double output) {
+        return Math.max(-maxOutput, Math.min(maxOutput, output));
+    }
+}
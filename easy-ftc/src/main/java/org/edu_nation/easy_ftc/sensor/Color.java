@@ -5,6 +5,8 @@ package org.edu_nation.easy_ftc.sensor;
 
 import com.qualcomm.robotcore.hardware.ColorSensor;
 import com.qualcomm.robotcore.hardware.HardwareMap;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Implements a color sensor by extending the functionality of {@link Sensor}
@@ -14,6 +16,11 @@ import com.qualcomm.robotcore.hardware.HardwareMap;
  */
 public class Color extends Sensor<ColorSensor, Color.RGB> {
     private final int[] rgbOffsets;
+    private final double swatchTolerance;
+    private final List<String> swatchNames;
+    private final List<int[]> swatches;
+    private volatile ColorTable table;
+    private volatile String swatch;
 
     /** Constructor */
     private Color(Builder builder) {
@@ -21,6 +28,15 @@ public class Color extends Sensor<ColorSensor, Color.RGB> {
         this.name = builder.name;
         this.threshold = builder.threshold;
         this.rgbOffsets = builder.rgbOffsets;
+        this.swatchTolerance = builder.swatchTolerance;
+        this.swatchNames = new ArrayList<>(builder.swatchNames);
+        this.swatches = new ArrayList<>();
+        for (int[] rgbRaw : builder.swatches) {
+            swatches.add(normalize(rgbRaw));
+        }
+        if (!swatches.isEmpty()) {
+            buildTable();
+        }
         init();
     }
 
@@ -31,15 +47,28 @@ public class Color extends Sensor<ColorSensor, Color.RGB> {
      *
      * <pre>{@code
      * Color color = new Color.Builder(hardwareMap).build();
+     *
+     * // classifying game elements by swatch
+     * Color color =
+     *         new Color.Builder(hardwareMap)
+     *                 .swatch("yellow", 210, 190, 60)
+     *                 .swatch("purple", 120, 70, 170)
+     *                 .swatch("white", 200, 220, 210)
+     *                 .build();
+     * String element = color.getSwatch();
      * }</pre>
      *
      * <b>Defaults:</b>
      *
      * <ul>
      *   <li>reverse = false
+     *   <li>period = 0.0
+     *   <li>async = false
      *   <li>name = "color"
      *   <li>threshold = 85.0
      *   <li>rgbOffsets = {10, -25, 0}
+     *   <li>swatches = none
+     *   <li>swatchTolerance = 0.25
      * </ul>
      */
     @SuppressWarnings("java:S1185")
@@ -47,6 +76,9 @@ public class Color extends Sensor<ColorSensor, Color.RGB> {
         private String name = "color";
         private double threshold = 85.0;
         private int[] rgbOffsets = {10, -25, 0};
+        private final List<String> swatchNames = new ArrayList<>();
+        private final List<int[]> swatches = new ArrayList<>();
+        private double swatchTolerance = 0.25;
 
         /**
          * Builder constructor
@@ -64,6 +96,19 @@ public class Color extends Sensor<ColorSensor, Color.RGB> {
             return super.reverse();
         }
 
+        /**
+         * @throws IllegalArgumentException {@inheritDoc}
+         */
+        @Override
+        public Builder period(double period) {
+            return super.period(period);
+        }
+
+        @Override
+        public Builder async() {
+            return super.async();
+        }
+
         // color-specific methods
         /**
          * Change the name of the hardware device
@@ -124,6 +169,59 @@ public class Color extends Sensor<ColorSensor, Color.RGB> {
             return this;
         }
 
+        /**
+         * Add a named swatch for {@link Color#getSwatch()} to match readings against. Several
+         * swatches may share a name, e.g. to cover a game element under different lighting
+         *
+         * @param name name returned for readings matching the swatch
+         * @param red red reading of the swatch (before rgbOffsets)
+         * @param green green reading of the swatch (before rgbOffsets)
+         * @param blue blue reading of the swatch (before rgbOffsets)
+         * @return builder instance
+         * @throws NullPointerException if name is null
+         * @throws IllegalArgumentException if red, green, or blue not in the interval [0, 255]
+         * @throws IllegalStateException if more than 255 swatches are added
+         */
+        public Builder swatch(String name, int red, int green, int blue) {
+            if (name == null) {
+                throw new NullPointerException("Null name passed to Color.Builder().swatch()");
+            }
+            for (int channel : new int[] {red, green, blue}) {
+                if (channel < 0 || channel > 255) {
+                    throw new IllegalArgumentException(
+                            "Unexpected swatch value: "
+                                    + channel
+                                    + ", passed to Color.Builder().swatch(). Valid values are integers in the interval [0, 255]");
+                }
+            }
+            if (swatches.size() == ColorTable.MAX_SWATCHES) {
+                throw new IllegalStateException(
+                        "Too many swatches passed to Color.Builder().swatch(). At most 255 can be added");
+            }
+            this.swatchNames.add(name);
+            this.swatches.add(new int[] {red, green, blue});
+            return this;
+        }
+
+        /**
+         * Specify how close a reading must be to a swatch to match it, as a distance in
+         * hue/saturation/value space where each spans 0-1
+         *
+         * @param swatchTolerance maximum distance from a swatch
+         * @return builder instance
+         * @throws IllegalArgumentException if swatchTolerance &lt;= 0
+         */
+        public Builder swatchTolerance(double swatchTolerance) {
+            if (!(swatchTolerance > 0)) {
+                throw new IllegalArgumentException(
+                        "Unexpected swatchTolerance value: "
+                                + swatchTolerance
+                                + ", passed to Color.Builder().swatchTolerance(). Valid values are numbers >0");
+            }
+            this.swatchTolerance = swatchTolerance;
+            return this;
+        }
+
         /**
          * Build the sensor
          *
@@ -165,65 +263,115 @@ public class Color extends Sensor<ColorSensor, Color.RGB> {
      */
     @Override
     public RGB state() {
-        int[] rgbRaw = {sensor.red(), sensor.green(), sensor.blue()};
-        RGB color;
+        return super.state();
+    }
+
+    /**
+     * Return the swatch matching color sensor state, reading the sensor as state() would
+     *
+     * @return name of the matching swatch, or null if none match or none were added
+     */
+    public String getSwatch() {
+        state();
+        return swatch;
+    }
+
+    /**
+     * Read the sensor while it's held against a sample, adding the average reading as a swatch
+     * for {@link #getSwatch()}. Readings after this match against the new swatch too. Readings
+     * are taken period apart (20 ms if period isn't set), so each is a new measurement, and
+     * this blocks for that long between them. If interrupted, the readings taken so far are used
+     *
+     * @param name name returned for readings matching the swatch
+     * @param samples number of readings to average
+     * @throws NullPointerException if name is null
+     * @throws IllegalArgumentException if samples &lt; 1
+     * @throws IllegalStateException if 255 swatches have already been added
+     */
+    public void calibrate(String name, int samples) {
+        if (name == null) {
+            throw new NullPointerException("Null name passed to Color.calibrate()");
+        }
+        if (samples < 1) {
+            throw new IllegalArgumentException(
+                    "Unexpected samples value: "
+                            + samples
+                            + ", passed to Color.calibrate(). Valid values are integers >0");
+        }
+        if (swatches.size() == ColorTable.MAX_SWATCHES) {
+            throw new IllegalStateException(
+                    "Too many swatches passed to Color.calibrate(). At most 255 can be added");
+        }
+        int[] rgbRaw = new int[3];
+        int taken = 0;
+        while (taken < samples && (taken == 0 || awaitReading())) {
+            rgbRaw[0] += sensor.red();
+            rgbRaw[1] += sensor.green();
+            rgbRaw[2] += sensor.blue();
+            taken++;
+        }
+        for (int i = 0; i < 3; i++) {
+            rgbRaw[i] = Math.round((float) rgbRaw[i] / taken);
+        }
+        swatchNames.add(name);
+        swatches.add(normalize(rgbRaw));
+        buildTable();
+    }
+
+    /** Read color sensor state */
+    @Override
+    protected RGB sample() {
+        int red = sensor.red() + rgbOffsets[0];
+        int green = sensor.green() + rgbOffsets[1];
+        int blue = sensor.blue() + rgbOffsets[2];
+        ColorTable current = table;
+        if (current != null) {
+            swatch = current.classify(red, green, blue);
+        }
         if (reverse) {
-            color = weakColor(rgbRaw);
+            return weak(red, green, blue);
         } else {
-            color = dominantColor(rgbRaw);
+            return dominant(red, green, blue);
         }
-        return color;
     }
 
     /** Convert the maximum normalized RGB value to the corresponding RGB color */
     protected RGB dominantColor(int[] rgbRaw) {
-        int[] rgbNormalized = normalize(rgbRaw);
-        int max = max(rgbNormalized);
-
-        RGB color;
-        if (max > threshold) {
-            if ((rgbNormalized[0] == rgbNormalized[1] && rgbNormalized[0] == max)
-                    || (rgbNormalized[0] == rgbNormalized[2] && rgbNormalized[0] == max)
-                    || (rgbNormalized[1] == rgbNormalized[2] && rgbNormalized[1] == max)) {
-                color = null;
-            } else if (max == rgbNormalized[0]) {
-                color = RGB.RED;
-            } else if (max == rgbNormalized[1]) {
-                color = RGB.GREEN;
-            } else if (max == rgbNormalized[2]) {
-                color = RGB.BLUE;
-            } else {
-                throw new IllegalArgumentException(
-                        "Unexpected color passed to Color.dominantColor(). Valid colors are: Color.RGB.RED, Color.RGB.GREEN, Color.RGB.BLUE");
-            }
-        } else {
-            color = null;
-        }
-        return color;
+        return dominant(
+                rgbRaw[0] + rgbOffsets[0], rgbRaw[1] + rgbOffsets[1], rgbRaw[2] + rgbOffsets[2]);
     }
 
     /** Convert the minimum normalized RGB value to the corresponding RGB color */
     protected RGB weakColor(int[] rgbRaw) {
-        int[] rgbNormalized = normalize(rgbRaw);
-        int min = min(rgbNormalized);
-
-        RGB color;
-
-        if ((rgbNormalized[0] == rgbNormalized[1] && rgbNormalized[0] == min)
-                || (rgbNormalized[0] == rgbNormalized[2] && rgbNormalized[0] == min)
-                || (rgbNormalized[1] == rgbNormalized[2] && rgbNormalized[1] == min)) {
-            color = null;
-        } else if (min == rgbNormalized[0]) {
-            color = RGB.RED;
-        } else if (min == rgbNormalized[1]) {
-            color = RGB.GREEN;
-        } else if (min == rgbNormalized[2]) {
-            color = RGB.BLUE;
+        return weak(
+                rgbRaw[0] + rgbOffsets[0], rgbRaw[1] + rgbOffsets[1], rgbRaw[2] + rgbOffsets[2]);
+    }
+
+    /** Convert the maximum of normalized red, green, and blue to the corresponding RGB color */
+    private RGB dominant(int red, int green, int blue) {
+        int max = Math.max(red, Math.max(green, blue));
+        if (max <= threshold) {
+            return null;
+        }
+        return unique(max, red, green, blue);
+    }
+
+    /** Convert the minimum of normalized red, green, and blue to the corresponding RGB color */
+    private RGB weak(int red, int green, int blue) {
+        return unique(Math.min(red, Math.min(green, blue)), red, green, blue);
+    }
+
+    /** Return the RGB color equal to extreme, or null if several are */
+    private RGB unique(int extreme, int red, int green, int blue) {
+        if ((red == extreme ? 1 : 0) + (green == extreme ? 1 : 0) + (blue == extreme ? 1 : 0) > 1) {
+            return null;
+        } else if (red == extreme) {
+            return RGB.RED;
+        } else if (green == extreme) {
+            return RGB.GREEN;
         } else {
-            throw new IllegalArgumentException(
-                    "Unexpected color passed to Color.weakColor(). Valid colors are: Color.RGB.RED, Color.RGB.GREEN, Color.RGB.BLUE");
+            return RGB.BLUE;
         }
-        return color;
     }
 
     /** Normalize color readings by applying offsets */
@@ -235,17 +383,13 @@ public class Color extends Sensor<ColorSensor, Color.RGB> {
         return rgbNormalized;
     }
 
-    /** Return maximum of normalized RGB values */
-    private int max(int[] rgbNormalized) {
-        return Math.max(
-                Math.max(rgbNormalized[0], rgbNormalized[1]),
-                Math.max(rgbNormalized[1], rgbNormalized[2]));
-    }
-
-    /** Return minimum of normalized RGB values */
-    private int min(int[] rgbNormalized) {
-        return Math.min(
-                Math.min(rgbNormalized[0], rgbNormalized[1]),
-                Math.min(rgbNormalized[1], rgbNormalized[2]));
+    /** Rebuild the lookup table from the swatches, swapping it in for the sampling thread */
+    private void buildTable() {
+        table =
+                new ColorTable(
+                        swatchNames.toArray(new String[0]),
+                        swatches.toArray(new int[0][]),
+                        threshold,
+                        swatchTolerance);
     }
 }
@@ -0,0 +1,102 @@
+// SPDX-FileCopyrightText: Collegiate Edu-Nation
+// SPDX-License-Identifier: GPL-3.0-or-later
+
+package org.edu_nation.easy_ftc.sensor;
+
+/**
+ * Lookup table owned by a {@link Color} sensor, mapping offset RGB readings to the nearest named
+ * swatch in hue/saturation/value space. Every quantized RGB cell is classified once when the table
+ * is built, so classifying a reading is a single array lookup and doesn't allocate
+ */
+final class ColorTable {
+    static final int MAX_SWATCHES = 255;
+    private static final int BITS = 5;
+    private static final int SHIFT = 8 - BITS;
+    private static final int LEVELS = 1 << BITS;
+    private static final int CENTER = 1 << (SHIFT - 1);
+    private final String[] names;
+    private final byte[] cells = new byte[LEVELS * LEVELS * LEVELS];
+
+    /**
+     * Constructor for swatches given as names and offset RGB values, matching readings brighter
+     * than threshold that are within tolerance of a swatch (as a distance in HSV space, where each
+     * of hue, saturation and value span 0-1)
+     */
+    ColorTable(String[] names, int[][] swatches, double threshold, double tolerance) {
+        this.names = names;
+        float[][] references = new float[swatches.length][];
+        for (int i = 0; i < swatches.length; i++) {
+            references[i] = hsv(swatches[i][0], swatches[i][1], swatches[i][2]);
+        }
+
+        for (int r = 0; r < LEVELS; r++) {
+            for (int g = 0; g < LEVELS; g++) {
+                for (int b = 0; b < LEVELS; b++) {
+                    int red = (r << SHIFT) + CENTER;
+                    int green = (g << SHIFT) + CENTER;
+                    int blue = (b << SHIFT) + CENTER;
+                    if (Math.max(red, Math.max(green, blue)) > threshold) {
+                        cells[index(r, g, b)] =
+                                (byte) nearest(hsv(red, green, blue), references, tolerance);
+                    }
+                }
+            }
+        }
+    }
+
+    /** Return the name of the swatch matching an offset RGB reading, or null if none do */
+    String classify(int red, int green, int blue) {
+        int cell = cells[index(quantize(red), quantize(green), quantize(blue))] & 0xFF;
+        return cell == 0 ? null : names[cell - 1];
+    }
+
+    /** Return the 1-based index of the nearest reference within tolerance, or 0 if there isn't */
+    private static int nearest(float[] hsv, float[][] references, double tolerance) {
+        int nearest = 0;
+        double best = tolerance * tolerance;
+        for (int i = 0; i < references.length; i++) {
+            float[] reference = references[i];
+
+            // hue is circular, and means less the less saturated either color is
+            double hue = Math.abs(hsv[0] - reference[0]);
+            hue = Math.min(hue, 1 - hue) * 2 * Math.min(hsv[1], reference[1]);
+            double saturation = hsv[1] - reference[1];
+            double value = hsv[2] - reference[2];
+            double distance = hue * hue + saturation * saturation + value * value;
+            if (distance <= best) {
+                best = distance;
+                nearest = i + 1;
+            }
+        }
+        return nearest;
+    }
+
+    /** Convert RGB (0-255) to hue, saturation, and value (each 0-1) */
+    private static float[] hsv(int red, int green, int blue) {
+        float max = Math.max(red, Math.max(green, blue));
+        float min = Math.min(red, Math.min(green, blue));
+        float chroma = max - min;
+
+        float hue;
+        if (chroma == 0) {
+            hue = 0;
+        } else if (max == red) {
+            hue = ((green - blue) / chroma + 6) % 6;
+        } else if (max == green) {
+            hue = (blue - red) / chroma + 2;
+        } else {
+            hue = (red - green) / chroma + 4;
+        }
+        return new float[] {hue / 6, max == 0 ? 0 : chroma / max, max / 255};
+    }
+
+    /** Return the cell of a quantized RGB value */
+    private static int index(int r, int g, int b) {
+        return (r << BITS | g) << BITS | b;
+    }
+
+    /** Clamp a channel to 0-255 and quantize it */
+    private static int quantize(int channel) {
+        return Math.max(0, Math.min(255, channel)) >> SHIFT;
+    }
+}
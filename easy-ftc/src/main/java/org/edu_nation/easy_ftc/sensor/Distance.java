@@ -13,12 +13,19 @@ import org.firstinspires.ftc.robotcore.external.navigation.DistanceUnit;
  * @see Builder
  */
 public class Distance extends Sensor<DistanceSensor, Boolean> {
+    private final double exitThreshold;
+    private final DistanceFilter filter;
+    private boolean detected;
+    private volatile double distance = Double.NaN;
 
     /** Constructor */
     private Distance(Builder builder) {
         super(builder);
         this.name = builder.name;
         this.threshold = builder.threshold;
+        this.exitThreshold = builder.exitThreshold;
+        this.filter =
+                new DistanceFilter(builder.medianWindow, builder.smoothing, builder.outlierLimit);
         init();
     }
 
@@ -35,14 +42,23 @@ public class Distance extends Sensor<DistanceSensor, Boolean> {
      *
      * <ul>
      *   <li>reverse = false
+     *   <li>period = 0.0
+     *   <li>async = false
      *   <li>name = "distance"
-     *   <li>threshold = 7.0
+     *   <li>threshold = 7.0 (for both entering and exiting)
+     *   <li>medianWindow = 1
+     *   <li>smoothing = 1.0
+     *   <li>outlierLimit = Double.POSITIVE_INFINITY
      * </ul>
      */
     @SuppressWarnings("java:S1185")
     public static class Builder extends Sensor.Builder<Builder> {
         private String name = "distance";
         private double threshold = 7.0;
+        private double exitThreshold = 7.0;
+        private int medianWindow = 1;
+        private double smoothing = 1.0;
+        private double outlierLimit = Double.POSITIVE_INFINITY;
 
         /**
          * Builder constructor
@@ -60,6 +76,19 @@ public class Distance extends Sensor<DistanceSensor, Boolean> {
             return super.reverse();
         }
 
+        /**
+         * @throws IllegalArgumentException {@inheritDoc}
+         */
+        @Override
+        public Builder period(double period) {
+            return super.period(period);
+        }
+
+        @Override
+        public Builder async() {
+            return super.async();
+        }
+
         // distance-specific methods
         /**
          * Change the name of the hardware device
@@ -92,6 +121,92 @@ public class Distance extends Sensor<DistanceSensor, Boolean> {
                                 + ", passed to Distance.Builder().threshold(). Valid values are >0");
             }
             this.threshold = threshold;
+            this.exitThreshold = threshold;
+            return this;
+        }
+
+        /**
+         * Specify separate calibration values for detecting an object and for losing it again, so
+         * readings that hover around a single cutoff don't flicker the state
+         *
+         * @param enter cutoff threshold below which an object is detected
+         * @param exit cutoff threshold at or beyond which a detected object is lost
+         * @return builder instance
+         * @throws IllegalArgumentException if enter &lt; 0
+         * @throws IllegalArgumentException if exit &lt; enter
+         */
+        public Builder threshold(double enter, double exit) {
+            if (enter < 0) {
+                throw new IllegalArgumentException(
+                        "Unexpected enter value: "
+                                + enter
+                                + ", passed to Distance.Builder().threshold(). Valid values are >0");
+            }
+            if (exit < enter) {
+                throw new IllegalArgumentException(
+                        "Unexpected exit value: "
+                                + exit
+                                + ", passed to Distance.Builder().threshold(). Valid values are >=enter");
+            }
+            this.threshold = enter;
+            this.exitThreshold = exit;
+            return this;
+        }
+
+        /**
+         * Specify how many readings to take the moving median of, rejecting spikes at the cost of
+         * lagging by half as many readings
+         *
+         * @param medianWindow number of readings in the median
+         * @return builder instance
+         * @throws IllegalArgumentException if medianWindow &lt; 1 or medianWindow &gt; 31
+         */
+        public Builder medianWindow(int medianWindow) {
+            if (medianWindow < 1 || medianWindow > DistanceFilter.MAX_WINDOW) {
+                throw new IllegalArgumentException(
+                        "Unexpected medianWindow value: "
+                                + medianWindow
+                                + ", passed to Distance.Builder().medianWindow(). Valid values are integers 1-31");
+            }
+            this.medianWindow = medianWindow;
+            return this;
+        }
+
+        /**
+         * Specify the weight of each new median in an exponential moving average, where smaller
+         * values smooth more but respond slower, and 1.0 disables it
+         *
+         * @param smoothing weight of the newest reading
+         * @return builder instance
+         * @throws IllegalArgumentException if smoothing &lt;= 0 or smoothing &gt; 1
+         */
+        public Builder smoothing(double smoothing) {
+            if (smoothing <= 0 || smoothing > 1) {
+                throw new IllegalArgumentException(
+                        "Unexpected smoothing value: "
+                                + smoothing
+                                + ", passed to Distance.Builder().smoothing(). Valid values are numbers in the interval (0, 1]");
+            }
+            this.smoothing = smoothing;
+            return this;
+        }
+
+        /**
+         * Specify how far (in cm) a reading may be from the median before it's ignored as an
+         * outlier. A run of them longer than the median window is accepted as the object moving
+         *
+         * @param outlierLimit maximum distance from the median in cm
+         * @return builder instance
+         * @throws IllegalArgumentException if outlierLimit &lt;= 0
+         */
+        public Builder outlierLimit(double outlierLimit) {
+            if (!(outlierLimit > 0)) {
+                throw new IllegalArgumentException(
+                        "Unexpected outlierLimit value: "
+                                + outlierLimit
+                                + ", passed to Distance.Builder().outlierLimit(). Valid values are numbers >0");
+            }
+            this.outlierLimit = outlierLimit;
             return this;
         }
 
@@ -129,10 +244,31 @@ public class Distance extends Sensor<DistanceSensor, Boolean> {
      */
     @Override
     public Boolean state() {
-        if (reverse) {
-            return (sensor.getDistance(DistanceUnit.CM) >= threshold);
+        return super.state();
+    }
+
+    /**
+     * Return the filtered distance, reading the sensor as state() would
+     *
+     * @return distance to the nearest object in cm, or NaN if there hasn't been a valid reading
+     */
+    public double getDistance() {
+        state();
+        return distance;
+    }
+
+    /** Read and filter distance sensor state */
+    @Override
+    protected Boolean sample() {
+        double filtered = filter.update(sensor.getDistance(DistanceUnit.CM));
+        distance = filtered;
+
+        // once detected, the object must move beyond exitThreshold to be lost
+        if (detected) {
+            detected = filtered < exitThreshold;
         } else {
-            return (sensor.getDistance(DistanceUnit.CM) < threshold);
+            detected = filtered < threshold;
         }
+        return reverse ? !detected : detected;
     }
 }
@@ -0,0 +1,115 @@
+// SPDX-FileCopyrightText: Collegiate Edu-Nation
+// SPDX-License-Identifier: GPL-3.0-or-later
+
+package org.edu_nation.easy_ftc.sensor;
+
+/**
+ * Streaming filter owned by a {@link Distance} sensor. Each reading passes through outlier
+ * rejection, a moving median over a fixed-size ring buffer, and an exponential moving average. The
+ * window is bounded, so an update costs constant time, and it doesn't allocate
+ */
+final class DistanceFilter {
+    static final int MAX_WINDOW = 31;
+    private static final int MIN_REJECTIONS = 3;
+    private final double[] window;
+    private final double[] sorted;
+    private final double smoothing;
+    private final double outlierLimit;
+    private final int maxRejections;
+    private int head;
+    private int size;
+    private int rejected;
+    private double value = Double.NaN;
+
+    /**
+     * Constructor for a median over window readings (1 to MAX_WINDOW), an EMA weighting each new
+     * median by smoothing (0 to 1, where 1 disables it), and rejecting readings more than
+     * outlierLimit from the median (infinity disables it)
+     */
+    DistanceFilter(int window, double smoothing, double outlierLimit) {
+        this.window = new double[window];
+        this.sorted = new double[window];
+        this.smoothing = smoothing;
+        this.outlierLimit = outlierLimit;
+        this.maxRejections = Math.max(window, MIN_REJECTIONS);
+    }
+
+    /**
+     * Filter a reading, returning the new value. A run of rejected readings longer than the window
+     * (at least MIN_REJECTIONS) is taken as the object really having moved, and is let through
+     */
+    double update(double reading) {
+        if (Double.isNaN(reading)) {
+            return value;
+        }
+        if (size > 0
+                && Math.abs(reading - median()) > outlierLimit
+                && rejected < maxRejections) {
+            rejected++;
+            return value;
+        }
+        rejected = 0;
+        push(reading);
+
+        double median = median();
+        if (Double.isNaN(value) || smoothing == 1) {
+            value = median;
+        } else {
+            value += smoothing * (median - value);
+        }
+        return value;
+    }
+
+    /** Return the filtered value, or NaN before the first reading */
+    double value() {
+        return value;
+    }
+
+    /** Add a reading to the ring buffer, replacing the oldest in the sorted copy once it's full */
+    private void push(double reading) {
+        int index;
+        if (size == window.length) {
+            // shift the readings after the oldest down over it
+            index = indexOf(window[head]);
+            while (index < size - 1) {
+                sorted[index] = sorted[index + 1];
+                index++;
+            }
+        } else {
+            index = size++;
+        }
+
+        // insertion sort the new reading into place from the top
+        while (index > 0 && sorted[index - 1] > reading) {
+            sorted[index] = sorted[index - 1];
+            index--;
+        }
+        sorted[index] = reading;
+        window[head] = reading;
+        head = (head + 1) % window.length;
+    }
+
+    /** Return the index of reading in the sorted copy by binary search */
+    private int indexOf(double reading) {
+        int low = 0;
+        int high = size - 1;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (sorted[middle] < reading) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /** Return the median of the buffered readings */
+    private double median() {
+        int middle = size / 2;
+        if (size % 2 == 1) {
+            return sorted[middle];
+        }
+        return (sorted[middle - 1] + sorted[middle]) / 2;
+    }
+}
@@ -18,16 +18,36 @@ abstract class Sensor<S, V> {
     protected String name;
     protected boolean reverse;
     protected double threshold;
+    private final long period;
+    private final boolean async;
+    private V cached;
+    private long timestamp;
+    private boolean sampled;
+    private long samples;
+    private double maxAge;
+    private volatile Snapshot<V> snapshot;
+    private volatile long requested;
+    private volatile RuntimeException failure;
+    private Thread sampler;
+    private static final double NS_PER_S = 1e9;
+    private static final long NS_PER_MS = 1_000_000;
+    private static final long MIN_ASYNC_PERIOD = NS_PER_MS;
+    private static final long DEFAULT_ASYNC_PERIOD = 20 * NS_PER_MS;
+    private static final long IDLE_TIMEOUT = 1_000_000_000;
 
     /** Constructor */
     protected Sensor(Builder<?> builder) {
         this.hardwareMap = builder.hardwareMap;
         this.reverse = builder.reverse;
+        this.period = (long) (builder.period * NS_PER_S);
+        this.async = builder.async;
     }
 
     public abstract static class Builder<T extends Builder<T>> {
         private final HardwareMap hardwareMap;
         private boolean reverse = false;
+        private double period = 0.0;
+        private boolean async = false;
 
         /**
          * Builder constructor
@@ -52,6 +72,40 @@ abstract class Sensor<S, V> {
             return self();
         }
 
+        /**
+         * Specify the minimum time between reads of the sensor. In between, state() returns the
+         * last reading, so several calls in one loop share a single read
+         *
+         * @param period minimum time between reads in s
+         * @return builder instance
+         * @throws IllegalArgumentException if period &lt; 0
+         */
+        public T period(double period) {
+            if (period < 0) {
+                throw new IllegalArgumentException(
+                        "Unexpected period value: "
+                                + period
+                                + ", passed to Sensor.Builder().period(). Valid values are numbers >= 0");
+            }
+            this.period = period;
+            return self();
+        }
+
+        /**
+         * Read the sensor on a background thread, so state() returns the latest reading without
+         * waiting on the device. Readings are taken at most once per period (and at most once per
+         * ms), or every 20 ms if period isn't set, about as often as I2C color and distance
+         * sensors produce a new reading. The thread stops itself once state() hasn't been called
+         * for 1 s, e.g. after the opMode ends or during a blocking command, and restarts on the
+         * next call, which reads the sensor first if the last reading is out of date
+         *
+         * @return builder instance
+         */
+        public T async() {
+            this.async = true;
+            return self();
+        }
+
         public abstract T name(String name);
 
         @SuppressWarnings("java:S1452")
@@ -62,5 +116,181 @@ abstract class Sensor<S, V> {
 
     protected abstract void init();
 
-    public abstract V state();
+    /** Read the sensor and return its state */
+    protected abstract V sample();
+
+    /** Immutable reading published by the sampler thread */
+    private static final class Snapshot<V> {
+        private final V value;
+        private final long timestamp;
+        private final long count;
+
+        /** Constructor */
+        private Snapshot(V value, long timestamp, long count) {
+            this.value = value;
+            this.timestamp = timestamp;
+            this.count = count;
+        }
+    }
+
+    /**
+     * Return the sensor's state, reading it only if period has passed since the last read. If
+     * async, return the latest reading from the background thread instead
+     *
+     * @return sensor state
+     * @throws RuntimeException if async and the background thread failed to read the sensor
+     */
+    public V state() {
+        long now = System.nanoTime();
+        if (async) {
+            return asyncState(now);
+        }
+        if (!sampled || now - timestamp >= period) {
+            cached = sample();
+            timestamp = now;
+            sampled = true;
+            samples++;
+        }
+        maxAge = Math.max(maxAge, (now - timestamp) / NS_PER_S);
+        return cached;
+    }
+
+    /**
+     * Return when the sensor was last read, comparable to System.nanoTime()
+     *
+     * @return time of the last read in ns, or 0 if it hasn't been read
+     */
+    public long getTimestamp() {
+        if (async) {
+            Snapshot<V> current = snapshot;
+            return current == null ? 0 : current.timestamp;
+        }
+        return timestamp;
+    }
+
+    /**
+     * Return how long ago the sensor was last read
+     *
+     * @return age of the current state in s, or infinity if it hasn't been read
+     */
+    public double getAge() {
+        if (async ? snapshot == null : !sampled) {
+            return Double.POSITIVE_INFINITY;
+        }
+        return (System.nanoTime() - getTimestamp()) / NS_PER_S;
+    }
+
+    /**
+     * Return the oldest reading state() has returned, i.e. how stale the data has been at worst
+     *
+     * @return maximum age in s, or 0 if state() hasn't been called
+     */
+    public double getMaxAge() {
+        return maxAge;
+    }
+
+    /**
+     * Return how many times the sensor has been read
+     *
+     * @return number of reads
+     */
+    public long getSampleCount() {
+        if (async) {
+            Snapshot<V> current = snapshot;
+            return current == null ? 0 : current.count;
+        }
+        return samples;
+    }
+
+    /**
+     * Stop the background thread, if async. It restarts on the next call to state(), so this only
+     * needs to be called to release the device sooner than the thread would on its own
+     */
+    public void close() {
+        Thread current = sampler;
+        if (current != null) {
+            current.interrupt();
+            try {
+                current.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            sampler = null;
+        }
+    }
+
+    /**
+     * Return the latest reading, and (re)start the sampler thread if it isn't running. The first
+     * reading, and one replacing a reading gone stale while the thread was stopped, are taken on
+     * the calling thread. A failure on the sampler thread is rethrown here instead
+     */
+    private V asyncState(long now) {
+        if (failure != null) {
+            throw failure;
+        }
+        requested = now;
+        Snapshot<V> current = snapshot;
+        if (current == null) {
+            current = new Snapshot<>(sample(), now, 1);
+            snapshot = current;
+        }
+        if (sampler == null || !sampler.isAlive()) {
+            if (now - current.timestamp >= interval()) {
+                current = new Snapshot<>(sample(), now, current.count + 1);
+                snapshot = current;
+            }
+            sampler = new Thread(this::sampleLoop, name + " sampler");
+            sampler.setDaemon(true);
+            sampler.start();
+        }
+        maxAge = Math.max(maxAge, (now - current.timestamp) / NS_PER_S);
+        return current.value;
+    }
+
+    /**
+     * Read the sensor and publish each reading until interrupted or idle. This is the only thread
+     * that writes snapshots while it runs, so a volatile reference is enough to hand them over
+     */
+    private void sampleLoop() {
+        long interval = interval();
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                long start = System.nanoTime();
+                if (start - requested > IDLE_TIMEOUT) {
+                    return;
+                }
+                V value = sample();
+                snapshot = new Snapshot<>(value, start, snapshot.count + 1);
+                long wait = interval - (System.nanoTime() - start);
+                if (wait > 0) {
+                    Thread.sleep(wait / NS_PER_MS, (int) (wait % NS_PER_MS));
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            // stop for good, leaving state() to report the failure on the calling thread
+            failure = e;
+        }
+    }
+
+    /**
+     * Wait for the device to produce a new reading, i.e. for period (or 20 ms if it isn't set).
+     * Returns false if interrupted, leaving the thread's interrupt flag set
+     */
+    protected boolean awaitReading() {
+        long interval = interval();
+        try {
+            Thread.sleep(interval / NS_PER_MS, (int) (interval % NS_PER_MS));
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /** Return the time between background reads (or awaited readings) in ns */
+    private long interval() {
+        return period == 0 ? DEFAULT_ASYNC_PERIOD : Math.max(period, MIN_ASYNC_PERIOD);
+    }
 }
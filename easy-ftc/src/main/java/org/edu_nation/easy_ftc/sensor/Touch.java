@@ -12,11 +12,23 @@ import com.qualcomm.robotcore.hardware.TouchSensor;
  * @see Builder
  */
 public class Touch extends Sensor<TouchSensor, Boolean> {
+    private final long debounce;
+    private boolean started;
+    private boolean candidate;
+    private long candidateSince;
+    private volatile boolean pressed;
+    private volatile long pressedAt;
+    private volatile long presses;
+    private volatile long releases;
+    private long pressesSeen;
+    private long releasesSeen;
+    private static final double NS_PER_S = 1e9;
 
     /** Constructor */
     private Touch(Builder builder) {
         super(builder);
         this.name = builder.name;
+        this.debounce = (long) (builder.debounce * NS_PER_S);
         init();
     }
 
@@ -27,18 +39,28 @@ public class Touch extends Sensor<TouchSensor, Boolean> {
      *
      * <pre>{@code
      * Touch touch = new Touch.Builder(hardwareMap).build();
+     *
+     * // reacting to presses rather than the level
+     * Touch touch = new Touch.Builder(hardwareMap).debounce(0.02).build();
+     * if (touch.wasPressed()) {
+     *     ...
+     * }
      * }</pre>
      *
      * <b>Defaults:</b>
      *
      * <ul>
      *   <li>reverse = false
+     *   <li>period = 0.0
+     *   <li>async = false
      *   <li>name = "touch"
+     *   <li>debounce = 0.0
      * </ul>
      */
     @SuppressWarnings("java:S1185")
     public static class Builder extends Sensor.Builder<Builder> {
         private String name = "touch";
+        private double debounce = 0.0;
 
         /**
          * Builder constructor
@@ -56,6 +78,19 @@ public class Touch extends Sensor<TouchSensor, Boolean> {
             return super.reverse();
         }
 
+        /**
+         * @throws IllegalArgumentException {@inheritDoc}
+         */
+        @Override
+        public Builder period(double period) {
+            return super.period(period);
+        }
+
+        @Override
+        public Builder async() {
+            return super.async();
+        }
+
         // touch-specific methods
         /**
          * Change the name of the hardware device
@@ -73,6 +108,25 @@ public class Touch extends Sensor<TouchSensor, Boolean> {
             return this;
         }
 
+        /**
+         * Specify how long a new reading must hold before the state changes, so a bouncing switch
+         * is counted as a single press
+         *
+         * @param debounce minimum time the reading must be stable in s
+         * @return builder instance
+         * @throws IllegalArgumentException if debounce &lt; 0
+         */
+        public Builder debounce(double debounce) {
+            if (debounce < 0) {
+                throw new IllegalArgumentException(
+                        "Unexpected debounce value: "
+                                + debounce
+                                + ", passed to Touch.Builder().debounce(). Valid values are numbers >= 0");
+            }
+            this.debounce = debounce;
+            return this;
+        }
+
         /**
          * Build the sensor
          *
@@ -107,10 +161,89 @@ public class Touch extends Sensor<TouchSensor, Boolean> {
      */
     @Override
     public Boolean state() {
-        if (reverse) {
-            return !(sensor.isPressed());
-        } else {
-            return sensor.isPressed();
+        return super.state();
+    }
+
+    /**
+     * Return whether the sensor has been pressed since the last call, reading it as state() would.
+     * Presses between calls aren't lost, even if already released
+     *
+     * @return whether there has been a new press
+     */
+    public boolean wasPressed() {
+        state();
+        long count = presses;
+        boolean edge = count != pressesSeen;
+        pressesSeen = count;
+        return edge;
+    }
+
+    /**
+     * Return whether the sensor has been released since the last call, reading it as state()
+     * would. Releases between calls aren't lost, even if pressed again
+     *
+     * @return whether there has been a new release
+     */
+    public boolean wasReleased() {
+        state();
+        long count = releases;
+        boolean edge = count != releasesSeen;
+        releasesSeen = count;
+        return edge;
+    }
+
+    /**
+     * Return how long the sensor has been held, reading it as state() would
+     *
+     * @return duration of the current press in s, or 0 if it isn't pressed
+     */
+    public double getPressDuration() {
+        state();
+        if (!pressed) {
+            return 0;
+        }
+        return (System.nanoTime() - pressedAt) / NS_PER_S;
+    }
+
+    /**
+     * Return how many times the sensor has been pressed, reading it as state() would. A sensor
+     * that's already pressed when first read doesn't count
+     *
+     * @return number of presses
+     */
+    public long getPressCount() {
+        state();
+        return presses;
+    }
+
+    /** Read and debounce touch sensor state, counting edges */
+    @Override
+    protected Boolean sample() {
+        long now = System.nanoTime();
+        boolean level = reverse != sensor.isPressed();
+        if (!started) {
+            started = true;
+            candidate = level;
+            candidateSince = now;
+            pressedAt = now;
+            pressed = level;
+            return level;
+        }
+
+        // a new level only counts once it's held for debounce
+        if (level != candidate) {
+            candidate = level;
+            candidateSince = now;
+        }
+        if (candidate != pressed && now - candidateSince >= debounce) {
+            if (candidate) {
+                pressedAt = now;
+                presses++;
+            } else {
+                releases++;
+            }
+            pressed = candidate;
         }
+        return pressed;
     }
 }
@@ -12,10 +12,7 @@ public class Arm extends BlocksOpModeCompanion {
             comment = "Initiate an automated arm movement",
             parameterLabels = {"Direction", "Time", "Power"})
     public static void command(Direction direction, double time, double power) {
-        org.edu_nation.easy_ftc.mechanism.Arm arm =
-                new org.edu_nation.easy_ftc.mechanism.Arm.Builder(linearOpMode, hardwareMap)
-                        .build();
-        arm.command(direction, time, power);
+        instance().command(direction, time, power);
     }
 
     @ExportToBlocks(
@@ -23,21 +20,13 @@ public class Arm extends BlocksOpModeCompanion {
                     "Enable teleoperated arm movement with gamepad (lb, rb) at the specified power",
             parameterLabels = {"Power"})
     public static void control(double power) {
-        org.edu_nation.easy_ftc.mechanism.Arm arm =
-                new org.edu_nation.easy_ftc.mechanism.Arm.Builder(linearOpMode, hardwareMap)
-                        .gamepad(gamepad1)
-                        .build();
-        arm.control(power);
+        instance().control(power);
     }
 
     @ExportToBlocks(
             comment = "Enable teleoperated arm movement with gamepad (lb, rb) at a power of 0.5")
     public static void control() {
-        org.edu_nation.easy_ftc.mechanism.Arm arm =
-                new org.edu_nation.easy_ftc.mechanism.Arm.Builder(linearOpMode, hardwareMap)
-                        .gamepad(gamepad1)
-                        .build();
-        arm.control();
+        instance().control();
     }
 
     @ExportToBlocks(comment = "Return the UP Direction")
@@ -49,4 +38,16 @@ public class Arm extends BlocksOpModeCompanion {
     public static Direction DOWN() {
         return Direction.DOWN;
     }
+
+    /** Return the current OpMode's arm, building it on first use */
+    static org.edu_nation.easy_ftc.mechanism.Arm instance() {
+        return Instances.get(linearOpMode, org.edu_nation.easy_ftc.mechanism.Arm.class, Arm::build);
+    }
+
+    /** Build the arm controlled by gamepad1 */
+    private static org.edu_nation.easy_ftc.mechanism.Arm build() {
+        return new org.edu_nation.easy_ftc.mechanism.Arm.Builder(linearOpMode, hardwareMap)
+                .gamepad(gamepad1)
+                .build();
+    }
 }
@@ -12,19 +12,12 @@ public class Claw extends BlocksOpModeCompanion {
             comment = "Initiate an automated claw movement",
             parameterLabels = {"Power", "Direction", "Time"})
     public static void command(Direction direction) {
-        org.edu_nation.easy_ftc.mechanism.Claw claw =
-                new org.edu_nation.easy_ftc.mechanism.Claw.Builder(linearOpMode, hardwareMap)
-                        .build();
-        claw.command(direction);
+        instance().command(direction);
     }
 
     @ExportToBlocks(comment = "Enable teleoperated claw movement with gamepad (b, a)")
     public static void control() {
-        org.edu_nation.easy_ftc.mechanism.Claw claw =
-                new org.edu_nation.easy_ftc.mechanism.Claw.Builder(linearOpMode, hardwareMap)
-                        .gamepad(gamepad1)
-                        .build();
-        claw.control();
+        instance().control();
     }
 
     @ExportToBlocks(comment = "Return the OPEN Direction")
@@ -36,4 +29,17 @@ public class Claw extends BlocksOpModeCompanion {
     public static Direction CLOSE() {
         return Direction.CLOSE;
     }
+
+    /** Return the current OpMode's claw, building it on first use */
+    static org.edu_nation.easy_ftc.mechanism.Claw instance() {
+        return Instances.get(
+                linearOpMode, org.edu_nation.easy_ftc.mechanism.Claw.class, Claw::build);
+    }
+
+    /** Build the claw controlled by gamepad1 */
+    private static org.edu_nation.easy_ftc.mechanism.Claw build() {
+        return new org.edu_nation.easy_ftc.mechanism.Claw.Builder(linearOpMode, hardwareMap)
+                .gamepad(gamepad1)
+                .build();
+    }
 }
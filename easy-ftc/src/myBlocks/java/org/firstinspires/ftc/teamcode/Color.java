@@ -10,9 +10,21 @@ import org.firstinspires.ftc.robotcore.external.ExportToBlocks;
 public class Color extends BlocksOpModeCompanion {
     @ExportToBlocks(comment = "Return color sensor state (color of detection, one of RGB or null)")
     public static RGB state() {
-        org.edu_nation.easy_ftc.sensor.Color color =
-                new org.edu_nation.easy_ftc.sensor.Color.Builder(hardwareMap).build();
-        return color.state();
+        return instance().state();
+    }
+
+    @ExportToBlocks(
+            comment =
+                    "Return the name of the swatch matching color sensor state, or null if none do")
+    public static String getSwatch() {
+        return instance().getSwatch();
+    }
+
+    @ExportToBlocks(
+            comment = "Add a swatch from the average of readings taken while held against a sample",
+            parameterLabels = {"Name", "Samples"})
+    public static void calibrate(String name, int samples) {
+        instance().calibrate(name, samples);
     }
 
     @ExportToBlocks(comment = "Return the RED RGB Color")
@@ -29,4 +41,15 @@ public class Color extends BlocksOpModeCompanion {
     public static RGB BLUE() {
         return RGB.BLUE;
     }
+
+    /** Return the current OpMode's color sensor, building it on first use */
+    static org.edu_nation.easy_ftc.sensor.Color instance() {
+        return Instances.get(
+                linearOpMode, org.edu_nation.easy_ftc.sensor.Color.class, Color::build);
+    }
+
+    /** Build the color sensor */
+    private static org.edu_nation.easy_ftc.sensor.Color build() {
+        return new org.edu_nation.easy_ftc.sensor.Color.Builder(hardwareMap).build();
+    }
 }
@@ -17,6 +17,11 @@ public class CommandSequence extends BlocksOpModeCompanion {
         sequence.control();
     }
 
+    @ExportToBlocks(comment = "Run the constructed sequence, blocking until it has completed")
+    public static void command(org.edu_nation.easy_ftc.mechanism.CommandSequence sequence) {
+        sequence.command();
+    }
+
     @ExportToBlocks(comment = "Construct a blank sequence of commands")
     public static org.edu_nation.easy_ftc.mechanism.CommandSequence CommandSequence() {
         return new org.edu_nation.easy_ftc.mechanism.CommandSequence();
@@ -30,8 +35,8 @@ public class CommandSequence extends BlocksOpModeCompanion {
             Arm.Direction direction,
             double time,
             double power) {
-        Arm arm = new Arm.Builder(linearOpMode, hardwareMap).gamepad(gamepad1).build();
-        return sequence.command(arm, direction, time, power);
+        return sequence.command(
+                org.firstinspires.ftc.teamcode.Arm.instance(), direction, time, power);
     }
 
     @ExportToBlocks(
@@ -39,8 +44,7 @@ public class CommandSequence extends BlocksOpModeCompanion {
             parameterLabels = {"CommandSequence", "Direction"})
     public static org.edu_nation.easy_ftc.mechanism.CommandSequence commandClaw(
             org.edu_nation.easy_ftc.mechanism.CommandSequence sequence, Claw.Direction direction) {
-        Claw claw = new Claw.Builder(linearOpMode, hardwareMap).gamepad(gamepad1).build();
-        return sequence.command(claw, direction);
+        return sequence.command(org.firstinspires.ftc.teamcode.Claw.instance(), direction);
     }
 
     @ExportToBlocks(
@@ -51,8 +55,8 @@ public class CommandSequence extends BlocksOpModeCompanion {
             Drive.Direction direction,
             double time,
             double power) {
-        Drive drive = new Drive.Builder(linearOpMode, hardwareMap).gamepad(gamepad1).build();
-        return sequence.command(drive, direction, time, power);
+        return sequence.command(
+                org.firstinspires.ftc.teamcode.Drive.instance(), direction, time, power);
     }
 
     @ExportToBlocks(
@@ -64,8 +68,8 @@ public class CommandSequence extends BlocksOpModeCompanion {
             double angle,
             double power,
             AngleUnit unit) {
-        Drive drive = new Drive.Builder(linearOpMode, hardwareMap).gamepad(gamepad1).build();
-        return sequence.command(drive, direction, angle, power, unit);
+        return sequence.command(
+                org.firstinspires.ftc.teamcode.Drive.instance(), direction, angle, power, unit);
     }
 
     @ExportToBlocks(
@@ -76,8 +80,8 @@ public class CommandSequence extends BlocksOpModeCompanion {
             Intake.Direction direction,
             double time,
             double power) {
-        Intake intake = new Intake.Builder(linearOpMode, hardwareMap).gamepad(gamepad1).build();
-        return sequence.command(intake, direction, time, power);
+        return sequence.command(
+                org.firstinspires.ftc.teamcode.Intake.instance(), direction, time, power);
     }
 
     @ExportToBlocks(
@@ -88,8 +92,8 @@ public class CommandSequence extends BlocksOpModeCompanion {
             Lift.Direction direction,
             double time,
             double power) {
-        Lift lift = new Lift.Builder(linearOpMode, hardwareMap).gamepad(gamepad1).build();
-        return sequence.command(lift, direction, time, power);
+        return sequence.command(
+                org.firstinspires.ftc.teamcode.Lift.instance(), direction, time, power);
     }
 
     @ExportToBlocks(
@@ -98,7 +102,36 @@ public class CommandSequence extends BlocksOpModeCompanion {
     public static org.edu_nation.easy_ftc.mechanism.CommandSequence commandTrigger(
             org.edu_nation.easy_ftc.mechanism.CommandSequence sequence,
             Trigger.Direction direction) {
-        Trigger trigger = new Trigger.Builder(linearOpMode, hardwareMap).gamepad(gamepad1).build();
-        return sequence.command(trigger, direction);
+        return sequence.command(org.firstinspires.ftc.teamcode.Trigger.instance(), direction);
+    }
+
+    @ExportToBlocks(
+            comment = "Add two sequences that run together, finishing once both have finished",
+            parameterLabels = {"CommandSequence", "First", "Second"})
+    public static org.edu_nation.easy_ftc.mechanism.CommandSequence parallel(
+            org.edu_nation.easy_ftc.mechanism.CommandSequence sequence,
+            org.edu_nation.easy_ftc.mechanism.CommandSequence first,
+            org.edu_nation.easy_ftc.mechanism.CommandSequence second) {
+        return sequence.parallel(first, second);
+    }
+
+    @ExportToBlocks(
+            comment = "Add two sequences that run together, finishing once either has finished",
+            parameterLabels = {"CommandSequence", "First", "Second"})
+    public static org.edu_nation.easy_ftc.mechanism.CommandSequence race(
+            org.edu_nation.easy_ftc.mechanism.CommandSequence sequence,
+            org.edu_nation.easy_ftc.mechanism.CommandSequence first,
+            org.edu_nation.easy_ftc.mechanism.CommandSequence second) {
+        return sequence.race(first, second);
+    }
+
+    @ExportToBlocks(
+            comment = "Add two sequences that run together, finishing once the deadline has finished",
+            parameterLabels = {"CommandSequence", "Deadline", "Other"})
+    public static org.edu_nation.easy_ftc.mechanism.CommandSequence deadline(
+            org.edu_nation.easy_ftc.mechanism.CommandSequence sequence,
+            org.edu_nation.easy_ftc.mechanism.CommandSequence deadline,
+            org.edu_nation.easy_ftc.mechanism.CommandSequence other) {
+        return sequence.deadline(deadline, other);
     }
 }
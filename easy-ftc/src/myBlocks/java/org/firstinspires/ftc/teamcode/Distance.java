@@ -11,8 +11,22 @@ public class Distance extends BlocksOpModeCompanion {
             comment =
                     "Return distance sensor state (whether an object is within the distance cutoff)")
     public static boolean state() {
-        org.edu_nation.easy_ftc.sensor.Distance distance =
-                new org.edu_nation.easy_ftc.sensor.Distance.Builder(hardwareMap).build();
-        return distance.state();
+        return instance().state();
+    }
+
+    @ExportToBlocks(comment = "Return the filtered distance to the nearest object in cm")
+    public static double getDistance() {
+        return instance().getDistance();
+    }
+
+    /** Return the current OpMode's distance sensor, building it on first use */
+    static org.edu_nation.easy_ftc.sensor.Distance instance() {
+        return Instances.get(
+                linearOpMode, org.edu_nation.easy_ftc.sensor.Distance.class, Distance::build);
+    }
+
+    /** Build the distance sensor */
+    private static org.edu_nation.easy_ftc.sensor.Distance build() {
+        return new org.edu_nation.easy_ftc.sensor.Distance.Builder(hardwareMap).build();
     }
 }
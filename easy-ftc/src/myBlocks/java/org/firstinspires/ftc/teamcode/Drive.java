@@ -13,20 +13,14 @@ public class Drive extends BlocksOpModeCompanion {
             comment = "Initiate an automated drivetrain movement",
             parameterLabels = {"Direction", "Time", "Power"})
     public static void command(Direction direction, double time, double power) {
-        org.edu_nation.easy_ftc.mechanism.Drive drive =
-                new org.edu_nation.easy_ftc.mechanism.Drive.Builder(linearOpMode, hardwareMap)
-                        .build();
-        drive.command(direction, time, power);
+        instance().command(direction, time, power);
     }
 
     @ExportToBlocks(
             comment = "Initiate an automated drivetrain rotation by angle",
             parameterLabels = {"Direction", "Angle", "Power", "Unit"})
     public static void command(Direction direction, double angle, double power, AngleUnit unit) {
-        org.edu_nation.easy_ftc.mechanism.Drive drive =
-                new org.edu_nation.easy_ftc.mechanism.Drive.Builder(linearOpMode, hardwareMap)
-                        .build();
-        drive.command(direction, angle, power, unit);
+        instance().command(direction, angle, power, unit);
     }
 
     @ExportToBlocks(
@@ -34,22 +28,14 @@ public class Drive extends BlocksOpModeCompanion {
                     "Enable teleoperated drivetrain movement with gamepad (joysticks), scaling by multiplier",
             parameterLabels = {"Multiplier"})
     public static void control(double multiplier) {
-        org.edu_nation.easy_ftc.mechanism.Drive drive =
-                new org.edu_nation.easy_ftc.mechanism.Drive.Builder(linearOpMode, hardwareMap)
-                        .gamepad(gamepad1)
-                        .build();
-        drive.control(multiplier);
+        instance().control(multiplier);
     }
 
     @ExportToBlocks(
             comment =
                     "Enable teleoperated drivetrain movement with gamepad (joysticks), with multiplier = 1.0")
     public static void control() {
-        org.edu_nation.easy_ftc.mechanism.Drive drive =
-                new org.edu_nation.easy_ftc.mechanism.Drive.Builder(linearOpMode, hardwareMap)
-                        .gamepad(gamepad1)
-                        .build();
-        drive.control();
+        instance().control();
     }
 
     @ExportToBlocks(comment = "Return the FORWARD Direction")
@@ -101,4 +87,17 @@ public class Drive extends BlocksOpModeCompanion {
     public static Direction BACKWARD_RIGHT() {
         return Direction.BACKWARD_RIGHT;
     }
+
+    /** Return the current OpMode's drive, building it on first use */
+    static org.edu_nation.easy_ftc.mechanism.Drive instance() {
+        return Instances.get(
+                linearOpMode, org.edu_nation.easy_ftc.mechanism.Drive.class, Drive::build);
+    }
+
+    /** Build the drive controlled by gamepad1 */
+    private static org.edu_nation.easy_ftc.mechanism.Drive build() {
+        return new org.edu_nation.easy_ftc.mechanism.Drive.Builder(linearOpMode, hardwareMap)
+                .gamepad(gamepad1)
+                .build();
+    }
 }
@@ -0,0 +1,37 @@
+// SPDX-FileCopyrightText: Collegiate Edu-Nation
+// SPDX-License-Identifier: GPL-3.0-or-later
+
+package org.firstinspires.ftc.teamcode;
+
+import com.qualcomm.robotcore.eventloop.opmode.LinearOpMode;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Per-OpMode cache of the mechanisms and sensors used by the myBlocks companions. Blocks loops call
+ * the same companion method on every iteration, so each instance is built (and its hardware
+ * initialized) once, then reused until a different OpMode calls in
+ */
+final class Instances {
+    private static LinearOpMode owner;
+    private static final Map<Class<?>, Object> cache = new HashMap<>();
+
+    private Instances() {}
+
+    /** Return the current OpMode's instance of type, building it with factory on first use */
+    static synchronized <T> T get(LinearOpMode opMode, Class<T> type, Supplier<T> factory) {
+        // invalidate instances built for a previous OpMode (and its hardwareMap)
+        if (opMode != owner) {
+            cache.clear();
+            owner = opMode;
+        }
+
+        Object instance = cache.get(type);
+        if (instance == null) {
+            instance = factory.get();
+            cache.put(type, instance);
+        }
+        return type.cast(instance);
+    }
+}
@@ -12,10 +12,7 @@ public class Intake extends BlocksOpModeCompanion {
             comment = "Initiate an automated intake movement",
             parameterLabels = {"Direction", "Time", "Power"})
     public static void command(Direction direction, double time, double power) {
-        org.edu_nation.easy_ftc.mechanism.Intake intake =
-                new org.edu_nation.easy_ftc.mechanism.Intake.Builder(linearOpMode, hardwareMap)
-                        .build();
-        intake.command(direction, time, power);
+        instance().command(direction, time, power);
     }
 
     @ExportToBlocks(
@@ -23,22 +20,14 @@ public class Intake extends BlocksOpModeCompanion {
                     "Enable teleoperated intake movement with gamepad (dpadUp, dpadDown) at the specified power",
             parameterLabels = {"Power"})
     public static void control(double power) {
-        org.edu_nation.easy_ftc.mechanism.Intake intake =
-                new org.edu_nation.easy_ftc.mechanism.Intake.Builder(linearOpMode, hardwareMap)
-                        .gamepad(gamepad1)
-                        .build();
-        intake.control(power);
+        instance().control(power);
     }
 
     @ExportToBlocks(
             comment =
                     "Enable teleoperated intake movement with gamepad (dpadUp, dpadDown) at a power of 0.5")
     public static void control() {
-        org.edu_nation.easy_ftc.mechanism.Intake intake =
-                new org.edu_nation.easy_ftc.mechanism.Intake.Builder(linearOpMode, hardwareMap)
-                        .gamepad(gamepad1)
-                        .build();
-        intake.control();
+        instance().control();
     }
 
     @ExportToBlocks(comment = "Return the IN Direction")
@@ -50,4 +39,17 @@ public class Intake extends BlocksOpModeCompanion {
     public static Direction OUT() {
         return Direction.OUT;
     }
+
+    /** Return the current OpMode's intake, building it on first use */
+    static org.edu_nation.easy_ftc.mechanism.Intake instance() {
+        return Instances.get(
+                linearOpMode, org.edu_nation.easy_ftc.mechanism.Intake.class, Intake::build);
+    }
+
+    /** Build the intake controlled by gamepad1 */
+    private static org.edu_nation.easy_ftc.mechanism.Intake build() {
+        return new org.edu_nation.easy_ftc.mechanism.Intake.Builder(linearOpMode, hardwareMap)
+                .gamepad(gamepad1)
+                .build();
+    }
 }
@@ -12,10 +12,7 @@ public class Lift extends BlocksOpModeCompanion {
             comment = "Initiate an automated lift movement",
             parameterLabels = {"Direction", "Time", "Power"})
     public static void command(Direction direction, double time, double power) {
-        org.edu_nation.easy_ftc.mechanism.Lift lift =
-                new org.edu_nation.easy_ftc.mechanism.Lift.Builder(linearOpMode, hardwareMap)
-                        .build();
-        lift.command(direction, time, power);
+        instance().command(direction, time, power);
     }
 
     @ExportToBlocks(
@@ -23,22 +20,14 @@ public class Lift extends BlocksOpModeCompanion {
                     "Enable teleoperated lift movement with gamepad (lt, rt), scaling by multiplier",
             parameterLabels = {"Multiplier"})
     public static void control(double multiplier) {
-        org.edu_nation.easy_ftc.mechanism.Lift lift =
-                new org.edu_nation.easy_ftc.mechanism.Lift.Builder(linearOpMode, hardwareMap)
-                        .gamepad(gamepad1)
-                        .build();
-        lift.control(multiplier);
+        instance().control(multiplier);
     }
 
     @ExportToBlocks(
             comment =
                     "Enable teleoperated lift movement with gamepad (lt, rt), with multiplier = 1.0")
     public static void control() {
-        org.edu_nation.easy_ftc.mechanism.Lift lift =
-                new org.edu_nation.easy_ftc.mechanism.Lift.Builder(linearOpMode, hardwareMap)
-                        .gamepad(gamepad1)
-                        .build();
-        lift.control();
+        instance().control();
     }
 
     @ExportToBlocks(comment = "Return the UP Direction")
@@ -50,4 +39,17 @@ public class Lift extends BlocksOpModeCompanion {
     public static Direction DOWN() {
         return Direction.DOWN;
     }
+
+    /** Return the current OpMode's lift, building it on first use */
+    static org.edu_nation.easy_ftc.mechanism.Lift instance() {
+        return Instances.get(
+                linearOpMode, org.edu_nation.easy_ftc.mechanism.Lift.class, Lift::build);
+    }
+
+    /** Build the lift controlled by gamepad1 */
+    private static org.edu_nation.easy_ftc.mechanism.Lift build() {
+        return new org.edu_nation.easy_ftc.mechanism.Lift.Builder(linearOpMode, hardwareMap)
+                .gamepad(gamepad1)
+                .build();
+    }
 }
@@ -10,8 +10,39 @@ public class Touch extends BlocksOpModeCompanion {
     @ExportToBlocks(
             comment = "Return touch sensor state (whether the sensor has been pressed or not)")
     public static boolean state() {
-        org.edu_nation.easy_ftc.sensor.Touch touch =
-                new org.edu_nation.easy_ftc.sensor.Touch.Builder(hardwareMap).build();
-        return touch.state();
+        return instance().state();
+    }
+
+    @ExportToBlocks(
+            comment = "Return whether the touch sensor has been pressed since the last call")
+    public static boolean wasPressed() {
+        return instance().wasPressed();
+    }
+
+    @ExportToBlocks(
+            comment = "Return whether the touch sensor has been released since the last call")
+    public static boolean wasReleased() {
+        return instance().wasReleased();
+    }
+
+    @ExportToBlocks(comment = "Return how long the touch sensor has been held in s (0 if it isn't)")
+    public static double getPressDuration() {
+        return instance().getPressDuration();
+    }
+
+    @ExportToBlocks(comment = "Return how many times the touch sensor has been pressed")
+    public static long getPressCount() {
+        return instance().getPressCount();
+    }
+
+    /** Return the current OpMode's touch sensor, building it on first use */
+    static org.edu_nation.easy_ftc.sensor.Touch instance() {
+        return Instances.get(
+                linearOpMode, org.edu_nation.easy_ftc.sensor.Touch.class, Touch::build);
+    }
+
+    /** Build the touch sensor */
+    private static org.edu_nation.easy_ftc.sensor.Touch build() {
+        return new org.edu_nation.easy_ftc.sensor.Touch.Builder(hardwareMap).build();
     }
 }
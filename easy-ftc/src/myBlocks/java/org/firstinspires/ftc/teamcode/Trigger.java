@@ -12,19 +12,12 @@ public class Trigger extends BlocksOpModeCompanion {
             comment = "Initiate an automated trigger movement",
             parameterLabels = {"Power", "Direction", "Time"})
     public static void command(Direction direction) {
-        org.edu_nation.easy_ftc.mechanism.Trigger trigger =
-                new org.edu_nation.easy_ftc.mechanism.Trigger.Builder(linearOpMode, hardwareMap)
-                        .build();
-        trigger.command(direction);
+        instance().command(direction);
     }
 
     @ExportToBlocks(comment = "Enable teleoperated trigger movement with gamepad (y, x)")
     public static void control() {
-        org.edu_nation.easy_ftc.mechanism.Trigger trigger =
-                new org.edu_nation.easy_ftc.mechanism.Trigger.Builder(linearOpMode, hardwareMap)
-                        .gamepad(gamepad1)
-                        .build();
-        trigger.control();
+        instance().control();
     }
 
     @ExportToBlocks(comment = "Return the OPEN Direction")
@@ -36,4 +29,17 @@ public class Trigger extends BlocksOpModeCompanion {
     public static Direction CLOSE() {
         return Direction.CLOSE;
     }
+
+    /** Return the current OpMode's trigger, building it on first use */
+    static org.edu_nation.easy_ftc.mechanism.Trigger instance() {
+        return Instances.get(
+                linearOpMode, org.edu_nation.easy_ftc.mechanism.Trigger.class, Trigger::build);
+    }
+
+    /** Build the trigger controlled by gamepad1 */
+    private static org.edu_nation.easy_ftc.mechanism.Trigger build() {
+        return new org.edu_nation.easy_ftc.mechanism.Trigger.Builder(linearOpMode, hardwareMap)
+                .gamepad(gamepad1)
+                .build();
+    }
 }
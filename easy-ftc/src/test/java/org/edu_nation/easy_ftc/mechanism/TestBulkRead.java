@@ -0,0 +1,125 @@
+// SPDX-FileCopyrightText: Collegiate Edu-Nation
+// SPDX-License-Identifier: GPL-3.0-or-later
+
+package org.edu_nation.easy_ftc.mechanism;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import com.qualcomm.hardware.lynx.LynxModule;
+import com.qualcomm.robotcore.eventloop.opmode.LinearOpMode;
+import com.qualcomm.robotcore.hardware.DcMotorEx;
+import com.qualcomm.robotcore.hardware.HardwareMap;
+import com.qualcomm.robotcore.hardware.configuration.typecontainers.MotorConfigurationType;
+import java.util.Arrays;
+import org.junit.Test;
+
+public class TestBulkRead {
+    LinearOpMode mockedOpMode = mock(LinearOpMode.class);
+    HardwareMap mockedHardwareMap = mock(HardwareMap.class);
+    LynxModule mockedModule = mock(LynxModule.class);
+    DcMotorEx mockedMotorEx = mock(DcMotorEx.class);
+    MotorConfigurationType motorType = new MotorConfigurationType();
+
+    private void mockInit() {
+        when(mockedHardwareMap.getAll(LynxModule.class)).thenReturn(Arrays.asList(mockedModule));
+        when(mockedHardwareMap.get(DcMotorEx.class, "liftLeft")).thenReturn(mockedMotorEx);
+        when(mockedHardwareMap.get(DcMotorEx.class, "liftRight")).thenReturn(mockedMotorEx);
+        when(mockedMotorEx.getMotorType()).thenReturn(motorType);
+    }
+
+    @Test
+    public void of_isSharedPerHardwareMap() {
+        mockInit();
+
+        BulkRead bulkRead = BulkRead.of(mockedHardwareMap);
+        assertSame(bulkRead, BulkRead.of(mockedHardwareMap));
+        assertNotSame(bulkRead, BulkRead.of(mock(HardwareMap.class)));
+        verify(mockedModule).setBulkCachingMode(LynxModule.BulkCachingMode.AUTO);
+    }
+
+    @Test
+    public void whenHubsAreManual_modeIsKept() {
+        mockInit();
+        when(mockedModule.getBulkCachingMode()).thenReturn(LynxModule.BulkCachingMode.MANUAL);
+
+        BulkRead bulkRead = BulkRead.of(mockedHardwareMap);
+        bulkRead.clear();
+        verify(mockedModule, never()).setBulkCachingMode(LynxModule.BulkCachingMode.AUTO);
+        verify(mockedModule).clearBulkCache();
+    }
+
+    @Test
+    public void clear_onlyClearsHubsInManualMode() {
+        mockInit();
+
+        BulkRead bulkRead = BulkRead.of(mockedHardwareMap);
+        bulkRead.clear();
+        verify(mockedModule, never()).clearBulkCache();
+
+        bulkRead.mode(LynxModule.BulkCachingMode.MANUAL).clear();
+        verify(mockedModule).setBulkCachingMode(LynxModule.BulkCachingMode.MANUAL);
+        verify(mockedModule).clearBulkCache();
+    }
+
+    @Test
+    public void manualMode_readsMotorsOncePerCycle() {
+        mockInit();
+        when(mockedOpMode.opModeIsActive()).thenReturn(true);
+
+        Lift lift = new Lift.Builder(mockedOpMode, mockedHardwareMap).encoder().up(100).build();
+        BulkRead bulkRead = BulkRead.of(mockedHardwareMap).mode(LynxModule.BulkCachingMode.MANUAL);
+        Motion motion = lift.commandAsync(Lift.Direction.UP, 10, 0.5);
+
+        // both limit checks within a cycle share one read of each motor
+        motion.update();
+        motion.update();
+        verify(mockedMotorEx, times(2)).getCurrentPosition();
+
+        bulkRead.clear();
+        motion.update();
+        verify(mockedMotorEx, times(4)).getCurrentPosition();
+    }
+
+    @Test
+    public void autoMode_readsMotorsOncePerUpdate() {
+        mockInit();
+        when(mockedOpMode.opModeIsActive()).thenReturn(true);
+
+        Lift lift =
+                new Lift.Builder(mockedOpMode, mockedHardwareMap)
+                        .encoder()
+                        .diameter(2)
+                        .maxVelocity(10)
+                        .maxAcceleration(20)
+                        .up(100)
+                        .build();
+        Motion motion = lift.commandAsync(Lift.Direction.UP, 10, 0.5);
+        verify(mockedMotorEx, times(2)).getCurrentPosition();
+
+        // the limit check and the profile share one read of each motor per update, without clear()
+        motion.update();
+        verify(mockedMotorEx, times(4)).getCurrentPosition();
+        motion.update();
+        verify(mockedMotorEx, times(6)).getCurrentPosition();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void whenOffMode_modeThrowsException() {
+        mockInit();
+
+        BulkRead.of(mockedHardwareMap).mode(LynxModule.BulkCachingMode.OFF);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void whenNullMode_modeThrowsException() {
+        mockInit();
+
+        BulkRead.of(mockedHardwareMap).mode(null);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void whenNullHardwareMap_ofThrowsException() {
+        BulkRead.of(null);
+    }
+}
@@ -200,6 +200,121 @@ public class TestClaw {
         }
     }
 
+    @Test
+    public void commandAsync_isNonBlocking() {
+        mockInit();
+        when(mockedOpMode.opModeIsActive()).thenReturn(true);
+
+        // normal movement is written right away, then given delay to complete
+        Claw claw = new Claw.Builder(mockedOpMode, mockedHardwareMap).build();
+        Motion motion = claw.commandAsync(Claw.Direction.OPEN);
+        verify(mockedClaw).setPosition(1.0);
+        motion.update();
+        assertFalse(motion.isDone());
+
+        // smooth movement takes one increment per incrementDelay
+        Claw clawSmooth =
+                new Claw.Builder(mockedOpMode, mockedHardwareMap)
+                        .smooth()
+                        .increment(0.5)
+                        .incrementDelay(10)
+                        .build();
+        Motion motionSmooth = clawSmooth.commandAsync(Claw.Direction.OPEN);
+        motionSmooth.update();
+        motionSmooth.update();
+        verify(mockedClaw, times(1)).setPosition(0.5);
+        assertFalse(motionSmooth.isDone());
+        motionSmooth.cancel();
+        assertTrue(motionSmooth.isDone());
+    }
+
+    @Test
+    public void controlSmooth_slewsWithoutBlocking() {
+        mockInit();
+        mockedGamepad.b = true;
+
+        // the first call moves one increment, later ones only as far as the time since allows
+        Claw claw =
+                new Claw.Builder(mockedOpMode, mockedHardwareMap)
+                        .smooth()
+                        .increment(0.5)
+                        .incrementDelay(10)
+                        .gamepad(mockedGamepad)
+                        .build();
+        long start = System.nanoTime();
+        claw.control();
+        claw.control();
+        assertTrue(System.nanoTime() - start < 1e9);
+        verify(mockedClaw, times(1)).setPosition(0.5);
+        verify(mockedClaw, never()).setPosition(1.0);
+    }
+
+    @Test
+    public void control_skipsRedundantWrites() {
+        mockInit();
+
+        Claw claw =
+                new Claw.Builder(mockedOpMode, mockedHardwareMap).gamepad(mockedGamepad).build();
+
+        // idle loops only write the first time, and read the position until then
+        claw.control();
+        claw.control();
+        claw.control();
+        verify(mockedClaw, times(1)).getPosition();
+        verify(mockedClaw, times(1)).setPosition(0.0);
+
+        mockedGamepad.b = true;
+        claw.control();
+        claw.control();
+        verify(mockedClaw, times(1)).setPosition(1.0);
+        assertEquals(2, claw.getWriteCount());
+    }
+
+    @Test
+    public void commandAsync_waitsForTravelTime() {
+        mockInit();
+        when(mockedOpMode.opModeIsActive()).thenReturn(true);
+
+        // the wait scales with the distance moved, after any movement in progress
+        Claw claw =
+                new Claw.Builder(mockedOpMode, mockedHardwareMap).travelTime(10, 0.5).build();
+        claw.commandAsync(Claw.Direction.OPEN);
+        assertTrue(claw.getTimeRemaining() > 10 && claw.getTimeRemaining() <= 10.5);
+        Motion motion = claw.commandAsync(Claw.Direction.CLOSE);
+        assertTrue(claw.getTimeRemaining() > 20.5 && claw.getTimeRemaining() <= 21);
+        motion.update();
+        assertFalse(motion.isDone());
+
+        // moving nowhere takes no time
+        Claw clawStill =
+                new Claw.Builder(mockedOpMode, mockedHardwareMap).travelTime(10, 0).build();
+        Motion motionStill = clawStill.commandAsync(Claw.Direction.CLOSE);
+        motionStill.update();
+        assertTrue(motionStill.isDone());
+        assertEquals(0, clawStill.getTimeRemaining(), 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void travelTimeThrowsException() {
+        mockInit();
+
+        new Claw.Builder(mockedOpMode, mockedHardwareMap).travelTime(0, 0).build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void settleTimeThrowsException() {
+        mockInit();
+
+        new Claw.Builder(mockedOpMode, mockedHardwareMap).travelTime(1, -1).build();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void whenSmooth_travelTimeThrowsException() {
+        mockInit();
+
+        new Claw.Builder(mockedOpMode, mockedHardwareMap).smooth().travelTime(1, 0).build();
+    }
+
     @Test(expected = IllegalArgumentException.class)
     public void reverseDual_ThrowsException() {
         mockInit();
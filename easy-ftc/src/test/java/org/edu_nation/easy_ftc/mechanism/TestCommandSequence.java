@@ -25,6 +25,7 @@ public class TestCommandSequence {
     DcMotorEx mockedMotorEx = mock(DcMotorEx.class);
     MotorConfigurationType motorType = new MotorConfigurationType();
     Servo mockedClaw = mock(Servo.class);
+    DcMotor mockedLiftMotor = mock(DcMotor.class);
 
     private void mockInit() {
         when(mockedHardwareMap.get(DcMotor.class, "driveLeft")).thenReturn(mockedMotor);
@@ -46,6 +47,7 @@ public class TestCommandSequence {
         when(mockedHardwareMap.get(Servo.class, "clawRight")).thenReturn(mockedClaw);
         when(mockedHardwareMap.get(Servo.class, "claw")).thenReturn(mockedClaw);
         when(mockedClaw.getPosition()).thenReturn(0.0);
+        when(mockedHardwareMap.get(DcMotor.class, "lift")).thenReturn(mockedLiftMotor);
     }
 
     @Test
@@ -98,6 +100,174 @@ public class TestCommandSequence {
         }
     }
 
+    @Test
+    public void control_runsOncePerPress() {
+        mockInit();
+        when(mockedOpMode.opModeIsActive()).thenReturn(true);
+
+        Lift lift =
+                new Lift.Builder(mockedOpMode, mockedHardwareMap).gamepad(mockedGamepad).build();
+        CommandSequence sequence = new CommandSequence().command(lift, Lift.Direction.UP, 0, 1);
+
+        // holding dpad_right runs the sequence once
+        mockedGamepad.dpad_right = true;
+        sequence.control();
+        sequence.control();
+        sequence.control();
+        verify(mockedLiftMotor, times(1)).setPower(1.0);
+
+        // pressing it again runs it again
+        mockedGamepad.dpad_right = false;
+        sequence.control();
+        mockedGamepad.dpad_right = true;
+        sequence.control();
+        verify(mockedLiftMotor, times(2)).setPower(1.0);
+    }
+
+    @Test
+    public void control_tracksEveryMechanism() {
+        mockInit();
+        when(mockedOpMode.opModeIsActive()).thenReturn(true);
+
+        Lift lift =
+                new Lift.Builder(mockedOpMode, mockedHardwareMap).gamepad(mockedGamepad).build();
+        Drive drive = spy(new Drive.Builder(mockedOpMode, mockedHardwareMap).build());
+        CommandSequence sequence =
+                new CommandSequence()
+                        .command(lift, Lift.Direction.UP, 0, 1)
+                        .parallel(
+                                new CommandSequence()
+                                        .command(drive, Drive.Direction.FORWARD, 0, 1));
+
+        // the drive is tracked even though the sequence's first mechanism is the lift
+        sequence.command();
+        verify(drive, atLeastOnce()).track();
+
+        clearInvocations(drive);
+        mockedGamepad.dpad_right = true;
+        sequence.control();
+        verify(drive, atLeastOnce()).track();
+    }
+
+    @Test
+    public void parallel_waitsForAllMembers() {
+        mockInit();
+        when(mockedOpMode.opModeIsActive()).thenReturn(true);
+
+        Drive drive = new Drive.Builder(mockedOpMode, mockedHardwareMap).build();
+        Lift lift = new Lift.Builder(mockedOpMode, mockedHardwareMap).build();
+        Motion motion =
+                new CommandSequence()
+                        .parallel(
+                                new CommandSequence()
+                                        .command(drive, Drive.Direction.FORWARD, 10, 1),
+                                new CommandSequence().command(lift, Lift.Direction.UP, 0, 1))
+                        .commandAsync();
+
+        // both members start together, and the lift finishes while the drive keeps going
+        verify(mockedMotor, times(2)).setPower(1.0);
+        verify(mockedLiftMotor).setPower(1.0);
+        motion.update();
+        verify(mockedLiftMotor).setPower(0.0);
+        assertFalse(motion.isDone());
+
+        motion.cancel();
+        verify(mockedMotor, times(2)).setPower(0.0);
+        assertTrue(motion.isDone());
+    }
+
+    @Test
+    public void race_cancelsRemainingMembers() {
+        mockInit();
+        when(mockedOpMode.opModeIsActive()).thenReturn(true);
+
+        Drive drive = new Drive.Builder(mockedOpMode, mockedHardwareMap).build();
+        Lift lift = new Lift.Builder(mockedOpMode, mockedHardwareMap).build();
+        Motion motion =
+                new CommandSequence()
+                        .race(
+                                new CommandSequence()
+                                        .command(drive, Drive.Direction.FORWARD, 10, 1),
+                                new CommandSequence().command(lift, Lift.Direction.UP, 0, 1))
+                        .commandAsync();
+
+        motion.update();
+        assertTrue(motion.isDone());
+        verify(mockedMotor, times(2)).setPower(0.0);
+    }
+
+    @Test
+    public void deadline_endsWithDeadline() {
+        mockInit();
+        when(mockedOpMode.opModeIsActive()).thenReturn(true);
+
+        Drive drive = new Drive.Builder(mockedOpMode, mockedHardwareMap).build();
+        Lift lift = new Lift.Builder(mockedOpMode, mockedHardwareMap).build();
+        CommandSequence lifting = new CommandSequence().command(lift, Lift.Direction.UP, 0, 1);
+        CommandSequence driving =
+                new CommandSequence().command(drive, Drive.Direction.FORWARD, 10, 1);
+
+        Motion motion = new CommandSequence().deadline(driving, lifting).commandAsync();
+        motion.update();
+        assertFalse(motion.isDone());
+        motion.cancel();
+
+        motion = new CommandSequence().deadline(lifting, driving).commandAsync();
+        motion.update();
+        assertTrue(motion.isDone());
+    }
+
+    @Test
+    public void commandAsync_runsLongSequences() {
+        mockInit();
+        when(mockedOpMode.opModeIsActive()).thenReturn(true);
+
+        Lift lift = new Lift.Builder(mockedOpMode, mockedHardwareMap).build();
+        CommandSequence sequence = new CommandSequence();
+        for (int i = 0; i < 100; i++) {
+            sequence.command(lift, Lift.Direction.UP, 0, 1);
+        }
+
+        // steps that finish instantly all run within one update
+        Motion motion = sequence.commandAsync();
+        motion.update();
+        assertTrue(motion.isDone());
+        verify(mockedLiftMotor, times(100)).setPower(1.0);
+
+        // steps added afterwards are compiled into the next run
+        sequence.command(lift, Lift.Direction.UP, 0, 1);
+        sequence.commandAsync().update();
+        verify(mockedLiftMotor, times(201)).setPower(1.0);
+    }
+
+    @Test
+    public void command_runsSequence() {
+        mockInit();
+
+        try {
+            Drive drive = new Drive.Builder(mockedOpMode, mockedHardwareMap).build();
+            Claw claw = new Claw.Builder(mockedOpMode, mockedHardwareMap).build();
+            new CommandSequence()
+                    .command(drive, Drive.Direction.FORWARD, 2, 0.5)
+                    .parallel(
+                            new CommandSequence().command(drive, Drive.Direction.BACKWARD, 2, 0.5),
+                            new CommandSequence().command(claw, Claw.Direction.OPEN))
+                    .command();
+        } catch (Exception e) {
+            fail(e.getMessage());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void parallel_throwsExceptionWhenEmpty() {
+        new CommandSequence().parallel();
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void race_throwsExceptionWhenNull() {
+        new CommandSequence().race(new CommandSequence(), null);
+    }
+
     @Test
     public void CommandSequence_angularType() {
         mockInit();
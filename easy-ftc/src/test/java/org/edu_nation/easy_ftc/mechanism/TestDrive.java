@@ -4,6 +4,7 @@
 package org.edu_nation.easy_ftc.mechanism;
 
 import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
 import static org.mockito.Mockito.*;
 
 import com.qualcomm.hardware.rev.RevHubOrientationOnRobot.LogoFacingDirection;
@@ -13,12 +14,16 @@ import com.qualcomm.robotcore.hardware.DcMotor;
 import com.qualcomm.robotcore.hardware.DcMotorEx;
 import com.qualcomm.robotcore.hardware.Gamepad;
 import com.qualcomm.robotcore.hardware.HardwareMap;
+import com.qualcomm.robotcore.hardware.IMU;
 import com.qualcomm.robotcore.hardware.configuration.typecontainers.MotorConfigurationType;
+import com.sun.management.ThreadMXBean;
+import java.lang.management.ManagementFactory;
 import org.apache.commons.lang3.reflect.FieldUtils;
 import org.edu_nation.easy_ftc.mechanism.Drive.Direction;
 import org.edu_nation.easy_ftc.mechanism.Drive.Layout;
 import org.edu_nation.easy_ftc.mechanism.Drive.Type;
 import org.firstinspires.ftc.robotcore.external.navigation.AngleUnit;
+import org.firstinspires.ftc.robotcore.external.navigation.YawPitchRollAngles;
 import org.junit.Test;
 
 public class TestDrive {
@@ -28,6 +33,7 @@ public class TestDrive {
     DcMotor mockedMotor = mock(DcMotor.class);
     DcMotorEx mockedMotorEx = mock(DcMotorEx.class);
     MotorConfigurationType motorType = new MotorConfigurationType();
+    IMU mockedImu = mock(IMU.class);
 
     private void mockInit() {
         when(mockedHardwareMap.get(DcMotor.class, "driveLeft")).thenReturn(mockedMotor);
@@ -46,6 +52,10 @@ public class TestDrive {
         when(mockedMotorEx.isBusy()).thenReturn(true, false);
     }
 
+    private YawPitchRollAngles yaw(double degrees, long ms) {
+        return new YawPitchRollAngles(AngleUnit.DEGREES, degrees, 0, 0, ms * 1000000);
+    }
+
     @Test
     public void Drive_initializes() {
         mockInit();
@@ -236,6 +246,82 @@ public class TestDrive {
         }
     }
 
+    @Test
+    public void controlField_readsImuOncePerCall() throws IllegalAccessException {
+        mockInit();
+        when(mockedHardwareMap.get(IMU.class, "imu")).thenReturn(mockedImu);
+        when(mockedImu.getRobotYawPitchRollAngles()).thenReturn(yaw(0, 10));
+
+        Drive drive =
+                new Drive.Builder(mockedOpMode, mockedHardwareMap)
+                        .type(Type.MECANUM)
+                        .layout(Layout.FIELD)
+                        .encoder()
+                        .diameter(4)
+                        .metrics()
+                        .gamepad(mockedGamepad)
+                        .build();
+        FieldUtils.writeField(drive, "distanceMultiplier", 100.0, true);
+        drive.getPose();
+
+        // tracking and field-centric control share one read per call in the default AUTO mode
+        drive.control();
+        drive.control();
+        Metrics metrics = drive.getMetrics();
+        assertEquals(2, metrics.transactions(Metrics.Call.CONTROL, Metrics.Transaction.IMU_READ));
+    }
+
+    @Test
+    public void commandToPose_readsImuOncePerCycle() throws IllegalAccessException {
+        mockInit();
+        when(mockedOpMode.opModeIsActive()).thenReturn(true);
+        when(mockedHardwareMap.get(IMU.class, "imu")).thenReturn(mockedImu);
+        when(mockedImu.getRobotYawPitchRollAngles()).thenReturn(yaw(0, 10));
+
+        Drive drive =
+                new Drive.Builder(mockedOpMode, mockedHardwareMap)
+                        .type(Type.MECANUM)
+                        .encoder()
+                        .diameter(4)
+                        .metrics()
+                        .build();
+        FieldUtils.writeField(drive, "distanceMultiplier", 100.0, true);
+
+        // one read to start the motion, then one per cycle shared by the step and tracking
+        drive.commandToPose(0, 0, 0, 1.0, AngleUnit.DEGREES);
+        Metrics metrics = drive.getMetrics();
+        assertEquals(2, metrics.transactions(Metrics.Call.COMMAND, Metrics.Transaction.IMU_READ));
+    }
+
+    @Test
+    public void controlField_resetsYawOncePerPress() {
+        mockInit();
+        when(mockedHardwareMap.get(IMU.class, "imu")).thenReturn(mockedImu);
+        when(mockedImu.getRobotYawPitchRollAngles()).thenReturn(yaw(0, 10));
+
+        Drive drive =
+                new Drive.Builder(mockedOpMode, mockedHardwareMap)
+                        .type(Type.MECANUM)
+                        .layout(Layout.FIELD)
+                        .gamepad(mockedGamepad)
+                        .build();
+        drive.control();
+        clearInvocations(mockedImu);
+
+        // holding options resets once, and pressing it again resets again
+        mockedGamepad.options = true;
+        drive.control();
+        drive.control();
+        drive.control();
+        verify(mockedImu, times(1)).resetYaw();
+
+        mockedGamepad.options = false;
+        drive.control();
+        mockedGamepad.options = true;
+        drive.control();
+        verify(mockedImu, times(2)).resetYaw();
+    }
+
     @Test
     public void commandDif_isCalled() {
         mockInit();
@@ -284,6 +370,87 @@ public class TestDrive {
         }
     }
 
+    @Test
+    public void commandAsync_isNonBlocking() {
+        mockInit();
+        when(mockedOpMode.opModeIsActive()).thenReturn(true);
+
+        Drive drive = new Drive.Builder(mockedOpMode, mockedHardwareMap).build();
+        Drive drivePos =
+                new Drive.Builder(mockedOpMode, mockedHardwareMap).encoder().diameter(4).build();
+
+        // time-based movement runs until cancelled
+        Motion motion = drive.commandAsync(Direction.FORWARD, 10, 0.5);
+        motion.update();
+        assertFalse(motion.isDone());
+        motion.cancel();
+        assertTrue(motion.isDone());
+
+        // distance-based movement finishes once the motors are no longer busy
+        Motion motionPos = drivePos.commandAsync(Direction.FORWARD, 12, 0.5);
+        motionPos.update();
+        assertFalse(motionPos.isDone());
+        motionPos.update();
+        assertTrue(motionPos.isDone());
+    }
+
+    @Test
+    public void commandAsync_isDoneWhenOpModeInactive() {
+        mockInit();
+
+        Drive drive = new Drive.Builder(mockedOpMode, mockedHardwareMap).build();
+        Motion motion = drive.commandAsync(Direction.FORWARD, 10, 0.5);
+        motion.update();
+        assertTrue(motion.isDone());
+    }
+
+    @Test
+    public void control_doesNotAllocateInSteadyState() {
+        mockInit();
+        ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported());
+        long id = Thread.currentThread().getId();
+
+        // FIELD is excluded, since reading the IMU's heading allocates inside the SDK
+        Drive[] drives = {
+            new Drive.Builder(mockedOpMode, mockedHardwareMap).gamepad(mockedGamepad).build(),
+            new Drive.Builder(mockedOpMode, mockedHardwareMap)
+                    .layout(Layout.ARCADE)
+                    .gamepad(mockedGamepad)
+                    .build(),
+            new Drive.Builder(mockedOpMode, mockedHardwareMap)
+                    .type(Type.MECANUM)
+                    .layout(Layout.ROBOT)
+                    .deadzone(0.1)
+                    .gamepad(mockedGamepad)
+                    .build()
+        };
+        mockedGamepad.left_stick_y = -0.5f;
+        mockedGamepad.left_stick_x = 0.25f;
+        mockedGamepad.right_stick_y = -0.5f;
+        mockedGamepad.right_stick_x = 0.25f;
+
+        for (Drive drive : drives) {
+            for (int i = 0; i < 10000; i++) {
+                drive.control(0.8);
+            }
+
+            // subtract the cost of measuring, keeping the quietest of a few rounds
+            long allocated = Long.MAX_VALUE;
+            for (int round = 0; round < 3; round++) {
+                long before = threads.getThreadAllocatedBytes(id);
+                long overhead = threads.getThreadAllocatedBytes(id) - before;
+                before = threads.getThreadAllocatedBytes(id);
+                for (int i = 0; i < 1000; i++) {
+                    drive.control(0.8);
+                }
+                long measured = threads.getThreadAllocatedBytes(id) - before - overhead;
+                allocated = Math.min(allocated, measured);
+            }
+            assertEquals(0, allocated);
+        }
+    }
+
     @Test(expected = IllegalArgumentException.class)
     public void commandGyro_throwsException() {
         mockInit();
@@ -293,20 +460,242 @@ public class TestDrive {
     }
 
     @Test
-    public void moveForMeasurementGyro_isCalled() {
+    public void commandAsyncGyro_settlesAcrossWrap() {
         mockInit();
+        when(mockedOpMode.opModeIsActive()).thenReturn(true);
+        when(mockedHardwareMap.get(IMU.class, "imu")).thenReturn(mockedImu);
+
+        // yaw wraps from +180 to -180 partway through a 270 degree turn
+        when(mockedImu.getRobotYawPitchRollAngles())
+                .thenReturn(
+                        yaw(0, 10),
+                        yaw(120, 20),
+                        yaw(179, 30),
+                        yaw(-120, 40),
+                        yaw(-90.5, 50),
+                        yaw(-90.5, 60));
 
         Drive drive = new Drive.Builder(mockedOpMode, mockedHardwareMap).build();
-        Drive mockedDrive = spy(drive);
-        doReturn(false).when(mockedDrive).gyroIsBusy(90);
-        double[] movements = {1, 0};
+        Motion motion = drive.commandAsync(Direction.ROTATE_LEFT, 270, 1.0, AngleUnit.DEGREES);
+        for (int i = 0; i < 4; i++) {
+            motion.update();
+            assertFalse(motion.isDone());
+        }
+
+        // settles once both the error and the rate are within tolerance
+        motion.update();
+        assertTrue(motion.isDone());
+        verify(mockedMotor, atLeastOnce()).setPower(1.0);
+        verify(mockedMotor, atLeastOnce()).setPower(0.0);
+    }
+
+    @Test
+    public void commandGyro_isDoneWhenOpModeInactive() {
+        mockInit();
+        when(mockedHardwareMap.get(IMU.class, "imu")).thenReturn(mockedImu);
+        when(mockedImu.getRobotYawPitchRollAngles()).thenReturn(yaw(0, 10));
 
+        Drive drive = new Drive.Builder(mockedOpMode, mockedHardwareMap).build();
         try {
-            mockedDrive.moveForMeasurement(movements, 90, 0.5, AngleUnit.DEGREES, false);
-            mockedDrive.moveForMeasurement(movements, Math.PI / 2, 0.5, AngleUnit.RADIANS, false);
+            drive.command(Direction.ROTATE_RIGHT, 90, 0.5, AngleUnit.DEGREES);
+            drive.command(Direction.ROTATE_LEFT, Math.PI / 2, 0.5, AngleUnit.RADIANS);
         } catch (Exception e) {
             fail(e.getMessage());
         }
+
+        // the IMU is initialized once, not on every turn
+        verify(mockedImu, times(1)).initialize(any());
+        verify(mockedImu, times(1)).resetYaw();
+    }
+
+    @Test
+    public void getPose_tracksEncoders() throws IllegalAccessException {
+        mockInit();
+        when(mockedHardwareMap.get(IMU.class, "imu")).thenReturn(mockedImu);
+        when(mockedImu.getRobotYawPitchRollAngles()).thenReturn(yaw(0, 10));
+        when(mockedMotorEx.getCurrentPosition()).thenReturn(0, 0, 100, 100);
+        when(mockedMotorEx.getVelocity()).thenReturn(50.0);
+
+        Drive drive =
+                new Drive.Builder(mockedOpMode, mockedHardwareMap).encoder().diameter(4).build();
+        FieldUtils.writeField(drive, "distanceMultiplier", 100.0, true);
+
+        // tracking starts from the origin on the first call
+        assertEquals(0, drive.getPose().getX(), 1e-9);
+        Pose pose = drive.getPose();
+        assertEquals(4 * Math.PI, pose.getX(), 1e-9);
+        assertEquals(0, pose.getY(), 1e-9);
+        assertEquals(2 * Math.PI, drive.getVelocity().getX(), 1e-9);
+    }
+
+    @Test
+    public void setPose_movesPose() throws IllegalAccessException {
+        mockInit();
+        when(mockedHardwareMap.get(IMU.class, "imu")).thenReturn(mockedImu);
+        when(mockedImu.getRobotYawPitchRollAngles()).thenReturn(yaw(0, 10));
+
+        Drive drive =
+                new Drive.Builder(mockedOpMode, mockedHardwareMap).encoder().diameter(4).build();
+        FieldUtils.writeField(drive, "distanceMultiplier", 100.0, true);
+        drive.setPose(new Pose(12, -24, 90, AngleUnit.DEGREES));
+
+        Pose pose = drive.getPose();
+        assertEquals(12, pose.getX(), 1e-9);
+        assertEquals(-24, pose.getY(), 1e-9);
+        assertEquals(90, pose.getHeading(AngleUnit.DEGREES), 1e-9);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void getPose_throwsExceptionWithoutEncoder() {
+        mockInit();
+
+        new Drive.Builder(mockedOpMode, mockedHardwareMap).build().getPose();
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void setPose_throwsExceptionWhenNull() {
+        mockInit();
+
+        Drive drive =
+                new Drive.Builder(mockedOpMode, mockedHardwareMap).encoder().diameter(4).build();
+        drive.setPose(null);
+    }
+
+    @Test
+    public void commandToPoseAsync_drivesToPose() throws IllegalAccessException {
+        mockInit();
+        when(mockedOpMode.opModeIsActive()).thenReturn(true);
+        when(mockedHardwareMap.get(IMU.class, "imu")).thenReturn(mockedImu);
+        when(mockedImu.getRobotYawPitchRollAngles()).thenReturn(yaw(0, 10));
+
+        Drive drive =
+                new Drive.Builder(mockedOpMode, mockedHardwareMap)
+                        .type(Type.MECANUM)
+                        .encoder()
+                        .diameter(4)
+                        .build();
+        FieldUtils.writeField(drive, "distanceMultiplier", 100.0, true);
+
+        // straight ahead, proportional to the error plus kS
+        Motion motion = drive.commandToPoseAsync(10, 0, 0, 1.0, AngleUnit.DEGREES);
+        motion.update();
+        assertFalse(motion.isDone());
+        verify(mockedMotorEx, atLeastOnce()).setPower(0.55);
+
+        // already at the target pose
+        motion = drive.commandToPoseAsync(0, 0, 360, 1.0, AngleUnit.DEGREES);
+        motion.update();
+        assertTrue(motion.isDone());
+    }
+
+    @Test
+    public void commandToPose_settlesWithinTolerance() throws IllegalAccessException {
+        mockInit();
+        when(mockedOpMode.opModeIsActive()).thenReturn(true);
+        when(mockedHardwareMap.get(IMU.class, "imu")).thenReturn(mockedImu);
+        when(mockedImu.getRobotYawPitchRollAngles()).thenReturn(yaw(0, 10));
+
+        // wheels move at 3000 ticks/s per unit of power, but not below a static friction of 0.04
+        double[] power = {0};
+        double[] ticks = {0};
+        long[] last = {System.nanoTime()};
+        doAnswer(
+                        invocation -> {
+                            power[0] = invocation.getArgument(0);
+                            return null;
+                        })
+                .when(mockedMotorEx)
+                .setPower(anyDouble());
+        when(mockedMotorEx.getVelocity())
+                .thenAnswer(invocation -> Math.abs(power[0]) < 0.04 ? 0.0 : power[0] * 3000);
+        when(mockedMotorEx.getCurrentPosition())
+                .thenAnswer(
+                        invocation -> {
+                            long now = System.nanoTime();
+                            if (Math.abs(power[0]) >= 0.04) {
+                                ticks[0] += power[0] * 3000 * (now - last[0]) / 1e9;
+                            }
+                            last[0] = now;
+                            return (int) Math.round(ticks[0]);
+                        });
+
+        Drive drive =
+                new Drive.Builder(mockedOpMode, mockedHardwareMap)
+                        .type(Type.MECANUM)
+                        .encoder()
+                        .diameter(4)
+                        .build();
+        FieldUtils.writeField(drive, "distanceMultiplier", 1000.0, true);
+
+        // P alone would stall 0.8 units short, where 0.05 * error falls below friction
+        drive.commandToPose(10, 0, 0, 0.5, AngleUnit.DEGREES);
+        assertEquals(10, drive.getPose().getX(), 0.5);
+        assertEquals(0, drive.getPose().getY(), 0.5);
+    }
+
+    @Test
+    public void commandToPose_endsWhenStalled() throws IllegalAccessException {
+        mockInit();
+        when(mockedOpMode.opModeIsActive()).thenReturn(true);
+        when(mockedHardwareMap.get(IMU.class, "imu")).thenReturn(mockedImu);
+        when(mockedImu.getRobotYawPitchRollAngles()).thenReturn(yaw(0, 10));
+
+        Drive drive =
+                new Drive.Builder(mockedOpMode, mockedHardwareMap)
+                        .type(Type.MECANUM)
+                        .encoder()
+                        .diameter(4)
+                        .build();
+        FieldUtils.writeField(drive, "distanceMultiplier", 100.0, true);
+
+        // the wheels never turn, so the command gives up instead of blocking
+        drive.commandToPose(10, 0, 0, 0.5, AngleUnit.DEGREES);
+        assertEquals(0, drive.getPose().getX(), 0.01);
+        verify(mockedMotorEx, atLeastOnce()).setPower(0.5);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void commandToPoseDif_throwsException() {
+        mockInit();
+
+        Drive drive =
+                new Drive.Builder(mockedOpMode, mockedHardwareMap).encoder().diameter(4).build();
+        drive.commandToPose(10, 0, 0, 0.5, AngleUnit.DEGREES);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void translationGainsThrowsException() {
+        mockInit();
+
+        new Drive.Builder(mockedOpMode, mockedHardwareMap).translationGains(0, 0).build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void translationGainsKsThrowsException() {
+        mockInit();
+
+        new Drive.Builder(mockedOpMode, mockedHardwareMap).translationGains(0.05, 0, 1).build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void translationToleranceThrowsException() {
+        mockInit();
+
+        new Drive.Builder(mockedOpMode, mockedHardwareMap).translationTolerance(1, -1).build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void turnGainsThrowsException() {
+        mockInit();
+
+        new Drive.Builder(mockedOpMode, mockedHardwareMap).turnGains(0, 0, 0).build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void turnToleranceThrowsException() {
+        mockInit();
+
+        new Drive.Builder(mockedOpMode, mockedHardwareMap).turnTolerance(1, 0).build();
     }
 
     @Test(expected = NullPointerException.class)
@@ -341,28 +730,6 @@ public class TestDrive {
         drive.validateDeg(-1);
     }
 
-    @Test
-    public void trimDegrees_isCorrect() {
-        mockInit();
-
-        Drive drive = new Drive.Builder(mockedOpMode, mockedHardwareMap).build();
-
-        double[] result = drive.trimDegrees(5);
-        assertEquals(5, result[0], 0.01);
-
-        result = drive.trimDegrees(360);
-        double[] expected = {180, 0};
-        for (int i = 0; i < 2; i++) {
-            assertEquals(expected[i], result[i], 0.01);
-        }
-
-        result = drive.trimDegrees(365);
-        double[] expected2 = {180, 0, 5};
-        for (int i = 0; i < 3; i++) {
-            assertEquals(expected2[i], result[i], 0.01);
-        }
-    }
-
     @Test(expected = IllegalArgumentException.class)
     public void whenLargeMultiplier_controlThrowsException() {
         mockInit();
@@ -0,0 +1,73 @@
+// SPDX-FileCopyrightText: Collegiate Edu-Nation
+// SPDX-License-Identifier: GPL-3.0-or-later
+
+package org.edu_nation.easy_ftc.mechanism;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class TestFeedforward {
+    @Test
+    public void calculate_isCorrect() {
+        Feedforward feedforward = new Feedforward(1.0, 0.01, 0.002);
+
+        assertEquals(6.0, feedforward.calculate(500, 0), 1e-9);
+        assertEquals(-6.0, feedforward.calculate(-500, 0), 1e-9);
+        assertEquals(8.0, feedforward.calculate(500, 1000), 1e-9);
+        assertEquals(0, feedforward.calculate(0, 0), 1e-9);
+    }
+
+    @Test
+    public void fit_recoversConstants() {
+        FeedforwardFit fit = new FeedforwardFit();
+
+        // a quasistatic ramp, then a step that decays toward steady state
+        for (int i = 1; i <= 100; i++) {
+            double velocity = 20 * i;
+            fit.add(velocity, 10, 1.0 + 0.005 * velocity + 0.001 * 10);
+        }
+        for (int i = 1; i <= 50; i++) {
+            double velocity = 2000 * (1 - Math.exp(-i / 10.0));
+            double acceleration = 200 * Math.exp(-i / 10.0);
+            fit.add(velocity, acceleration, 1.0 + 0.005 * velocity + 0.001 * acceleration);
+        }
+
+        double[] constants = fit.solve();
+        assertEquals(1.0, constants[0], 1e-6);
+        assertEquals(0.005, constants[1], 1e-9);
+        assertEquals(0.001, constants[2], 1e-9);
+        assertEquals(150, fit.samples());
+    }
+
+    @Test
+    public void fit_isNullWhenUnderdetermined() {
+        FeedforwardFit fit = new FeedforwardFit();
+
+        // constant velocity says nothing about kA
+        for (int i = 0; i < 10; i++) {
+            fit.add(500, 0, 6.0);
+        }
+        assertNull(fit.solve());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void kVThrowsException() {
+        new Feedforward(1.0, 0, 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void kSThrowsException() {
+        new Feedforward(-1.0, 0.01, 0);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void load_throwsExceptionWhenNull() {
+        Feedforward.load(null);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void save_throwsExceptionWhenNull() {
+        new Feedforward(1.0, 0.01, 0).save(null);
+    }
+}
@@ -0,0 +1,108 @@
+// SPDX-FileCopyrightText: Collegiate Edu-Nation
+// SPDX-License-Identifier: GPL-3.0-or-later
+
+package org.edu_nation.easy_ftc.mechanism;
+
+import static org.junit.Assert.*;
+
+import com.qualcomm.robotcore.hardware.Gamepad;
+import org.edu_nation.easy_ftc.mechanism.GamepadState.Button;
+import org.junit.Test;
+
+public class TestGamepadState {
+    Gamepad gamepad = new Gamepad();
+
+    @Test
+    public void of_isSharedPerGamepad() {
+        assertSame(GamepadState.of(gamepad), GamepadState.of(gamepad));
+        assertNotSame(GamepadState.of(gamepad), GamepadState.of(new Gamepad()));
+    }
+
+    @Test
+    public void update_holdsInputUntilNextCycle() {
+        GamepadState state = GamepadState.of(gamepad);
+        gamepad.left_stick_y = -0.5f;
+        gamepad.right_trigger = 0.25f;
+        gamepad.a = true;
+        state.update();
+
+        gamepad.left_stick_y = 1;
+        gamepad.right_trigger = 0;
+        gamepad.a = false;
+        assertEquals(-0.5f, state.getLeftStickY(), 1e-9);
+        assertEquals(0.25f, state.getRightTrigger(), 1e-9);
+        assertTrue(state.isDown(Button.A));
+
+        state.update();
+        assertEquals(1, state.getLeftStickY(), 1e-9);
+        assertFalse(state.isDown(Button.A));
+    }
+
+    @Test
+    public void update_detectsEdges() {
+        GamepadState state = GamepadState.of(gamepad);
+
+        // buttons held at the first snapshot count as pressed
+        gamepad.options = true;
+        state.update();
+        assertTrue(state.wasPressed(Button.OPTIONS));
+
+        // holding isn't pressing again
+        state.update();
+        assertTrue(state.isDown(Button.OPTIONS));
+        assertFalse(state.wasPressed(Button.OPTIONS));
+        assertFalse(state.wasReleased(Button.OPTIONS));
+
+        gamepad.options = false;
+        gamepad.dpad_right = true;
+        state.update();
+        assertTrue(state.wasReleased(Button.OPTIONS));
+        assertTrue(state.wasPressed(Button.DPAD_RIGHT));
+        assertFalse(state.wasPressed(Button.DPAD_LEFT));
+    }
+
+    @Test
+    public void read_startsCycleOnRepeatedRead() {
+        GamepadState state = GamepadState.of(gamepad);
+
+        // readers share a cycle until one of them comes back for another
+        long first = state.read(0);
+        gamepad.b = true;
+        assertEquals(first, state.read(0));
+        assertFalse(state.isDown(Button.B));
+
+        long second = state.read(first);
+        assertNotEquals(first, second);
+        assertTrue(state.wasPressed(Button.B));
+        assertEquals(second, state.read(first));
+    }
+
+    @Test
+    public void wasPressed_keepsPressesFromSkippedCycles() {
+        GamepadState state = GamepadState.of(gamepad);
+        long seen = state.read(0);
+
+        // a tap lasting one cycle, which the reader doesn't read
+        gamepad.x = true;
+        state.update();
+        gamepad.x = false;
+        state.update();
+        state.update();
+        assertFalse(state.wasPressed(Button.X));
+        assertTrue(state.wasPressed(Button.X, seen));
+
+        // once read, it isn't pressed again
+        long next = state.read(seen);
+        assertFalse(state.wasPressed(Button.X, next));
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void ofThrowsException() {
+        GamepadState.of(null);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void buttonThrowsException() {
+        GamepadState.of(gamepad).wasPressed(null);
+    }
+}
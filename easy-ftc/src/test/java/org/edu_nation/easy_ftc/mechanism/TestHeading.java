@@ -0,0 +1,94 @@
+// SPDX-FileCopyrightText: Collegiate Edu-Nation
+// SPDX-License-Identifier: GPL-3.0-or-later
+
+package org.edu_nation.easy_ftc.mechanism;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import com.qualcomm.hardware.lynx.LynxModule;
+import com.qualcomm.hardware.rev.RevHubOrientationOnRobot.LogoFacingDirection;
+import com.qualcomm.hardware.rev.RevHubOrientationOnRobot.UsbFacingDirection;
+import com.qualcomm.robotcore.hardware.HardwareMap;
+import com.qualcomm.robotcore.hardware.IMU;
+import org.firstinspires.ftc.robotcore.external.navigation.AngleUnit;
+import org.firstinspires.ftc.robotcore.external.navigation.YawPitchRollAngles;
+import org.junit.Test;
+
+public class TestHeading {
+    HardwareMap mockedHardwareMap = mock(HardwareMap.class);
+    IMU mockedImu = mock(IMU.class);
+
+    private Heading mockInit() {
+        when(mockedHardwareMap.get(IMU.class, "imu")).thenReturn(mockedImu);
+        return new Heading(
+                mockedHardwareMap,
+                LogoFacingDirection.UP,
+                UsbFacingDirection.FORWARD,
+                BulkRead.of(mockedHardwareMap),
+                new Metrics("Heading", false));
+    }
+
+    private YawPitchRollAngles yaw(double degrees, long ms) {
+        return new YawPitchRollAngles(AngleUnit.DEGREES, degrees, 0, 0, ms * 1000000);
+    }
+
+    @Test
+    public void update_unwrapsHeadingAndRate() {
+        Heading heading = mockInit();
+        BulkRead bulkRead = BulkRead.of(mockedHardwareMap);
+        when(mockedImu.getRobotYawPitchRollAngles())
+                .thenReturn(yaw(170, 10), yaw(-170, 20), yaw(-170, 30), yaw(170, 40));
+
+        heading.update();
+        assertEquals(170, heading.getHeading(), 1e-9);
+        assertEquals(0, heading.getRate(), 1e-9);
+
+        // crossing +-180 continues the heading rather than jumping
+        bulkRead.clear();
+        heading.update();
+        assertEquals(190, heading.getHeading(), 1e-9);
+        assertEquals(2000, heading.getRate(), 1e-9);
+
+        bulkRead.clear();
+        heading.update();
+        assertEquals(190, heading.getHeading(), 1e-9);
+        assertEquals(0, heading.getRate(), 1e-9);
+
+        bulkRead.clear();
+        heading.update();
+        assertEquals(170, heading.getHeading(), 1e-9);
+        assertEquals(-2000, heading.getRate(), 1e-9);
+    }
+
+    @Test
+    public void manualMode_readsImuOncePerCycle() {
+        Heading heading = mockInit();
+        when(mockedImu.getRobotYawPitchRollAngles()).thenReturn(yaw(0, 10));
+        BulkRead bulkRead = BulkRead.of(mockedHardwareMap).mode(LynxModule.BulkCachingMode.MANUAL);
+
+        heading.update();
+        heading.update();
+        verify(mockedImu, times(1)).getRobotYawPitchRollAngles();
+
+        bulkRead.clear();
+        heading.update();
+        verify(mockedImu, times(2)).getRobotYawPitchRollAngles();
+        verify(mockedImu, times(1)).initialize(any());
+    }
+
+    @Test
+    public void reset_zeroesHeading() {
+        Heading heading = mockInit();
+        when(mockedImu.getRobotYawPitchRollAngles()).thenReturn(yaw(45, 10), yaw(0, 20));
+
+        heading.update();
+        assertEquals(45, heading.getHeading(), 1e-9);
+
+        heading.reset();
+        assertEquals(0, heading.getHeading(), 1e-9);
+        heading.update();
+        assertEquals(0, heading.getHeading(), 1e-9);
+        verify(mockedImu, times(2)).resetYaw();
+    }
+}
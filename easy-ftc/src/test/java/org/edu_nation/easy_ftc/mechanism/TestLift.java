@@ -121,6 +121,13 @@ public class TestLift {
         new Lift.Builder(mockedOpMode, mockedHardwareMap).behavior(null).build();
     }
 
+    @Test(expected = IllegalArgumentException.class)
+    public void epsilonThrowsException() {
+        mockInit();
+
+        new Lift.Builder(mockedOpMode, mockedHardwareMap).epsilon(-0.1).build();
+    }
+
     @Test(expected = IllegalStateException.class)
     public void upThrowsException() {
         mockInit();
@@ -135,6 +142,49 @@ public class TestLift {
         new Lift.Builder(mockedOpMode, mockedHardwareMap).down(2).build();
     }
 
+    @Test(expected = IllegalArgumentException.class)
+    public void maxVelocityThrowsException() {
+        mockInit();
+
+        new Lift.Builder(mockedOpMode, mockedHardwareMap).maxVelocity(0).build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void maxAccelerationThrowsException() {
+        mockInit();
+
+        new Lift.Builder(mockedOpMode, mockedHardwareMap).maxAcceleration(-1).build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void maxJerkThrowsException() {
+        mockInit();
+
+        new Lift.Builder(mockedOpMode, mockedHardwareMap).maxJerk(-1).build();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void profileWithoutDiameterThrowsException() {
+        mockInit();
+
+        new Lift.Builder(mockedOpMode, mockedHardwareMap)
+                .encoder()
+                .maxVelocity(10)
+                .maxAcceleration(20)
+                .build();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void profileWithoutAccelerationThrowsException() {
+        mockInit();
+
+        new Lift.Builder(mockedOpMode, mockedHardwareMap)
+                .encoder()
+                .diameter(2)
+                .maxVelocity(10)
+                .build();
+    }
+
     @Test
     public void controlSolo_isCalled() {
         mockInit();
@@ -284,6 +334,156 @@ public class TestLift {
         }
     }
 
+    @Test
+    public void commandAsync_stopsAtLimit() {
+        mockInit();
+        when(mockedOpMode.opModeIsActive()).thenReturn(true);
+
+        Lift lift = new Lift.Builder(mockedOpMode, mockedHardwareMap).encoder().up(100).build();
+        Motion motion = lift.commandAsync(Lift.Direction.UP, 10, 0.5);
+        motion.update();
+        assertFalse(motion.isDone());
+
+        // reaching the upper limit ends the movement early
+        when(mockedMotorEx.getCurrentPosition()).thenReturn(200);
+        motion.update();
+        assertTrue(motion.isDone());
+    }
+
+    @Test
+    public void commandAsync_followsProfile() {
+        mockInit();
+        when(mockedOpMode.opModeIsActive()).thenReturn(true);
+
+        Lift lift =
+                new Lift.Builder(mockedOpMode, mockedHardwareMap)
+                        .encoder()
+                        .diameter(2)
+                        .maxVelocity(10)
+                        .maxAcceleration(20)
+                        .maxJerk(100)
+                        .build();
+        Motion motion = lift.commandAsync(Lift.Direction.UP, 10, 0.5);
+        motion.update();
+        assertFalse(motion.isDone());
+
+        // profiled moves track velocity instead of handing a target to the motor controller
+        verify(mockedMotorEx, never()).setTargetPosition(anyInt());
+        verify(mockedMotorEx, never()).setMode(DcMotor.RunMode.RUN_TO_POSITION);
+
+        when(mockedOpMode.opModeIsActive()).thenReturn(false);
+        motion.update();
+        assertTrue(motion.isDone());
+    }
+
+    @Test
+    public void control_usesFeedforward() throws IllegalAccessException {
+        mockInit();
+
+        Lift lift =
+                new Lift.Builder(mockedOpMode, mockedHardwareMap)
+                        .encoder()
+                        .feedforward(new Feedforward(1.0, 0.01, 0))
+                        .gamepad(mockedGamepad)
+                        .build();
+        FieldUtils.writeField(lift, "velocityMultiplier", 1000.0, true);
+        verify(mockedMotorEx).setMode(DcMotor.RunMode.RUN_WITHOUT_ENCODER);
+
+        // 500 ticks/s from rest: kS + kV * velocity + 0.1 * kV * error, out of a nominal 12V
+        mockedGamepad.right_trigger = 0.5f;
+        lift.control();
+        verify(mockedMotorEx).setPower(6.5 / 12.0);
+        verify(mockedMotorEx, never()).setVelocity(anyDouble());
+
+        // stopping doesn't push back against the remaining velocity
+        mockedGamepad.right_trigger = 0;
+        lift.control();
+        verify(mockedMotorEx).setPower(0.0);
+    }
+
+    @Test
+    public void control_usesFeedbackGain() throws IllegalAccessException {
+        mockInit();
+
+        Lift lift =
+                new Lift.Builder(mockedOpMode, mockedHardwareMap)
+                        .encoder()
+                        .feedforward(new Feedforward(1.0, 0.01, 0))
+                        .feedbackGain(0)
+                        .gamepad(mockedGamepad)
+                        .build();
+        FieldUtils.writeField(lift, "velocityMultiplier", 1000.0, true);
+
+        // without feedback, only kS + kV * velocity
+        mockedGamepad.right_trigger = 0.5f;
+        lift.control();
+        verify(mockedMotorEx).setPower(6.0 / 12.0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void feedbackGainThrowsException() {
+        mockInit();
+
+        new Lift.Builder(mockedOpMode, mockedHardwareMap).feedbackGain(-0.1).build();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void feedforwardNoEncoderThrowsException() {
+        mockInit();
+
+        new Lift.Builder(mockedOpMode, mockedHardwareMap)
+                .feedforward(new Feedforward(1.0, 0.01, 0))
+                .build();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void characterizeNoEncoderThrowsException() {
+        mockInit();
+
+        new Lift.Builder(mockedOpMode, mockedHardwareMap).build().characterize(0.5, 4);
+    }
+
+    @Test
+    public void characterize_stopsAtLimit() {
+        mockInit();
+        when(mockedOpMode.opModeIsActive()).thenReturn(true);
+        when(mockedMotorEx.getCurrentPosition()).thenReturn(200);
+
+        // already at the upper limit, so neither phase drives it further and nothing is fit
+        Lift lift = new Lift.Builder(mockedOpMode, mockedHardwareMap).encoder().up(100).build();
+        try {
+            lift.characterize(0.5, 4);
+            fail("Expected characterize() at the limit to throw");
+        } catch (IllegalStateException e) {
+            // no samples were taken
+        }
+        verify(mockedMotorEx, never()).setPower(0.5);
+    }
+
+    @Test
+    public void control_skipsUnchangedWrites() {
+        mockInit();
+
+        Lift lift =
+                new Lift.Builder(mockedOpMode, mockedHardwareMap)
+                        .epsilon(0.05)
+                        .gamepad(mockedGamepad)
+                        .build();
+        mockedGamepad.right_trigger = 0.5f;
+        lift.control();
+        lift.control();
+        verify(mockedMotor, times(1)).setPower(0.5);
+        assertEquals(1, lift.getSkippedWrites());
+
+        // changes within epsilon are skipped, but stopping always goes through
+        mockedGamepad.right_trigger = 0.52f;
+        lift.control();
+        mockedGamepad.right_trigger = 0.0f;
+        lift.control();
+        verify(mockedMotor, times(1)).setPower(0.0);
+        assertEquals(2, lift.getSkippedWrites());
+    }
+
     @Test(expected = IllegalArgumentException.class)
     public void whenLargeMultiplier_controlThrowsException() {
         mockInit();
@@ -0,0 +1,180 @@
+// SPDX-FileCopyrightText: Collegiate Edu-Nation
+// SPDX-License-Identifier: GPL-3.0-or-later
+
+package org.edu_nation.easy_ftc.mechanism;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import com.qualcomm.robotcore.eventloop.opmode.LinearOpMode;
+import com.qualcomm.robotcore.hardware.DcMotor;
+import com.qualcomm.robotcore.hardware.Gamepad;
+import com.qualcomm.robotcore.hardware.HardwareMap;
+import com.qualcomm.robotcore.hardware.IMU;
+import java.util.ArrayList;
+import java.util.List;
+import org.edu_nation.easy_ftc.mechanism.Drive.Layout;
+import org.edu_nation.easy_ftc.mechanism.Drive.Type;
+import org.edu_nation.easy_ftc.mechanism.LoopScheduler.Phase;
+import org.firstinspires.ftc.robotcore.external.navigation.AngleUnit;
+import org.firstinspires.ftc.robotcore.external.navigation.YawPitchRollAngles;
+import org.junit.Test;
+
+public class TestLoopScheduler {
+    /** Busy-wait for ms, standing in for a slow stage */
+    private static void spin(double ms) {
+        long end = System.nanoTime() + (long) (ms * 1e6);
+        while (System.nanoTime() < end)
+            ;
+    }
+
+    @Test
+    public void update_runsStagesAtTheirRates() {
+        int[] runs = new int[2];
+        LoopScheduler scheduler =
+                new LoopScheduler(100)
+                        .stage("fast", Phase.COMPUTE, 100, 100, () -> runs[0]++)
+                        .stage("slow", Phase.COMPUTE, 25, 25, () -> runs[1]++);
+
+        for (int i = 0; i < 8; i++) {
+            scheduler.update();
+        }
+        assertEquals(8, runs[0]);
+        assertEquals(2, runs[1]);
+        assertEquals(8, scheduler.getTicks());
+        assertEquals(25, scheduler.getRate("slow"), 1e-9);
+    }
+
+    @Test
+    public void update_holdsTheRate() {
+        LoopScheduler scheduler = new LoopScheduler(100);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 6; i++) {
+            scheduler.update();
+        }
+        // the first tick starts right away, the other five one period apart
+        assertTrue(System.nanoTime() - start >= 50e6);
+        assertTrue(scheduler.getMaxJitter() >= scheduler.getMeanJitter());
+    }
+
+    @Test
+    public void update_keepsPressesForSlowerStages() {
+        HardwareMap mockedHardwareMap = mock(HardwareMap.class);
+        Gamepad mockedGamepad = mock(Gamepad.class);
+        IMU mockedImu = mock(IMU.class);
+        when(mockedHardwareMap.get(eq(DcMotor.class), anyString())).thenReturn(mock(DcMotor.class));
+        when(mockedHardwareMap.get(IMU.class, "imu")).thenReturn(mockedImu);
+        when(mockedImu.getRobotYawPitchRollAngles())
+                .thenReturn(new YawPitchRollAngles(AngleUnit.DEGREES, 0, 0, 0, 10000000));
+
+        Drive drive =
+                new Drive.Builder(mock(LinearOpMode.class), mockedHardwareMap)
+                        .type(Type.MECANUM)
+                        .layout(Layout.FIELD)
+                        .gamepad(mockedGamepad)
+                        .build();
+        LoopScheduler scheduler = new LoopScheduler(200).stage(drive, 50);
+        scheduler.update();
+        clearInvocations(mockedImu);
+
+        // options is tapped during a tick the drive skips, and still resets the heading once
+        mockedGamepad.options = true;
+        scheduler.update();
+        mockedGamepad.options = false;
+        for (int i = 0; i < 7; i++) {
+            scheduler.update();
+        }
+        verify(mockedImu, times(1)).resetYaw();
+    }
+
+    @Test
+    public void update_runsPhasesInOrder() {
+        List<Phase> order = new ArrayList<>();
+        LoopScheduler scheduler =
+                new LoopScheduler(100)
+                        .stage("write", Phase.WRITE, 100, 100, () -> order.add(Phase.WRITE))
+                        .stage("read", Phase.READ, 100, 100, () -> order.add(Phase.READ))
+                        .stage("compute", Phase.COMPUTE, 100, 100, () -> order.add(Phase.COMPUTE));
+
+        scheduler.update();
+        assertArrayEquals(Phase.values(), order.toArray());
+    }
+
+    @Test
+    public void update_slowsStagesOverBudget() {
+        int[] runs = new int[1];
+        LoopScheduler scheduler =
+                new LoopScheduler(100)
+                        .budget(Phase.READ, 0.001)
+                        .stage(
+                                "sensor",
+                                Phase.READ,
+                                100,
+                                25,
+                                () -> {
+                                    runs[0]++;
+                                    spin(2);
+                                });
+
+        scheduler.update();
+        assertEquals(1, scheduler.getOverruns(Phase.READ));
+        assertEquals(50, scheduler.getRate("sensor"), 1e-9);
+
+        // slowed to at most minRate
+        for (int i = 0; i < 12; i++) {
+            scheduler.update();
+        }
+        assertEquals(25, scheduler.getRate("sensor"), 1e-9);
+        assertTrue(runs[0] < 13);
+    }
+
+    @Test
+    public void update_recordsOverruns() {
+        LoopScheduler scheduler =
+                new LoopScheduler(100).stage("slow", Phase.WRITE, 100, 100, () -> spin(15));
+
+        scheduler.update();
+        scheduler.update();
+        assertEquals(2, scheduler.getOverruns());
+        // stages without a lower minRate keep their rate
+        assertEquals(100, scheduler.getRate("slow"), 1e-9);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rateThrowsException() {
+        new LoopScheduler(0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void stageRateThrowsException() {
+        new LoopScheduler(50).stage("fast", Phase.READ, 100, 100, () -> {});
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void stageMinRateThrowsException() {
+        new LoopScheduler(50).stage("sensor", Phase.READ, 20, 30, () -> {});
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void stageNameThrowsException() {
+        new LoopScheduler(50)
+                .stage("sensor", Phase.READ, 20, 20, () -> {})
+                .stage("sensor", Phase.WRITE, 20, 20, () -> {});
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void stageTaskThrowsException() {
+        new LoopScheduler(50).stage("sensor", Phase.READ, 20, 20, null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void budgetThrowsException() {
+        new LoopScheduler(50).budget(Phase.READ, 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void getRateThrowsException() {
+        new LoopScheduler(50).getRate("drive");
+    }
+}
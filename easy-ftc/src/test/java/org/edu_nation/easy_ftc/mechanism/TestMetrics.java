@@ -0,0 +1,132 @@
+// SPDX-FileCopyrightText: Collegiate Edu-Nation
+// SPDX-License-Identifier: GPL-3.0-or-later
+
+package org.edu_nation.easy_ftc.mechanism;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import com.qualcomm.robotcore.eventloop.opmode.LinearOpMode;
+import com.qualcomm.robotcore.hardware.DcMotorEx;
+import com.qualcomm.robotcore.hardware.Gamepad;
+import com.qualcomm.robotcore.hardware.HardwareMap;
+import com.qualcomm.robotcore.hardware.configuration.typecontainers.MotorConfigurationType;
+import org.edu_nation.easy_ftc.mechanism.Metrics.Call;
+import org.edu_nation.easy_ftc.mechanism.Metrics.Transaction;
+import org.junit.Test;
+
+public class TestMetrics {
+    LinearOpMode mockedOpMode = mock(LinearOpMode.class);
+    HardwareMap mockedHardwareMap = mock(HardwareMap.class);
+    Gamepad mockedGamepad = mock(Gamepad.class);
+    DcMotorEx mockedMotorEx = mock(DcMotorEx.class);
+    MotorConfigurationType motorType = new MotorConfigurationType();
+
+    private void mockInit() {
+        when(mockedHardwareMap.get(DcMotorEx.class, "lift")).thenReturn(mockedMotorEx);
+        when(mockedMotorEx.getMotorType()).thenReturn(motorType);
+    }
+
+    @Test
+    public void percentile_isCorrect() {
+        Metrics metrics = new Metrics("Test", true);
+        for (int i = 1; i <= 100; i++) {
+            metrics.record(Call.CONTROL, i * 1000000L);
+        }
+
+        // buckets are within 12.5% of the recorded values
+        assertEquals(100, metrics.count(Call.CONTROL));
+        assertEquals(50, metrics.percentile(Call.CONTROL, 0.5), 50 * 0.125);
+        assertEquals(99, metrics.percentile(Call.CONTROL, 0.99), 99 * 0.125);
+        assertEquals(100, metrics.max(Call.CONTROL), 0.01);
+        assertEquals(0, metrics.percentile(Call.COMMAND, 0.5), 0.01);
+
+        metrics.reset();
+        assertEquals(0, metrics.count(Call.CONTROL));
+        assertEquals(0, metrics.max(Call.CONTROL), 0.01);
+    }
+
+    @Test
+    public void liftControl_countsTransactions() {
+        mockInit();
+
+        Lift lift =
+                new Lift.Builder(mockedOpMode, mockedHardwareMap)
+                        .names(new String[] {"lift"})
+                        .encoder()
+                        .up(100)
+                        .metrics()
+                        .gamepad(mockedGamepad)
+                        .build();
+        Metrics metrics = lift.getMetrics();
+        lift.control();
+        lift.control();
+
+        assertTrue(metrics.isEnabled());
+        assertEquals(2, metrics.count(Call.CONTROL));
+        assertEquals(2, metrics.transactions(Call.CONTROL, Transaction.GET_CURRENT_POSITION));
+        assertEquals(1, metrics.transactions(Call.CONTROL, Transaction.SET_VELOCITY));
+        assertEquals(1.5, metrics.transactionsPerCall(Call.CONTROL), 0.01);
+
+        // init's writes happen outside of control()
+        assertEquals(0, metrics.transactions(Call.CONTROL, Transaction.SET_MODE));
+        assertEquals(2, metrics.transactions(Transaction.SET_MODE));
+    }
+
+    @Test
+    public void liftControl_recordsFailedCalls() {
+        mockInit();
+
+        Lift lift =
+                new Lift.Builder(mockedOpMode, mockedHardwareMap)
+                        .names(new String[] {"lift"})
+                        .encoder()
+                        .up(100)
+                        .metrics()
+                        .gamepad(mockedGamepad)
+                        .build();
+        Metrics metrics = lift.getMetrics();
+        try {
+            lift.control(1.5);
+            fail("Expected an invalid multiplier to throw");
+        } catch (IllegalArgumentException e) {
+            // the failed call is still timed
+        }
+        lift.control();
+
+        assertEquals(2, metrics.count(Call.CONTROL));
+        assertEquals(1, metrics.transactions(Call.CONTROL, Transaction.GET_CURRENT_POSITION));
+    }
+
+    @Test
+    public void whenDisabled_nothingIsRecorded() {
+        mockInit();
+
+        Lift lift =
+                new Lift.Builder(mockedOpMode, mockedHardwareMap)
+                        .names(new String[] {"lift"})
+                        .encoder()
+                        .gamepad(mockedGamepad)
+                        .build();
+        lift.control();
+
+        assertFalse(lift.getMetrics().isEnabled());
+        assertEquals(0, lift.getMetrics().count(Call.CONTROL));
+        assertEquals(0, lift.getMetrics().transactions(Transaction.SET_VELOCITY));
+        assertEquals(0, lift.getMetrics().transactions(Call.CONTROL, Transaction.SET_VELOCITY));
+        assertEquals(0, lift.getMetrics().percentile(Call.CONTROL, 0.5), 0.01);
+        assertEquals(0, lift.getMetrics().max(Call.CONTROL), 0.01);
+        assertEquals(0, lift.getMetrics().transactionsPerCall(Call.CONTROL), 0.01);
+        lift.getMetrics().reset();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void percentileThrowsException() {
+        new Metrics("Test", true).percentile(Call.CONTROL, 1.5);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void toTelemetryThrowsException() {
+        new Metrics("Test", true).toTelemetry(null);
+    }
+}
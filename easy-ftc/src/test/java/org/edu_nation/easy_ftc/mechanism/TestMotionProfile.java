@@ -0,0 +1,102 @@
+// SPDX-FileCopyrightText: Collegiate Edu-Nation
+// SPDX-License-Identifier: GPL-3.0-or-later
+
+package org.edu_nation.easy_ftc.mechanism;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class TestMotionProfile {
+    private static final double STEP = 0.001;
+
+    @Test
+    public void trapezoid_respectsLimits() {
+        MotionProfile profile = new MotionProfile(100, 20, 10, 0);
+
+        // 2 s accelerating, 3 s cruising, 2 s decelerating
+        assertEquals(7, profile.getDuration(), 1e-9);
+        for (double t = 0; t <= profile.getDuration(); t += STEP) {
+            profile.sample(t);
+            assertTrue(profile.getVelocity() <= 20 + 1e-9);
+            assertTrue(Math.abs(profile.getAcceleration()) <= 10 + 1e-9);
+        }
+        profile.sample(3.5);
+        assertEquals(20, profile.getVelocity(), 1e-9);
+        assertEquals(50, profile.getPosition(), 1e-9);
+    }
+
+    @Test
+    public void trapezoid_peaksBelowLimitWhenShort() {
+        MotionProfile profile = new MotionProfile(10, 20, 10, 0);
+
+        profile.sample(profile.getDuration() / 2);
+        assertEquals(10, profile.getVelocity(), 1e-9);
+        assertEquals(5, profile.getPosition(), 1e-9);
+    }
+
+    @Test
+    public void sCurve_respectsLimits() {
+        MotionProfile profile = new MotionProfile(100, 20, 10, 20);
+
+        double lastAcceleration = 0;
+        for (double t = 0; t <= profile.getDuration(); t += STEP) {
+            profile.sample(t);
+            assertTrue(profile.getVelocity() <= 20 + 1e-9);
+            assertTrue(Math.abs(profile.getAcceleration()) <= 10 + 1e-9);
+            // acceleration changes continuously, no faster than jerk
+            assertTrue(Math.abs(profile.getAcceleration() - lastAcceleration) <= 20 * STEP + 1e-9);
+            lastAcceleration = profile.getAcceleration();
+        }
+    }
+
+    @Test
+    public void sCurve_peaksBelowLimitWhenShort() {
+        MotionProfile profile = new MotionProfile(1, 20, 10, 20);
+
+        profile.sample(profile.getDuration() / 2);
+        assertTrue(profile.getVelocity() < 20);
+        assertEquals(0.5, profile.getPosition(), 1e-6);
+    }
+
+    @Test
+    public void sample_endsAtDistance() {
+        MotionProfile[] profiles = {
+            new MotionProfile(100, 20, 10, 0),
+            new MotionProfile(100, 20, 10, 20),
+            new MotionProfile(-37, 20, 10, 20)
+        };
+        double[] distances = {100, 100, -37};
+
+        for (int i = 0; i < profiles.length; i++) {
+            // the segments themselves end at the distance, not just the clamp past the end
+            profiles[i].sample(profiles[i].getDuration() - 1e-9);
+            assertEquals(distances[i], profiles[i].getPosition(), 1e-6);
+            profiles[i].sample(profiles[i].getDuration() + 1);
+            assertEquals(distances[i], profiles[i].getPosition(), 0);
+            assertEquals(0, profiles[i].getVelocity(), 0);
+        }
+    }
+
+    @Test
+    public void sample_isSignedForNegativeDistance() {
+        MotionProfile profile = new MotionProfile(-100, 20, 10, 0);
+
+        profile.sample(3.5);
+        assertEquals(-20, profile.getVelocity(), 1e-9);
+        assertEquals(-50, profile.getPosition(), 1e-9);
+
+        // sampling backwards still works
+        profile.sample(1);
+        assertEquals(-10, profile.getVelocity(), 1e-9);
+    }
+
+    @Test
+    public void sample_isZeroForZeroDistance() {
+        MotionProfile profile = new MotionProfile(0, 20, 10, 20);
+
+        assertEquals(0, profile.getDuration(), 0);
+        profile.sample(1);
+        assertEquals(0, profile.getPosition(), 0);
+    }
+}
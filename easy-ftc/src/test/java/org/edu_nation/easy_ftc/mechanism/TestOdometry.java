@@ -0,0 +1,96 @@
+// SPDX-FileCopyrightText: Collegiate Edu-Nation
+// SPDX-License-Identifier: GPL-3.0-or-later
+
+package org.edu_nation.easy_ftc.mechanism;
+
+import static org.junit.Assert.*;
+
+import org.firstinspires.ftc.robotcore.external.navigation.AngleUnit;
+import org.junit.Test;
+
+public class TestOdometry {
+    @Test
+    public void update_isZeroUntilStarted() {
+        Odometry odometry = new Odometry(Drive.Type.DIFFERENTIAL, 2);
+
+        // the first update only records where the encoders are
+        odometry.update(new int[] {500, 500}, 0, 0.01);
+        assertEquals(0, odometry.getPose().getX(), 1e-9);
+        assertEquals(0, odometry.getPose().getY(), 1e-9);
+    }
+
+    @Test
+    public void updateDif_tracksStraightLines() {
+        Odometry odometry = new Odometry(Drive.Type.DIFFERENTIAL, 2);
+        odometry.update(new int[] {0, 0}, 0, 0.01);
+
+        odometry.update(new int[] {1000, 1000}, 0, 0.01);
+        assertEquals(10, odometry.getPose().getX(), 1e-9);
+        assertEquals(0, odometry.getPose().getY(), 1e-9);
+
+        // turning in place doesn't translate, and later travel follows the new heading
+        odometry.update(new int[] {900, 1100}, Math.PI / 2, 0.01);
+        assertEquals(10, odometry.getPose().getX(), 1e-9);
+        assertEquals(90, odometry.getPose().getHeading(AngleUnit.DEGREES), 1e-9);
+        odometry.update(new int[] {1400, 1600}, Math.PI / 2, 0.01);
+        assertEquals(10, odometry.getPose().getX(), 1e-9);
+        assertEquals(5, odometry.getPose().getY(), 1e-9);
+    }
+
+    @Test
+    public void updateDif_followsArcs() {
+        Odometry odometry = new Odometry(Drive.Type.DIFFERENTIAL, 2);
+        odometry.update(new int[] {0, 0}, 0, 0.001);
+
+        // a quarter circle of radius 10 in one update ends at (10, 10), not on its chord
+        int arc = (int) Math.round(Math.PI * 10 / 2 * 1000);
+        odometry.update(new int[] {arc, arc}, Math.PI / 2, 0.001);
+        assertEquals(10, odometry.getPose().getX(), 1e-3);
+        assertEquals(10, odometry.getPose().getY(), 1e-3);
+    }
+
+    @Test
+    public void updateMec_tracksStrafing() {
+        Odometry odometry = new Odometry(Drive.Type.MECANUM, 4);
+        odometry.update(new int[] {0, 0, 0, 0}, 0, 0.01);
+
+        // RIGHT: frontLeft and backRight forward, frontRight and backLeft backward
+        odometry.update(new int[] {1000, -1000, -1000, 1000}, 0, 0.01);
+        assertEquals(0, odometry.getPose().getX(), 1e-9);
+        assertEquals(-10, odometry.getPose().getY(), 1e-9);
+    }
+
+    @Test
+    public void reset_movesPose() {
+        Odometry odometry = new Odometry(Drive.Type.DIFFERENTIAL, 2);
+        odometry.reset(5, -5, Math.PI);
+        odometry.update(new int[] {200, 200}, 1, 0.01);
+
+        // heading is measured from the IMU's heading when tracking restarts
+        odometry.update(new int[] {1200, 1200}, 1, 0.01);
+        assertEquals(-5, odometry.getPose().getX(), 1e-9);
+        assertEquals(-5, odometry.getPose().getY(), 1e-9);
+        assertEquals(Math.PI, odometry.getPose().getHeading(AngleUnit.RADIANS), 1e-9);
+    }
+
+    @Test
+    public void resync_doesNotMovePose() {
+        Odometry odometry = new Odometry(Drive.Type.DIFFERENTIAL, 2);
+        odometry.update(new int[] {0, 0}, Math.PI / 4, 0.01);
+
+        odometry.resync(0);
+        odometry.update(new int[] {0, 0}, 0, 0.01);
+        assertEquals(0, odometry.getPose().getHeading(AngleUnit.RADIANS), 1e-9);
+    }
+
+    @Test
+    public void updateVelocity_isFieldRelative() {
+        Odometry odometry = new Odometry(Drive.Type.MECANUM, 4);
+        odometry.reset(0, 0, Math.PI / 2);
+
+        odometry.updateVelocity(new double[] {100, 100, 100, 100}, 0.5, 0.01);
+        assertEquals(0, odometry.getVelocity().getX(), 1e-9);
+        assertEquals(1, odometry.getVelocity().getY(), 1e-9);
+        assertEquals(0.5, odometry.getVelocity().getHeading(AngleUnit.RADIANS), 1e-9);
+    }
+}
@@ -201,6 +201,63 @@ public class TestTrigger {
         }
     }
 
+    @Test
+    public void controlSmooth_slewsWithoutBlocking() {
+        mockInit();
+        mockedGamepad.y = true;
+
+        // the first call moves one increment, later ones only as far as the time since allows
+        Trigger trigger =
+                new Trigger.Builder(mockedOpMode, mockedHardwareMap)
+                        .smooth()
+                        .increment(0.5)
+                        .incrementDelay(10)
+                        .gamepad(mockedGamepad)
+                        .build();
+        long start = System.nanoTime();
+        trigger.control();
+        trigger.control();
+        assertTrue(System.nanoTime() - start < 1e9);
+        verify(mockedTrigger, times(1)).setPosition(0.5);
+        verify(mockedTrigger, never()).setPosition(1.0);
+    }
+
+    @Test
+    public void controlDual_skipsRedundantWrites() {
+        mockInit();
+
+        Trigger trigger =
+                new Trigger.Builder(mockedOpMode, mockedHardwareMap)
+                        .count(2)
+                        .gamepad(mockedGamepad)
+                        .build();
+
+        // each servo is written once per change
+        mockedGamepad.y = true;
+        trigger.control();
+        trigger.control();
+        verify(mockedTrigger, times(2)).setPosition(1.0);
+        assertEquals(2, trigger.getWriteCount());
+    }
+
+    @Test
+    public void command_waitsForTravelTime() {
+        mockInit();
+        when(mockedOpMode.opModeIsActive()).thenReturn(true);
+
+        Trigger trigger =
+                new Trigger.Builder(mockedOpMode, mockedHardwareMap).travelTime(0.1, 0).build();
+        trigger.command(Trigger.Direction.OPEN);
+        assertEquals(0, trigger.getTimeRemaining(), 0);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void whenSmooth_travelTimeThrowsException() {
+        mockInit();
+
+        new Trigger.Builder(mockedOpMode, mockedHardwareMap).smooth().travelTime(1, 0).build();
+    }
+
     @Test(expected = IllegalArgumentException.class)
     public void reverseDual_ThrowsException() {
         mockInit();
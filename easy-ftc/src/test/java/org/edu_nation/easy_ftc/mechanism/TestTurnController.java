@@ -0,0 +1,59 @@
+// SPDX-FileCopyrightText: Collegiate Edu-Nation
+// SPDX-License-Identifier: GPL-3.0-or-later
+
+package org.edu_nation.easy_ftc.mechanism;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class TestTurnController {
+    @Test
+    public void update_clampsOutputToPower() {
+        TurnController controller = new TurnController(0.03, 0.02, 0.002, 1.0, 5.0);
+
+        controller.reset(90, 0.5);
+        assertEquals(0.5, controller.update(0, 0, 0.01), 1e-9);
+
+        controller.reset(-90, 0.5);
+        assertEquals(-0.5, controller.update(0, 0, 0.01), 1e-9);
+    }
+
+    @Test
+    public void update_isProportionalNearTarget() {
+        TurnController controller = new TurnController(0.03, 0, 0.002, 1.0, 5.0);
+        controller.reset(10, 1.0);
+
+        assertEquals(0.15, controller.update(5, 0, 0.01), 1e-9);
+        // derivative opposes the rate of turning
+        assertEquals(0.11, controller.update(5, 20, 0.01), 1e-9);
+    }
+
+    @Test
+    public void update_doesNotWindUpWhileSaturated() {
+        TurnController controller = new TurnController(0.03, 1.0, 0, 1.0, 5.0);
+        controller.reset(90, 0.5);
+
+        for (int i = 0; i < 100; i++) {
+            controller.update(0, 0, 0.1);
+        }
+        assertEquals(0.03, controller.update(89, 0, 0), 1e-9);
+    }
+
+    @Test
+    public void isSettled_requiresErrorAndRate() {
+        TurnController controller = new TurnController(0.03, 0.02, 0.002, 1.0, 5.0);
+        controller.reset(90, 1.0);
+        assertFalse(controller.isSettled());
+
+        controller.update(89.5, 20, 0.01);
+        assertFalse(controller.isSettled());
+
+        controller.update(89.5, 2, 0.01);
+        assertTrue(controller.isSettled());
+
+        controller.update(85, 0, 0.01);
+        assertFalse(controller.isSettled());
+        assertEquals(5, controller.getError(), 1e-9);
+    }
+}
@@ -159,4 +159,109 @@ public class TestColor {
             assertEquals(colorsExpected[i], colorsActual[i]);
         }
     }
+
+    @Test
+    public void state_sharesOneReadWithinPeriod() {
+        mockInit();
+        mockRGB(255, 0, 0);
+
+        Color color = new Color.Builder(mockedHardwareMap).period(10).build();
+        assertEquals(Double.POSITIVE_INFINITY, color.getAge(), 0);
+        assertEquals(RGB.RED, color.state());
+
+        // later calls within the period return the cached reading and its timestamp
+        long timestamp = color.getTimestamp();
+        mockRGB(0, 0, 255);
+        assertEquals(RGB.RED, color.state());
+        assertEquals(timestamp, color.getTimestamp());
+        verify(mockedColorSensor, times(1)).red();
+        verify(mockedColorSensor, times(1)).green();
+        verify(mockedColorSensor, times(1)).blue();
+    }
+
+    @Test
+    public void getSwatch_isCorrect() {
+        mockInit();
+
+        Color color =
+                new Color.Builder(mockedHardwareMap)
+                        .swatch("yellow", 210, 190, 60)
+                        .swatch("purple", 120, 70, 170)
+                        .build();
+
+        mockRGB(215, 195, 55);
+        assertEquals("yellow", color.getSwatch());
+        mockRGB(115, 75, 165);
+        assertEquals("purple", color.getSwatch());
+        mockRGB(20, 225, 20);
+        assertNull(color.getSwatch());
+        // the RGB state is still available
+        assertEquals(RGB.GREEN, color.state());
+
+        // without swatches there's nothing to match
+        assertNull(new Color.Builder(mockedHardwareMap).build().getSwatch());
+    }
+
+    @Test
+    public void calibrate_addsSwatch() {
+        mockInit();
+        Color color = new Color.Builder(mockedHardwareMap).build();
+
+        mockRGB(210, 190, 60);
+        color.calibrate("yellow", 5);
+        verify(mockedColorSensor, times(5)).red();
+
+        mockRGB(215, 195, 55);
+        assertEquals("yellow", color.getSwatch());
+    }
+
+    @Test
+    public void calibrate_averagesNewReadings() {
+        mockInit();
+        Color color = new Color.Builder(mockedHardwareMap).build();
+
+        // successive measurements alternate between bright and dim
+        when(mockedColorSensor.red()).thenReturn(250, 90, 250, 90);
+        when(mockedColorSensor.green()).thenReturn(230, 70, 230, 70);
+        when(mockedColorSensor.blue()).thenReturn(40);
+        long start = System.nanoTime();
+        color.calibrate("yellow", 4);
+
+        // each reading after the first waits 20 ms for a new measurement
+        assertTrue(System.nanoTime() - start >= 60_000_000);
+
+        // the swatch is the average, not any one of the readings
+        mockRGB(170, 150, 40);
+        assertEquals("yellow", color.getSwatch());
+        mockRGB(250, 230, 40);
+        assertNull(color.getSwatch());
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void swatchNullThrowsException() {
+        mockInit();
+
+        new Color.Builder(mockedHardwareMap).swatch(null, 0, 0, 0).build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void swatchThrowsException() {
+        mockInit();
+
+        new Color.Builder(mockedHardwareMap).swatch("yellow", 256, 0, 0).build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void swatchToleranceThrowsException() {
+        mockInit();
+
+        new Color.Builder(mockedHardwareMap).swatchTolerance(0).build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void calibrateThrowsException() {
+        mockInit();
+
+        new Color.Builder(mockedHardwareMap).build().calibrate("yellow", 0);
+    }
 }
@@ -0,0 +1,52 @@
+// SPDX-FileCopyrightText: Collegiate Edu-Nation
+// SPDX-License-Identifier: GPL-3.0-or-later
+
+package org.edu_nation.easy_ftc.sensor;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class TestColorTable {
+    private final ColorTable table =
+            new ColorTable(
+                    new String[] {"yellow", "purple", "white"},
+                    new int[][] {{220, 165, 60}, {130, 45, 170}, {210, 200, 210}},
+                    85,
+                    0.25);
+
+    @Test
+    public void classify_matchesNearestSwatch() {
+        assertEquals("yellow", table.classify(225, 170, 55));
+        assertEquals("purple", table.classify(125, 50, 165));
+        assertEquals("white", table.classify(205, 205, 205));
+    }
+
+    @Test
+    public void classify_isNullAwayFromSwatches() {
+        // green isn't close to any swatch
+        assertNull(table.classify(20, 200, 20));
+
+        // readings no brighter than threshold aren't classified
+        assertNull(table.classify(80, 60, 20));
+    }
+
+    @Test
+    public void classify_clampsReadings() {
+        assertEquals("white", table.classify(300, 300, 300));
+        assertNull(table.classify(-20, -20, -20));
+    }
+
+    @Test
+    public void classify_allowsSharedNames() {
+        ColorTable shared =
+                new ColorTable(
+                        new String[] {"yellow", "yellow"},
+                        new int[][] {{220, 165, 60}, {120, 90, 30}},
+                        85,
+                        0.25);
+
+        assertEquals("yellow", shared.classify(225, 170, 55));
+        assertEquals("yellow", shared.classify(125, 95, 30));
+    }
+}
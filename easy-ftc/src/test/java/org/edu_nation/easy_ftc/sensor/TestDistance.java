@@ -8,6 +8,8 @@ import static org.mockito.Mockito.*;
 
 import com.qualcomm.robotcore.hardware.DistanceSensor;
 import com.qualcomm.robotcore.hardware.HardwareMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import org.firstinspires.ftc.robotcore.external.navigation.DistanceUnit;
 import org.junit.Test;
 
@@ -85,4 +87,166 @@ public class TestDistance {
         result = mockedDistanceReverse.state();
         assertFalse(result);
     }
+
+    @Test
+    public void state_readsEveryCallByDefault() {
+        mockInit();
+
+        Distance distance = new Distance.Builder(mockedHardwareMap).build();
+        distance.state();
+        distance.state();
+        verify(mockedDistanceSensor, times(2)).getDistance(DistanceUnit.CM);
+        assertTrue(distance.getAge() < 10);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void periodThrowsException() {
+        mockInit();
+
+        new Distance.Builder(mockedHardwareMap).period(-1).build();
+    }
+
+    @Test
+    public void close_stopsSampling() throws InterruptedException {
+        mockInit();
+        AtomicInteger reads = new AtomicInteger();
+        when(mockedDistanceSensor.getDistance(DistanceUnit.CM))
+                .thenAnswer(
+                        invocation -> {
+                            reads.incrementAndGet();
+                            return 5.0;
+                        });
+
+        Distance distance = new Distance.Builder(mockedHardwareMap).async().build();
+        assertEquals(Double.POSITIVE_INFINITY, distance.getAge(), 0);
+        assertTrue(distance.state());
+        distance.close();
+
+        // no reads once the sampler has stopped, across several sampling intervals
+        int closed = reads.get();
+        Thread.sleep(60);
+        assertEquals(closed, reads.get());
+    }
+
+    @Test
+    public void async_defaultsToSensorRate() throws InterruptedException {
+        mockInit();
+        AtomicInteger reads = new AtomicInteger();
+        when(mockedDistanceSensor.getDistance(DistanceUnit.CM))
+                .thenAnswer(
+                        invocation -> {
+                            reads.incrementAndGet();
+                            return 5.0;
+                        });
+
+        // without a period, the sampler reads every 20 ms rather than flooding the bus
+        Distance distance = new Distance.Builder(mockedHardwareMap).async().build();
+        long deadline = System.nanoTime() + 200_000_000L;
+        while (System.nanoTime() < deadline) {
+            distance.state();
+            Thread.sleep(5);
+        }
+        distance.close();
+        assertTrue(reads.get() >= 2);
+        assertTrue(reads.get() <= 15);
+    }
+
+    @Test
+    public void state_readsAfterIdleGap() throws InterruptedException {
+        mockInit();
+        AtomicReference<Double> reading = new AtomicReference<>(5.0);
+        when(mockedDistanceSensor.getDistance(DistanceUnit.CM))
+                .thenAnswer(invocation -> reading.get());
+
+        Distance distance = new Distance.Builder(mockedHardwareMap).async().build();
+        assertTrue(distance.state());
+
+        // the sampler stops itself while state() isn't called, e.g. during a blocking command
+        Thread.sleep(1200);
+        reading.set(10.0);
+        assertFalse(distance.state());
+        assertTrue(distance.getAge() < 1);
+        distance.close();
+    }
+
+    @Test
+    public void state_rethrowsSamplerFailure() throws InterruptedException {
+        mockInit();
+        AtomicInteger reads = new AtomicInteger();
+        when(mockedDistanceSensor.getDistance(DistanceUnit.CM))
+                .thenAnswer(
+                        invocation -> {
+                            if (reads.incrementAndGet() > 1) {
+                                throw new IllegalStateException("disconnected");
+                            }
+                            return 5.0;
+                        });
+
+        Distance distance = new Distance.Builder(mockedHardwareMap).async().build();
+        assertTrue(distance.state());
+        Thread.sleep(20);
+
+        // the failure is reported on every call, and the sampler isn't restarted
+        for (int i = 0; i < 2; i++) {
+            try {
+                distance.state();
+                fail("Expected the sampler's failure");
+            } catch (IllegalStateException e) {
+                assertEquals("disconnected", e.getMessage());
+            }
+        }
+        assertEquals(2, reads.get());
+    }
+
+    @Test
+    public void state_hasHysteresis() {
+        mockInit();
+        when(mockedDistanceSensor.getDistance(DistanceUnit.CM)).thenReturn(8.0, 6.0, 8.0, 10.0);
+
+        Distance distance = new Distance.Builder(mockedHardwareMap).threshold(7, 9).build();
+        assertFalse(distance.state());
+        assertTrue(distance.state());
+        // still detected between the thresholds
+        assertTrue(distance.state());
+        assertFalse(distance.state());
+    }
+
+    @Test
+    public void getDistance_isFiltered() {
+        mockInit();
+        when(mockedDistanceSensor.getDistance(DistanceUnit.CM)).thenReturn(10.0, 100.0, 12.0);
+
+        Distance distance = new Distance.Builder(mockedHardwareMap).medianWindow(3).build();
+        assertEquals(10, distance.getDistance(), 1e-9);
+        assertEquals(55, distance.getDistance(), 1e-9);
+        assertEquals(12, distance.getDistance(), 1e-9);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void thresholdExitThrowsException() {
+        mockInit();
+
+        new Distance.Builder(mockedHardwareMap).threshold(7, 6).build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void medianWindowThrowsException() {
+        mockInit();
+
+        new Distance.Builder(mockedHardwareMap).medianWindow(0).build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void smoothingThrowsException() {
+        mockInit();
+
+        new Distance.Builder(mockedHardwareMap).smoothing(0).build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void outlierLimitThrowsException() {
+        mockInit();
+
+        new Distance.Builder(mockedHardwareMap).outlierLimit(-1).build();
+    }
 }
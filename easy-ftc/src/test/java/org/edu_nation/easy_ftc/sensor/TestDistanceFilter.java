@@ -0,0 +1,66 @@
+// SPDX-FileCopyrightText: Collegiate Edu-Nation
+// SPDX-License-Identifier: GPL-3.0-or-later
+
+package org.edu_nation.easy_ftc.sensor;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class TestDistanceFilter {
+    @Test
+    public void update_passesThroughByDefault() {
+        DistanceFilter filter = new DistanceFilter(1, 1.0, Double.POSITIVE_INFINITY);
+        assertTrue(Double.isNaN(filter.value()));
+
+        assertEquals(5, filter.update(5), 0);
+        assertEquals(400, filter.update(400), 0);
+        assertEquals(3, filter.update(3), 0);
+    }
+
+    @Test
+    public void update_takesMovingMedian() {
+        DistanceFilter filter = new DistanceFilter(3, 1.0, Double.POSITIVE_INFINITY);
+
+        assertEquals(10, filter.update(10), 0);
+        assertEquals(15, filter.update(20), 0);
+        // a single spike doesn't move the median of three
+        assertEquals(20, filter.update(100), 0);
+        assertEquals(20, filter.update(12), 0);
+        // the oldest readings drop out of the window
+        assertEquals(12, filter.update(11), 0);
+        assertEquals(12, filter.update(13), 0);
+    }
+
+    @Test
+    public void update_smoothsMedian() {
+        DistanceFilter filter = new DistanceFilter(1, 0.5, Double.POSITIVE_INFINITY);
+
+        assertEquals(10, filter.update(10), 0);
+        assertEquals(15, filter.update(20), 1e-9);
+        assertEquals(17.5, filter.update(20), 1e-9);
+    }
+
+    @Test
+    public void update_rejectsOutliers() {
+        DistanceFilter filter = new DistanceFilter(1, 1.0, 5);
+
+        assertEquals(10, filter.update(10), 0);
+        assertEquals(12, filter.update(12), 0);
+        assertEquals(12, filter.update(50), 0);
+        assertEquals(12, filter.update(Double.NaN), 0);
+        assertEquals(14, filter.update(14), 0);
+    }
+
+    @Test
+    public void update_followsSustainedJumps() {
+        DistanceFilter filter = new DistanceFilter(1, 1.0, 5);
+        filter.update(10);
+
+        // at least three readings in a row are rejected, then taken as real
+        assertEquals(10, filter.update(50), 0);
+        assertEquals(10, filter.update(50), 0);
+        assertEquals(10, filter.update(50), 0);
+        assertEquals(50, filter.update(50), 0);
+    }
+}
@@ -8,6 +8,7 @@ import static org.mockito.Mockito.*;
 
 import com.qualcomm.robotcore.hardware.HardwareMap;
 import com.qualcomm.robotcore.hardware.TouchSensor;
+import java.util.concurrent.atomic.AtomicBoolean;
 import org.junit.Test;
 
 public class TestTouch {
@@ -64,4 +65,82 @@ public class TestTouch {
         result = mockedTouchReverse.state();
         assertTrue(result);
     }
+
+    @Test
+    public void state_isCachedWithinPeriod() {
+        mockInit();
+        when(mockedTouchSensor.isPressed()).thenReturn(true, false);
+
+        Touch touch = new Touch.Builder(mockedHardwareMap).period(10).build();
+        assertTrue(touch.state());
+        assertTrue(touch.state());
+        verify(mockedTouchSensor, times(1)).isPressed();
+    }
+
+    @Test
+    public void state_isSampledInBackground() throws InterruptedException {
+        mockInit();
+        AtomicBoolean pressed = new AtomicBoolean(true);
+        when(mockedTouchSensor.isPressed()).thenAnswer(invocation -> pressed.get());
+
+        Touch touch = new Touch.Builder(mockedHardwareMap).async().build();
+        assertTrue(touch.state());
+
+        // the sampler thread picks up the change without state() reading the sensor
+        pressed.set(false);
+        long deadline = System.nanoTime() + 2_000_000_000L;
+        while (touch.state() && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertFalse(touch.state());
+        assertTrue(touch.getSampleCount() >= 2);
+        assertTrue(touch.getAge() < 2);
+        touch.close();
+    }
+
+    @Test
+    public void wasPressed_detectsEdges() {
+        mockInit();
+        when(mockedTouchSensor.isPressed()).thenReturn(false, true, true, false, true);
+
+        Touch touch = new Touch.Builder(mockedHardwareMap).build();
+        assertFalse(touch.wasPressed());
+        assertTrue(touch.wasPressed());
+        // held, so no new press
+        assertFalse(touch.wasPressed());
+        assertTrue(touch.wasReleased());
+        assertEquals(2, touch.getPressCount());
+        assertTrue(touch.getPressDuration() >= 0);
+    }
+
+    @Test
+    public void wasPressed_ignoresInitialPress() {
+        mockInit();
+        when(mockedTouchSensor.isPressed()).thenReturn(true);
+
+        Touch touch = new Touch.Builder(mockedHardwareMap).build();
+        assertFalse(touch.wasPressed());
+        assertEquals(0, touch.getPressCount());
+    }
+
+    @Test
+    public void state_isDebounced() {
+        mockInit();
+        when(mockedTouchSensor.isPressed()).thenReturn(false, true, false, true);
+
+        // a bounce shorter than debounce doesn't change the state
+        Touch touch = new Touch.Builder(mockedHardwareMap).debounce(10).build();
+        for (int i = 0; i < 4; i++) {
+            assertFalse(touch.state());
+        }
+        assertEquals(0, touch.getPressCount());
+        assertEquals(0, touch.getPressDuration(), 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void debounceThrowsException() {
+        mockInit();
+
+        new Touch.Builder(mockedHardwareMap).debounce(-1).build();
+    }
 }